@@ -0,0 +1,407 @@
+package sms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of database connections, so that every database operation doesn't
+ * have to open (and handshake) a brand new connection
+ *
+ * Connections handed out by the pool are returned to it when they are closed,
+ * which means the usual try-with-resources blocks keep working unchanged
+ */
+public class ConnectionPool {
+	/**
+	 * Default number of connections kept open even when the pool is idle
+	 */
+	public static final int DEFAULT_MIN_SIZE = 2;
+
+	/**
+	 * Default maximum number of connections open at the same time
+	 */
+	public static final int DEFAULT_MAX_SIZE = 10;
+
+	/**
+	 * Default time(in milliseconds) after which an unused connection is closed
+	 */
+	public static final long DEFAULT_IDLE_TIMEOUT = 5 * 60 * 1000;
+
+	/**
+	 * Time(in milliseconds) a caller waits for a free connection before giving up
+	 */
+	private static final long BORROW_TIMEOUT = 30 * 1000;
+
+	/**
+	 * Connections returned to the pool more recently than this(in milliseconds)
+	 * are not validated again on borrow, saving a round trip per operation
+	 */
+	private static final long VALIDATION_INTERVAL = 5 * 1000;
+
+	/**
+	 * Time(in seconds) the driver is given to validate a connection
+	 */
+	private static final int VALIDATION_TIMEOUT = 2;
+
+	/**
+	 * The number of prepared statements kept open on every connection
+	 */
+	private static final int STATEMENT_CACHE_SIZE = 64;
+
+	private final String databaseUrl;
+	private final String login;
+	private final String password;
+	private final int minSize;
+	private final int maxSize;
+	private final long idleTimeout;
+
+	/**
+	 * Connections that are open but not used by anyone. The most recently returned
+	 * connection is kept first, so that the rest of them can become idle and be
+	 * evicted
+	 */
+	private final LinkedBlockingDeque<PhysicalConnection> idleConnections;
+
+	/**
+	 * One permit per connection that may still be borrowed
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * The thread that closes connections which have been idle for too long
+	 */
+	private final ScheduledExecutorService evictor;
+
+	private final AtomicInteger openConnections = new AtomicInteger();
+	private final AtomicInteger activeConnections = new AtomicInteger();
+	private final AtomicLong createdConnections = new AtomicLong();
+	private final AtomicLong destroyedConnections = new AtomicLong();
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong statementHits = new AtomicLong();
+	private final AtomicLong statementMisses = new AtomicLong();
+
+	private volatile boolean shutdown;
+
+	/**
+	 * @param databaseUrl - The url of the database to connect to
+	 * @param login       - The login to connect to the database
+	 * @param password    - The password to connect to the database
+	 * @param minSize     - The number of connections kept open while idle
+	 * @param maxSize     - The maximum number of connections open at once
+	 * @param idleTimeout - Time(in milliseconds) after which an unused connection
+	 *                    above minSize is closed
+	 */
+	public ConnectionPool(final String databaseUrl, final String login, final String password, final int minSize,
+			final int maxSize, final long idleTimeout) {
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+		}
+
+		this.databaseUrl = databaseUrl;
+		this.login = login;
+		this.password = password;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.idleTimeout = idleTimeout;
+
+		idleConnections = new LinkedBlockingDeque<PhysicalConnection>();
+		permits = new Semaphore(maxSize, true);
+
+		evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sms-pool-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long evictionPeriod = Math.max(1000, idleTimeout / 2);
+		evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriod, evictionPeriod,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a connection from the pool, opening a new one if none is idle. The
+	 * connection goes back to the pool when it's closed
+	 *
+	 * @return A valid connection to the database
+	 * @throws SQLException If no connection could be obtained
+	 */
+	public Connection getConnection() throws SQLException {
+		if (shutdown) {
+			throw new SQLException("The connection pool has been shut down");
+		}
+
+		final long waitStart = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(BORROW_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timed out waiting for a free database connection");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection", e);
+		}
+
+		PhysicalConnection physicalConnection;
+		try {
+			physicalConnection = takeIdleConnection();
+			if (physicalConnection == null) {
+				physicalConnection = openConnection();
+			}
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+
+		final long waited = System.nanoTime() - waitStart;
+		totalWaitNanos.addAndGet(waited);
+		maxWaitNanos.accumulateAndGet(waited, Math::max);
+		borrowCount.incrementAndGet();
+		activeConnections.incrementAndGet();
+
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new PooledConnectionHandler(physicalConnection));
+	}
+
+	/**
+	 * Opens connections until at least minSize of them are ready to be used, so
+	 * that the first operations don't pay for the handshake
+	 *
+	 * @return The number of connections that have been opened
+	 * @throws SQLException If a connection couldn't be opened
+	 */
+	public int warmUp() throws SQLException {
+		int opened = 0;
+
+		while (!shutdown && openConnections.get() < minSize) {
+			idleConnections.offerLast(openConnection());
+			opened++;
+		}
+
+		return opened;
+	}
+
+	/**
+	 * @return A snapshot of the pool's usage counters
+	 */
+	public PoolStats getStats() {
+		final long borrows = borrowCount.get();
+
+		return new PoolStats(activeConnections.get(), idleConnections.size(), openConnections.get(), maxSize,
+				createdConnections.get(), destroyedConnections.get(), borrows,
+				borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1000, maxWaitNanos.get() / 1000,
+				statementHits.get(), statementMisses.get());
+	}
+
+	/**
+	 * Closes every idle connection and stops the pool. Connections that are still
+	 * borrowed are closed as soon as they are returned
+	 */
+	public void shutdown() {
+		shutdown = true;
+		evictor.shutdownNow();
+
+		PhysicalConnection idleConnection;
+		while ((idleConnection = idleConnections.pollFirst()) != null) {
+			destroy(idleConnection);
+		}
+	}
+
+	/**
+	 * Takes the most recently used idle connection, validating it first if it's
+	 * been unused for a while
+	 *
+	 * @return An idle connection or null if there is none
+	 */
+	private PhysicalConnection takeIdleConnection() {
+		PhysicalConnection idleConnection;
+
+		while ((idleConnection = idleConnections.pollFirst()) != null) {
+			if (System.currentTimeMillis() - idleConnection.idleSince < VALIDATION_INTERVAL
+					|| isValid(idleConnection.connection)) {
+				return idleConnection;
+			}
+
+			destroy(idleConnection);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Opens a new physical connection to the database
+	 */
+	private PhysicalConnection openConnection() throws SQLException {
+		Properties properties = new Properties();
+		properties.setProperty("user", login);
+		properties.setProperty("password", password);
+
+		// Let MySQL keep the plans of the cached statements on the server side and
+		// send JDBC batches as multi-row statements
+		if (databaseUrl.startsWith("jdbc:mysql:")) {
+			properties.setProperty("useServerPrepStmts", "true");
+			properties.setProperty("rewriteBatchedStatements", "true");
+		}
+
+		Connection connection = DriverManager.getConnection(databaseUrl, properties);
+		openConnections.incrementAndGet();
+		createdConnections.incrementAndGet();
+		return new PhysicalConnection(connection);
+	}
+
+	/**
+	 * Puts a connection that has been closed by its user back in the pool
+	 */
+	private void release(final PhysicalConnection physicalConnection) {
+		final Connection connection = physicalConnection.connection;
+		activeConnections.decrementAndGet();
+
+		try {
+			// Don't let a half-done transaction or a changed mode leak to the next user
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			connection.clearWarnings();
+
+			if (shutdown || connection.isClosed()) {
+				destroy(physicalConnection);
+			} else {
+				physicalConnection.idleSince = System.currentTimeMillis();
+				idleConnections.offerFirst(physicalConnection);
+			}
+		} catch (SQLException e) {
+			destroy(physicalConnection);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes the connections that have been idle for longer than the idle timeout,
+	 * keeping at least minSize of them open
+	 */
+	private void evictIdleConnections() {
+		final long now = System.currentTimeMillis();
+
+		Iterator<PhysicalConnection> iterator = idleConnections.descendingIterator();
+		while (iterator.hasNext() && openConnections.get() > minSize) {
+			PhysicalConnection idleConnection = iterator.next();
+
+			if (now - idleConnection.idleSince > idleTimeout && idleConnections.remove(idleConnection)) {
+				destroy(idleConnection);
+			}
+		}
+	}
+
+	/**
+	 * Checks that the database still answers on a connection
+	 */
+	private boolean isValid(final Connection connection) {
+		try {
+			return connection.isValid(VALIDATION_TIMEOUT);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Closes a physical connection for good
+	 */
+	private void destroy(final PhysicalConnection physicalConnection) {
+		openConnections.decrementAndGet();
+		destroyedConnections.incrementAndGet();
+
+		try {
+			physicalConnection.statements.clear();
+			physicalConnection.connection.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * A connection to the database, its prepared statements and the moment it was
+	 * last returned to the pool
+	 */
+	private class PhysicalConnection {
+		private final Connection connection;
+		private final StatementCache statements;
+		private volatile long idleSince;
+
+		private PhysicalConnection(final Connection connection) {
+			this.connection = connection;
+			this.statements = new StatementCache(connection, STATEMENT_CACHE_SIZE, statementHits, statementMisses);
+			this.idleSince = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Forwards every call to the physical connection, except close() which gives
+	 * the connection back to the pool and prepareStatement() which goes through
+	 * the connection's statement cache
+	 */
+	private class PooledConnectionHandler implements InvocationHandler {
+		private final PhysicalConnection physicalConnection;
+		private final Connection connection;
+		private boolean returned;
+
+		private PooledConnectionHandler(final PhysicalConnection physicalConnection) {
+			this.physicalConnection = physicalConnection;
+			this.connection = physicalConnection.connection;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (!returned) {
+					returned = true;
+					release(physicalConnection);
+				}
+				return null;
+			case "isClosed":
+				return returned || connection.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pooled" + connection;
+			default:
+				if (returned) {
+					throw new SQLException("The connection has already been returned to the pool");
+				}
+			}
+
+			// Only plain and generated-keys statements are cached, the rest are rare
+			if (method.getName().equals("prepareStatement") && args.length == 1) {
+				return physicalConnection.statements.prepare((Connection) proxy, (String) args[0],
+						Statement.NO_GENERATED_KEYS);
+			} else if (method.getName().equals("prepareStatement") && args.length == 2
+					&& method.getParameterTypes()[1] == int.class) {
+				return physicalConnection.statements.prepare((Connection) proxy, (String) args[0],
+						(Integer) args[1]);
+			}
+
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
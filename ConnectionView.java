@@ -7,14 +7,18 @@ import java.awt.Font;
 import java.awt.SystemColor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.Executor;
 
+import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 /**
  * The class that holds the front-end connection part of the application and
@@ -37,16 +41,28 @@ public class ConnectionView {
 	private JPasswordField passwordField;
 	private JTextField databaseUrlField;
 
+	/**
+	 * Where the data is kept: the MySQL database(0) or the memory of the
+	 * application(1)
+	 */
+	private JComboBox<String> storageBox;
+
+	/**
+	 * The components whose texts follow the selected language
+	 */
+	private final LocalizedComponents texts = new LocalizedComponents();
+
+	/**
+	 * Runs the results of the connection attempt on the event dispatch thread
+	 */
+	private static final Executor EDT = SwingUtilities::invokeLater;
+
 	/**
 	 * Launch the application.
 	 */
 	public static void main(String[] args) {
 		EventQueue.invokeLater(new Runnable() {
 			public void run() {
-				// Reading messages in dependance of the selected language(by default ENG)
-				Translator.setLanguage(Language.ENG);
-				Translator.getMessagesFromXML();
-
 				try {
 					ConnectionView window = new ConnectionView();
 					window.connectionFrame.setVisible(true);
@@ -75,7 +91,8 @@ public class ConnectionView {
 		connectionFrame.setBounds(100, 100, 640, 480);
 		connectionFrame.setResizable(false);
 		connectionFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		connectionFrame.setTitle(Translator.getValue("sms"));
+		texts.bind(connectionFrame, Messages.sms, JFrame::setTitle);
+		texts.attach(connectionFrame);
 
 		// The blue-colored panel in the top part of the application
 		JPanel topPanel = new JPanel();
@@ -83,7 +100,7 @@ public class ConnectionView {
 		connectionFrame.getContentPane().add(topPanel, BorderLayout.NORTH);
 
 		// The text that informs the user that they have to connect to a database
-		JLabel connectText = new JLabel(Translator.getValue("connectText"));
+		JLabel connectText = texts.label(Messages.connectText);
 		connectText.setForeground(new Color(255, 255, 255));
 		connectText.setFont(new Font("Tahoma", Font.PLAIN, 25));
 		topPanel.add(connectText);
@@ -93,12 +110,12 @@ public class ConnectionView {
 		connectionFrame.getContentPane().add(bottomPanel, BorderLayout.CENTER);
 
 		// The text that informs the user where they have to type the login
-		JLabel loginText = new JLabel(Translator.getValue("loginText"));
+		JLabel loginText = texts.label(Messages.loginText);
 		loginText.setBounds(68, 134, 162, 25);
 		loginText.setFont(new Font("Tahoma", Font.PLAIN, 12));
 
 		// The text that informs the user where they have to type the password
-		JLabel passwordText = new JLabel(Translator.getValue("passwordText"));
+		JLabel passwordText = texts.label(Messages.passwordText);
 		passwordText.setBounds(68, 174, 162, 25);
 		passwordText.setFont(new Font("Tahoma", Font.PLAIN, 12));
 
@@ -120,30 +137,39 @@ public class ConnectionView {
 		databaseUrlField.setColumns(10);
 		databaseUrlField.setBounds(240, 96, 330, 20);
 
+		// The choice of where the data is kept, the database fields are only needed for MySQL
+		JLabel storageText = texts.label(Messages.storageText);
+		storageText.setFont(new Font("Tahoma", Font.PLAIN, 12));
+		storageText.setBounds(68, 214, 162, 25);
+
+		storageBox = new JComboBox<>();
+		storageBox.setName("storageBox");
+		storageBox.setBounds(240, 219, 330, 20);
+		texts.bind(storageBox, Messages.storageMySql, (box, text) -> {
+			final int selected = box.getSelectedIndex();
+			box.setModel(
+					new DefaultComboBoxModel<>(new String[] { text, Translator.getValue(Messages.storageMemory) }));
+			box.setSelectedIndex(Math.max(selected, 0));
+		});
+
 		// The text that informs user where they have to write database url
-		JLabel databaseUrlText = new JLabel(Translator.getValue("databaseUrlText"));
+		JLabel databaseUrlText = texts.label(Messages.databaseUrlText);
 		databaseUrlText.setFont(new Font("Tahoma", Font.PLAIN, 12));
 		databaseUrlText.setBounds(68, 91, 162, 25);
 
 		// The button that changes the langauge of the application
-		JButton changeLanguageButton = new JButton(Translator.getValue("changeLanguage"));
+		JButton changeLanguageButton = texts.button(Messages.changeLanguage);
 
 		// Actions to perform when "Change language" button is clicked
 		changeLanguageButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				Language selectedLanguage = (Language) JOptionPane.showInputDialog(null, Translator.getValue("sms"),
-						Translator.getValue("selectLanguage"), JOptionPane.QUESTION_MESSAGE, null, Language.values(),
-						Language.ENG.toString());
+				Language selectedLanguage = (Language) JOptionPane.showInputDialog(null,
+						Translator.getValue(Messages.sms), Translator.getValue(Messages.selectLanguage),
+						JOptionPane.QUESTION_MESSAGE, null, Language.values(), Language.ENG.toString());
 
+				// The texts of the window are changed in place, the typed fields are kept
 				if (selectedLanguage != null)
 					Translator.setLanguage(selectedLanguage);
-				else
-					return;
-
-				Translator.getMessagesFromXML();
-
-				connectionFrame.dispose();
-				new ConnectionView();
 			}
 		});
 
@@ -152,7 +178,7 @@ public class ConnectionView {
 		bottomPanel.add(changeLanguageButton);
 
 		// The button to press after the login and password were written
-		JButton connectButton = new JButton(Translator.getValue("connectButton"));
+		JButton connectButton = texts.button(Messages.connectButton);
 		connectButton.setName("connectButton");
 		connectButton.setBounds(221, 290, 190, 42);
 		connectButton.setFont(new Font("Tahoma", Font.PLAIN, 20));
@@ -160,37 +186,74 @@ public class ConnectionView {
 		// Execute connection and create a table when "Connect" button pressed
 		connectButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
+				final boolean inMemory = storageBox.getSelectedIndex() == 1;
+
 				// If one of the fields are empty then warn user about it
-				if (loginField.getText().equals("") || databaseUrlField.getText().equals("")) {
-					JOptionPane.showMessageDialog(new JFrame(), Translator.getValue("fillEmptyFields"),
-							Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+				if (!inMemory && (loginField.getText().equals("") || databaseUrlField.getText().equals(""))) {
+					JOptionPane.showMessageDialog(new JFrame(), Translator.getValue(Messages.fillEmptyFields),
+							Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 				} else {
-					// Get login, password and database url from fields and set them for database
-					// handler
-					DBHandler.setLogin(loginField.getText());
-					DBHandler.setPassword(passwordField.getText());
-					DBHandler.setDatabaseUrl(databaseUrlField.getText());
-
-					 // Test the database connection before creating tables
-					if (DBHandler.testConnection()) {
-						System.out.println("Connection test passed.");
-					} else {
-						System.err.println("Connection test failed.");
-					}
-
-					// If table has\hasn't been successfully created then inform the user about that
-					if (DBHandler.createTables()) {
-						JOptionPane.showMessageDialog(new JFrame(), Translator.getValue("connectionEstablished"),
-								Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-
-						// Open a new window where you can manage the table and close the old one
-						ManagementView.main(null);
-						connectionFrame.dispose();
-
+					if (inMemory) {
+						// The data kept in memory stays until the application exits, also after disconnecting
+						if (!(StudentService.getRepository() instanceof InMemoryStudentRepository)) {
+							StudentService.setRepository(new InMemoryStudentRepository());
+						}
 					} else {
-						JOptionPane.showMessageDialog(new JFrame(), Translator.getValue("connectionNotEstablished"),
-								Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+						// Get login, password and database url from fields and set them for database
+						// handler
+						DBHandler.setLogin(loginField.getText());
+						DBHandler.setPassword(passwordField.getText());
+						DBHandler.setDatabaseUrl(databaseUrlField.getText());
+						StudentService.setRepository(new JdbcStudentRepository());
 					}
+					StartupTimings.begin();
+					connectButton.setEnabled(false);
+
+					 // Test the database connection before creating tables, both off the event dispatch thread
+					final long testStart = System.nanoTime();
+					StudentService.testConnection().thenCompose(connected -> {
+						StartupTimings.record("testConnection", testStart, System.nanoTime());
+						if (connected) {
+							System.out.println("Connection test passed.");
+
+							// Open the other pooled connections in the background, while the tables are checked
+							final long warmUpStart = System.nanoTime();
+							StudentService.warmUp().thenAccept(warmedUp -> StartupTimings
+									.record("warmUpConnectionPool", warmUpStart, System.nanoTime()));
+						} else {
+							System.err.println("Connection test failed.");
+						}
+
+						final long createStart = System.nanoTime();
+						return StudentService.createTables().thenApply(created -> {
+							StartupTimings.record("createTables", createStart, System.nanoTime());
+							return created;
+						});
+					}).thenAcceptAsync(created -> {
+						connectButton.setEnabled(true);
+
+						// If table has\hasn't been successfully created then inform the user about that
+						if (created) {
+							// Read the courses, the faculties and the first students while the user reads the dialog
+							final long referenceDataStart = System.nanoTime();
+							StudentService.getFaculties().thenAccept(faculties -> StartupTimings
+									.record("loadCoursesAndFaculties", referenceDataStart, System.nanoTime()));
+							final StudentTableModel.FirstRead firstRead = new StudentTableModel.FirstRead();
+
+							StartupTimings.waitForUser("connectionDialog", () -> JOptionPane.showMessageDialog(
+									new JFrame(), Translator.getValue(Messages.connectionEstablished),
+									Translator.getValue(Messages.success), JOptionPane.INFORMATION_MESSAGE));
+
+							// Open a new window where you can manage the table and close the old one
+							ManagementView.open(firstRead);
+							connectionFrame.dispose();
+
+						} else {
+							JOptionPane.showMessageDialog(new JFrame(),
+									Translator.getValue(Messages.connectionNotEstablished),
+									Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
+						}
+					}, EDT);
 				}
 
 			}
@@ -204,6 +267,8 @@ public class ConnectionView {
 		bottomPanel.add(connectButton);
 		bottomPanel.add(databaseUrlText);
 		bottomPanel.add(databaseUrlField);
+		bottomPanel.add(storageText);
+		bottomPanel.add(storageBox);
 
 	}
 }
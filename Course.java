@@ -0,0 +1,53 @@
+package sms;
+
+/**
+ * The class that holds the information about a course
+ */
+public class Course {
+	/**
+	 * The name of the course
+	 */
+	private final String name;
+
+	/**
+	 * The faculty the course belongs to
+	 */
+	private final String faculty;
+
+	/**
+	 * The duration of the course in months
+	 */
+	private final int duration;
+
+	/**
+	 * @param name     - The name of the course
+	 * @param faculty  - The faculty the course belongs to
+	 * @param duration - The duration of the course in months
+	 */
+	public Course(final String name, final String faculty, final int duration) {
+		this.name = name;
+		this.faculty = faculty;
+		this.duration = duration;
+	}
+
+	/**
+	 * @return The name of the course
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return The faculty the course belongs to
+	 */
+	public String getFaculty() {
+		return faculty;
+	}
+
+	/**
+	 * @return The duration of the course in months
+	 */
+	public int getDuration() {
+		return duration;
+	}
+}
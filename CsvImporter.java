@@ -0,0 +1,459 @@
+package sms;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * Imports students, courses or faculties from a CSV file. The file is streamed
+ * through three stages running on their own threads - reading, validation and
+ * batched insertion - connected by bounded queues, so memory use doesn't depend
+ * on the size of the file. Rows that can't be imported are written to an error
+ * file together with the reason
+ *
+ * Expected columns(an optional header row is skipped):
+ * <ul>
+ * <li>Students: Name, Surname, Age, Gender, Course, Started(YYYY-MM-DD)</li>
+ * <li>Courses: Name, Faculty, Duration(months)</li>
+ * <li>Faculties: Name</li>
+ * </ul>
+ */
+public class CsvImporter {
+	/**
+	 * What the imported file contains
+	 */
+	public enum Target {
+		STUDENTS("Name", "Surname", "Age", "Gender", "Course", "Started"),
+		COURSES("Name", "Faculty", "Duration"),
+		FACULTIES("Name");
+
+		private final String[] columns;
+
+		Target(final String... columns) {
+			this.columns = columns;
+		}
+
+		/**
+		 * @return The columns expected in the file
+		 */
+		public String[] getColumns() {
+			return columns.clone();
+		}
+	}
+
+	/**
+	 * The default number of rows waiting between two stages
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+	/**
+	 * Marks the end of the rows in a queue
+	 */
+	private static final Row END = new Row(-1, null);
+
+	/**
+	 * How long(in milliseconds) a stage waits on a queue before checking whether
+	 * the import has been aborted
+	 */
+	private static final long QUEUE_POLL_TIMEOUT = 100;
+
+	/**
+	 * The accepted format of the Started column, the same one the form accepts
+	 */
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd")
+			.withResolverStyle(ResolverStyle.STRICT);
+
+	private final Target target;
+	private final int batchSize;
+	private final int queueCapacity;
+
+	/**
+	 * @param target - What the imported files contain
+	 */
+	public CsvImporter(final Target target) {
+		this(target, DBHandler.DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * @param target        - What the imported files contain
+	 * @param batchSize     - The number of rows inserted in one batch
+	 * @param queueCapacity - The number of rows that may wait between two stages
+	 */
+	public CsvImporter(final Target target, final int batchSize, final int queueCapacity) {
+		if (batchSize < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+		}
+
+		this.target = target;
+		this.batchSize = batchSize;
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Imports a CSV file
+	 *
+	 * @param input     - The file to import
+	 * @param errorFile - The file the rejected rows are written to. It's only
+	 *                  created if a row is rejected
+	 * @param progress  - Called from the insertion thread with the number of rows
+	 *                  handled so far, may be null
+	 * @return How many rows have been imported and rejected and how fast
+	 * @throws IOException If the input or the error file can't be read or written
+	 */
+	public TransferReport importFile(final Path input, final Path errorFile, final LongConsumer progress)
+			throws IOException {
+		final long start = System.nanoTime();
+		Files.deleteIfExists(errorFile);
+
+		Import currentImport = new Import(errorFile, progress);
+		currentImport.run(input);
+
+		return new TransferReport(currentImport.rowsRead.get(), currentImport.rowsWritten.get(),
+				currentImport.rowsRejected.get(), System.nanoTime() - start);
+	}
+
+	/**
+	 * A line of the file, and what it has been parsed to once validated
+	 */
+	private static class Row {
+		private final long line;
+		private final String[] fields;
+		private Object value;
+
+		private Row(final long line, final String[] fields) {
+			this.line = line;
+			this.fields = fields;
+		}
+	}
+
+	/**
+	 * The state of one import
+	 */
+	private class Import {
+		private final BlockingQueue<Row> readRows = new ArrayBlockingQueue<Row>(queueCapacity);
+		private final BlockingQueue<Row> validRows = new ArrayBlockingQueue<Row>(queueCapacity);
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		private final AtomicLong rowsRead = new AtomicLong();
+		private final AtomicLong rowsWritten = new AtomicLong();
+		private final AtomicLong rowsRejected = new AtomicLong();
+		private final Path errorFile;
+		private final LongConsumer progress;
+		private CsvWriter errorWriter;
+
+		/**
+		 * Names that already exist in the database or earlier in the file
+		 */
+		private final Set<String> knownNames = new HashSet<String>();
+
+		/**
+		 * Names the imported rows may refer to(courses of students, faculties of
+		 * courses)
+		 */
+		private final Set<String> referencedNames = new HashSet<String>();
+
+		private Import(final Path errorFile, final LongConsumer progress) {
+			this.errorFile = errorFile;
+			this.progress = progress;
+		}
+
+		private void run(final Path input) throws IOException {
+			switch (target) {
+			case STUDENTS:
+				referencedNames.addAll(Arrays.asList(StudentService.getRepository().getCourses()));
+				break;
+			case COURSES:
+				knownNames.addAll(Arrays.asList(StudentService.getRepository().getCourses()));
+				referencedNames.addAll(Arrays.asList(StudentService.getRepository().getFaculties()));
+				break;
+			case FACULTIES:
+				knownNames.addAll(Arrays.asList(StudentService.getRepository().getFaculties()));
+				break;
+			}
+
+			List<Thread> stages = new ArrayList<Thread>();
+			stages.add(startStage("read", () -> read(input)));
+			stages.add(startStage("validate", this::validate));
+			stages.add(startStage("insert", this::insert));
+
+			try {
+				for (Thread stage : stages) {
+					stage.join();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failure.compareAndSet(null, e);
+			} finally {
+				synchronized (this) {
+					if (errorWriter != null) {
+						errorWriter.close();
+					}
+				}
+			}
+
+			final Throwable cause = failure.get();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause != null) {
+				throw new IOException("The import has been aborted", cause);
+			}
+		}
+
+		private Thread startStage(final String name, final Stage stage) {
+			Thread thread = new Thread(() -> {
+				try {
+					stage.run();
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			}, "sms-import-" + name);
+			thread.setDaemon(true);
+			thread.start();
+			return thread;
+		}
+
+		/**
+		 * First stage: splits the file into records
+		 */
+		private void read(final Path input) throws IOException, InterruptedException {
+			try (CsvReader reader = new CsvReader(Files.newBufferedReader(input, StandardCharsets.UTF_8))) {
+				String[] fields;
+				boolean firstRecord = true;
+
+				while ((fields = reader.readRecord()) != null) {
+					// Skip the header if there is one
+					if (firstRecord && fields[0].trim().equalsIgnoreCase(target.columns[0])) {
+						firstRecord = false;
+						continue;
+					}
+					firstRecord = false;
+
+					rowsRead.incrementAndGet();
+					if (!put(readRows, new Row(reader.getRecordLine(), fields))) {
+						return;
+					}
+				}
+			}
+
+			put(readRows, END);
+		}
+
+		/**
+		 * Second stage: checks the fields and turns them into objects
+		 */
+		private void validate() throws IOException, InterruptedException {
+			Row row;
+
+			while ((row = take(readRows)) != null) {
+				if (row == END) {
+					put(validRows, END);
+					return;
+				}
+
+				try {
+					row.value = parse(row.fields);
+				} catch (IllegalArgumentException | DateTimeParseException e) {
+					reject(row, e.getMessage());
+					continue;
+				}
+
+				if (!put(validRows, row)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Third stage: inserts the valid rows in batches
+		 */
+		private void insert() throws IOException, InterruptedException {
+			List<Row> batch = new ArrayList<Row>(batchSize);
+			Row row;
+
+			while ((row = take(validRows)) != null) {
+				if (row != END) {
+					batch.add(row);
+				}
+
+				if (batch.size() == batchSize || (row == END && !batch.isEmpty())) {
+					if (insertBatch(batch)) {
+						rowsWritten.addAndGet(batch.size());
+					} else {
+						for (Row rejected : batch) {
+							reject(rejected, "The database refused the batch this row was in");
+						}
+					}
+					batch.clear();
+
+					if (progress != null) {
+						progress.accept(rowsWritten.get() + rowsRejected.get());
+					}
+				}
+
+				if (row == END) {
+					return;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private boolean insertBatch(final List<Row> batch) {
+			List<Object> values = new ArrayList<Object>(batch.size());
+			for (Row row : batch) {
+				values.add(row.value);
+			}
+
+			switch (target) {
+			case STUDENTS:
+				return StudentService.getRepository().addStudents((List<Student>) (List<?>) values, batchSize) != null;
+			case COURSES:
+				return StudentService.getRepository().addCourses((List<Course>) (List<?>) values);
+			default:
+				return StudentService.getRepository().addFaculties((List<String>) (List<?>) values);
+			}
+		}
+
+		/**
+		 * Turns the fields of a row into a student, a course or a faculty name
+		 *
+		 * @throws IllegalArgumentException If a field isn't valid, with the reason
+		 */
+		private Object parse(final String[] fields) {
+			if (fields.length != target.columns.length) {
+				throw new IllegalArgumentException(
+						"Expected " + target.columns.length + " columns but found " + fields.length);
+			}
+
+			final String name = requireNotEmpty(fields[0], "Name");
+
+			switch (target) {
+			case STUDENTS:
+				Student student = new Student();
+				student.setName(name);
+				student.setSurname(requireNotEmpty(fields[1], "Surname"));
+				student.setAge(parseNumber(fields[2], "Age"));
+				student.setGender(parseGender(fields[3]));
+				student.setCourse(requireReferenced(fields[4], "Course"));
+				student.setStarted(java.sql.Date.valueOf(LocalDate.parse(fields[5].trim(), DATE_FORMAT)));
+				return student;
+			case COURSES:
+				requireNew(name);
+				return new Course(name, requireReferenced(fields[1], "Faculty"), parseNumber(fields[2], "Duration"));
+			default:
+				requireNew(name);
+				return name;
+			}
+		}
+
+		private String requireNotEmpty(final String field, final String column) {
+			if (field.trim().isEmpty()) {
+				throw new IllegalArgumentException(column + " is empty");
+			}
+			return field.trim();
+		}
+
+		private String requireReferenced(final String field, final String column) {
+			if (!referencedNames.contains(field.trim())) {
+				throw new IllegalArgumentException(column + " " + field + " doesn't exist");
+			}
+			return field.trim();
+		}
+
+		private void requireNew(final String name) {
+			if (!knownNames.add(name)) {
+				throw new IllegalArgumentException(name + " already exists");
+			}
+		}
+
+		private int parseNumber(final String field, final String column) {
+			try {
+				return Integer.parseInt(field.trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(column + " is not a number: " + field);
+			}
+		}
+
+		private Gender parseGender(final String field) {
+			for (Gender gender : Gender.values()) {
+				if (gender.name().equalsIgnoreCase(field.trim())) {
+					return gender;
+				}
+			}
+			throw new IllegalArgumentException("Unknown gender: " + field);
+		}
+
+		/**
+		 * Writes a row that couldn't be imported to the error file
+		 */
+		private synchronized void reject(final Row row, final String reason) throws IOException {
+			rowsRejected.incrementAndGet();
+
+			if (errorWriter == null) {
+				errorWriter = new CsvWriter(Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8));
+
+				String[] header = new String[target.columns.length + 2];
+				header[0] = "Line";
+				header[1] = "Error";
+				System.arraycopy(target.columns, 0, header, 2, target.columns.length);
+				errorWriter.writeRecord(header);
+			}
+
+			String[] record = new String[row.fields.length + 2];
+			record[0] = String.valueOf(row.line);
+			record[1] = reason;
+			System.arraycopy(row.fields, 0, record, 2, row.fields.length);
+			errorWriter.writeRecord(record);
+		}
+
+		/**
+		 * Puts a row in a queue, waiting for room unless the import fails meanwhile
+		 *
+		 * @return False if the import has failed
+		 */
+		private boolean put(final BlockingQueue<Row> queue, final Row row) throws InterruptedException {
+			while (failure.get() == null) {
+				if (queue.offer(row, QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Takes a row from a queue, waiting for one unless the import fails meanwhile
+		 *
+		 * @return The row, or null if the import has failed
+		 */
+		private Row take(final BlockingQueue<Row> queue) throws InterruptedException {
+			while (failure.get() == null) {
+				Row row = queue.poll(QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				if (row != null) {
+					return row;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The work of a pipeline stage
+	 */
+	private interface Stage {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,143 @@
+package sms;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads comma-separated records one at a time, so that files of any size can be
+ * read without loading them in memory. Fields may be quoted with double
+ * quotes, in which case they can contain commas, line breaks and doubled
+ * quotes
+ */
+public class CsvReader implements Closeable {
+	/**
+	 * The reader the records are read from
+	 */
+	private final Reader reader;
+
+	/**
+	 * The characters read ahead from the reader
+	 */
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int limit;
+
+	/**
+	 * The line on which the last record returned started, counting from 1
+	 */
+	private long recordLine;
+
+	/**
+	 * The line the reader is currently on, counting from 1
+	 */
+	private long currentLine = 1;
+
+	/**
+	 * @param reader - The reader the records are read from, preferably buffered
+	 */
+	public CsvReader(final Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the next record
+	 *
+	 * @return The fields of the record, or null at the end of the input
+	 * @throws IOException If the input can't be read or a quote is never closed
+	 */
+	public String[] readRecord() throws IOException {
+		int c = read();
+
+		// Skip empty lines between records
+		while (c == '\r' || c == '\n') {
+			c = read();
+		}
+		if (c == -1) {
+			return null;
+		}
+
+		recordLine = currentLine;
+		List<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IOException("Unclosed quote in the record starting on line " + recordLine);
+				} else if (c == '"') {
+					c = read();
+					if (c == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						continue;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\r' || c == '\n' || c == -1) {
+				if (c == '\r' && peek() == '\n') {
+					read();
+				}
+				fields.add(field.toString());
+				return fields.toArray(new String[0]);
+			} else {
+				field.append((char) c);
+			}
+
+			c = read();
+		}
+	}
+
+	/**
+	 * @return The line on which the last record returned started, counting from 1
+	 */
+	public long getRecordLine() {
+		return recordLine;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private int read() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+
+		final char c = buffer[position++];
+		if (c == '\n') {
+			currentLine++;
+		}
+		return c;
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		limit = reader.read(buffer, 0, buffer.length);
+		position = 0;
+
+		if (limit <= 0) {
+			limit = 0;
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,52 @@
+package sms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * The class that tests CsvReader and CsvWriter classes
+ */
+public class CsvReaderTest {
+
+	@Test
+	public void readsPlainAndQuotedFields() throws IOException {
+		CsvReader reader = new CsvReader(
+				new StringReader("Name,Surname\r\n\"White, Walter\",\"Say \"\"my\"\" name\"\n\nJesse,\"Pink\nman\"\nlast,"));
+
+		assertArrayEquals(new String[] { "Name", "Surname" }, reader.readRecord());
+		assertEquals(1, reader.getRecordLine());
+
+		assertArrayEquals(new String[] { "White, Walter", "Say \"my\" name" }, reader.readRecord());
+		assertEquals(2, reader.getRecordLine());
+
+		assertArrayEquals(new String[] { "Jesse", "Pink\nman" }, reader.readRecord());
+		assertEquals(4, reader.getRecordLine());
+
+		assertArrayEquals(new String[] { "last", "" }, reader.readRecord());
+		assertNull(reader.readRecord());
+	}
+
+	@Test(expected = IOException.class)
+	public void unclosedQuoteTest() throws IOException {
+		new CsvReader(new StringReader("\"never closed")).readRecord();
+	}
+
+	@Test
+	public void writtenRecordsAreReadBack() throws IOException {
+		String[] record = { "a,b", "q\"x", "", "plain", "two\nlines" };
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output);
+		writer.writeRecord(record);
+		writer.flush();
+
+		assertArrayEquals(record, new CsvReader(new StringReader(output.toString())).readRecord());
+	}
+}
@@ -0,0 +1,76 @@
+package sms;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes comma-separated records, quoting the fields that need it
+ */
+public class CsvWriter implements Closeable, Flushable {
+	/**
+	 * The writer the records are written to
+	 */
+	private final Writer writer;
+
+	/**
+	 * @param writer - The writer the records are written to, preferably buffered
+	 */
+	public CsvWriter(final Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Writes one record followed by a line break
+	 *
+	 * @param fields - The fields of the record, null fields are written empty
+	 */
+	public void writeRecord(final String... fields) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writeField(fields[i]);
+		}
+
+		writer.write('\n');
+	}
+
+	private void writeField(final String field) throws IOException {
+		if (field == null) {
+			return;
+		}
+
+		boolean needsQuotes = false;
+		for (int i = 0; i < field.length() && !needsQuotes; i++) {
+			final char c = field.charAt(i);
+			needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+
+		if (!needsQuotes) {
+			writer.write(field);
+			return;
+		}
+
+		writer.write('"');
+		for (int i = 0; i < field.length(); i++) {
+			final char c = field.charAt(i);
+			if (c == '"') {
+				writer.write('"');
+			}
+			writer.write(c);
+		}
+		writer.write('"');
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
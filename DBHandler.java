@@ -1,18 +1,29 @@
 package sms;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
-
-import javax.swing.table.DefaultTableModel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * The class that allows access to a database for reading and writing data
@@ -22,6 +33,11 @@ import javax.swing.table.DefaultTableModel;
  *
  */
 public class DBHandler {
+	/**
+	 * The number of rows sent to the database in one batch by default
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
 	/**
 	 * Login to connect to the database
 	 */
@@ -52,6 +68,79 @@ public class DBHandler {
 	 */
 	private final static String facultiesTable;
 
+	/**
+	 * The var that stores the name of the table that remembers when students were
+	 * deleted, so that other clients can drop them from their view
+	 */
+	private final static String deletedStudentsTable;
+
+	/**
+	 * The var that stores the name of the table that holds the next free ID of
+	 * the students, from which the clients reserve blocks of IDs
+	 */
+	private final static String idBlocksTable;
+
+	/**
+	 * The columns of the students table, in the order they are shown
+	 */
+	private final static String[] studentColumns = {"ID", "Name", "Surname", "Age", "Gender", "Course", "Started",
+			"Graduation"};
+
+	/**
+	 * The pool that database connections are borrowed from, created lazily for
+	 * the current url and credentials
+	 */
+	private static ConnectionPool connectionPool;
+
+	/**
+	 * The number of connections the pool keeps open while idle
+	 */
+	private static int poolMinSize = ConnectionPool.DEFAULT_MIN_SIZE;
+
+	/**
+	 * The maximum number of connections the pool opens at once
+	 */
+	private static int poolMaxSize = ConnectionPool.DEFAULT_MAX_SIZE;
+
+	/**
+	 * Time(in milliseconds) after which an unused pooled connection is closed
+	 */
+	private static long poolIdleTimeout = ConnectionPool.DEFAULT_IDLE_TIMEOUT;
+
+	/**
+	 * The tables of the database, null until they are read
+	 */
+	private static volatile SchemaMetadata schemaMetadata;
+
+	/**
+	 * How far back(in milliseconds) the sync time of the changes read is set, so
+	 * that the transactions running while they are read are picked up next time
+	 */
+	private static final long CHANGES_OVERLAP = TimeUnit.SECONDS.toMillis(60);
+
+	/**
+	 * How often(in milliseconds) the deleted students older than the retention are
+	 * forgotten
+	 */
+	private static final long DELETIONS_PRUNE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * The next time the old deleted students are forgotten
+	 */
+	private static final AtomicLong nextDeletionsPrune = new AtomicLong();
+
+	/**
+	 * The courses and faculties kept in memory
+	 */
+	private static final ReferenceDataCache referenceData = new ReferenceDataCache(DBHandler::loadReferenceData,
+			ReferenceDataCache.DEFAULT_TTL);
+
+	/**
+	 * Hands out the IDs of new students from blocks reserved in the database
+	 */
+	private static final IdAllocator studentIds = new IdAllocator(DBHandler::reserveStudentIds,
+			IdAllocator.DEFAULT_BLOCK_SIZE);
+
 	/**
 	 * Default constructor
 	 */
@@ -70,6 +159,8 @@ public class DBHandler {
 		studentsTable = "students";
 		coursesTable = "courses";
 		facultiesTable = "faculties";
+		deletedStudentsTable = "deleted_students";
+		idBlocksTable = "id_blocks";
 	}
 
 	/**
@@ -84,6 +175,7 @@ public class DBHandler {
 	 */
 	public static void setLogin(final String login) {
 		DBHandler.login = login;
+		resetConnectionPool();
 	}
 
 	/**
@@ -98,6 +190,7 @@ public class DBHandler {
 	 */
 	public static void setPassword(final String password) {
 		DBHandler.password = password;
+		resetConnectionPool();
 	}
 
 	/**
@@ -105,6 +198,7 @@ public class DBHandler {
 	 */
 	public static void setDatabaseUrl(final String databaseUrl) {
 		DBHandler.databaseUrl = databaseUrl;
+		resetConnectionPool();
 	}
 
 	/**
@@ -135,11 +229,102 @@ public class DBHandler {
 		return coursesTable;
 	}
 
+	/**
+	 * @return The deleted students table's name
+	 */
+	public static String getDeletedStudentsTable() {
+		return deletedStudentsTable;
+	}
+
+	/**
+	 * @return The name of the table the blocks of student IDs are reserved from
+	 */
+	public static String getIdBlocksTable() {
+		return idBlocksTable;
+	}
+
+	/**
+	 * @param minSize - The number of connections the pool keeps open while idle
+	 * @param maxSize - The maximum number of connections the pool opens at once
+	 */
+	public static void setPoolSize(final int minSize, final int maxSize) {
+		DBHandler.poolMinSize = minSize;
+		DBHandler.poolMaxSize = maxSize;
+		resetConnectionPool();
+	}
+
+	/**
+	 * @param idleTimeout - Time(in milliseconds) after which an unused pooled
+	 *                    connection is closed
+	 */
+	public static void setPoolIdleTimeout(final long idleTimeout) {
+		DBHandler.poolIdleTimeout = idleTimeout;
+		resetConnectionPool();
+	}
+
+	/**
+	 * @return The usage counters of the connection pool
+	 */
+	public static synchronized PoolStats getPoolStats() {
+		return getConnectionPool().getStats();
+	}
+
+	/**
+	 * Opens the pool's minimum number of connections ahead of time, so that the
+	 * first operations don't have to wait for a handshake
+	 * 
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	public static boolean warmUpConnectionPool() {
+		try {
+			getConnectionPool().warmUp();
+			return true;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * @return The cache of courses and faculties, with its hit and miss counts
+	 */
+	public static ReferenceDataCache getReferenceDataCache() {
+		return referenceData;
+	}
+
+	/**
+	 * @return The pool for the current url and credentials
+	 */
+	private static synchronized ConnectionPool getConnectionPool() {
+		if (connectionPool == null) {
+			connectionPool = new ConnectionPool(databaseUrl, login, password, poolMinSize, poolMaxSize,
+					poolIdleTimeout);
+		}
+
+		return connectionPool;
+	}
+
+	/**
+	 * Closes the current pool, so that the next connection is opened with the new
+	 * url and credentials
+	 */
+	private static synchronized void resetConnectionPool() {
+		if (connectionPool != null) {
+			connectionPool.shutdown();
+			connectionPool = null;
+		}
+
+		// The cached data and the reserved IDs belong to the previous database
+		referenceData.invalidate();
+		schemaMetadata = null;
+		studentIds.reset();
+	}
+
 	/**
 	 * Encapsulate database logic and hide sensitive details
 	 */
 	private static Connection getDatabaseConnection() throws SQLException {
-		return DriverManager.getConnection(databaseUrl, login, password);
+		return getConnectionPool().getConnection();
 	}
 
 	/**
@@ -149,187 +334,748 @@ public class DBHandler {
 	 * @return True if table exists, false otherwise
 	 */
 	public static boolean checkIfTableExists(final String tableName) {
+		try {
+			return getSchemaMetadata().hasTable(tableName);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * @return The tables of the database, read once and kept until the schema or
+	 *         the database changes
+	 */
+	private static SchemaMetadata getSchemaMetadata() throws SQLException {
+		SchemaMetadata metadata = schemaMetadata;
+		if (metadata == null) {
+			try (Connection connection = getDatabaseConnection()) {
+				metadata = SchemaMetadata.read(connection, studentsTable, coursesTable, facultiesTable);
+			}
+			schemaMetadata = metadata;
+		}
+
+		return metadata;
+	}
+
+	/**
+	 * Checks if an insert has been rejected because of a unique index, the
+	 * violation may be wrapped by a batch exception
+	 */
+	private static boolean isDuplicateName(final SQLException exception) {
+		for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLIntegrityConstraintViolationException) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Creates the tables of students, courses and faculties, or brings the
+	 * existing ones up to date with the migrations they don't have yet
+	 * 
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	public static boolean createTables() {
 		try (Connection connection = getDatabaseConnection()) {
-			DatabaseMetaData dbmData = connection.getMetaData();
-			try (ResultSet resultSet = dbmData.getTables(null, null, tableName, null)) {
+			// Nothing else is read when the schema is up to date
+			if (SchemaMigrator.migrate(connection) > 0) {
+				// Migrations may have changed the tables, the courses and the faculties
+				schemaMetadata = null;
+				referenceData.invalidate();
+			}
+
+			return true;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Adds a new student to the table. The student's graduation date is set
+	 * according to the duration of their course, and the student gets an ID
+	 * from a reserved block unless it already has one
+	 * 
+	 * @param student - The student to add
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	public static boolean addStudent(final Student student) {
+		// Reserving a block of IDs and loading the courses take a connection of their own, so they are done first
+		final int courseDuration;
+		try {
+			courseDuration = getCourseDurations(Collections.singleton(student)).get(student.getCourse());
+			assignId(student);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement preparedStatement = connection
+					.prepareStatement(SqlStatement.INSERT_STUDENT.getSql())) {
+
+				final LocalDate startedDate = toLocalDate(student.getStarted());
+				final LocalDate graduationDate = startedDate.plusMonths(courseDuration);
+				student.setGraduation(java.sql.Date.valueOf(graduationDate));
+
+				setStudentParameters(preparedStatement, student, startedDate, graduationDate);
+				preparedStatement.executeUpdate();
+				adjustCourseAttendees(connection, Collections.singletonMap(student.getCourse(), 1));
+
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			}
+
+			// Return true if no exception has been thrown
+			return true;
+		} catch (SQLException e) {
+			e.printStackTrace();
+
+			// Return false if an exception has been thrown
+			return false;
+		} catch (Exception e) {
+			e.printStackTrace();
+
+			// Return false if an exception has been thrown
+			return false;
+		}
+	}
+
+	/**
+	 * Adds many students to the table at once, in batches of DEFAULT_BATCH_SIZE
+	 * 
+	 * @see #addStudents(Collection, int)
+	 */
+	public static int[] addStudents(final Collection<Student> students) {
+		return addStudents(students, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Adds many students to the table in a single transaction. Course durations are
+	 * read once, before the connection is taken, the rows are sent in batches and
+	 * the number of attendees of each course is increased once at the end. Either
+	 * all the students are added or none
+	 * 
+	 * @param students  - The students to add. The ones without an ID get one from
+	 *                  a reserved block, and their graduation dates are set
+	 * @param batchSize - The number of rows sent to the database in one batch
+	 * @return The IDs of the added students in the order they were given, or null
+	 *         if an exception has been thrown
+	 */
+	public static int[] addStudents(final Collection<Student> students, final int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+		}
+
+		final int[] ids = new int[students.size()];
+		if (students.isEmpty()) {
+			return ids;
+		}
+
+		// The IDs are known before the rows are sent, no generated keys are read back
+		final Map<String, Integer> courseDurations;
+		try {
+			courseDurations = getCourseDurations(students);
+			int added = 0;
+			for (Student student : students) {
+				ids[added++] = assignId(student);
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return null;
+		}
+
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement preparedStatement = connection
+					.prepareStatement(SqlStatement.INSERT_STUDENT.getSql())) {
+
+				final Map<String, Integer> courseAttendees = new HashMap<String, Integer>();
+				int batched = 0;
+
+				for (Student student : students) {
+					final LocalDate startedDate = toLocalDate(student.getStarted());
+					final LocalDate graduationDate = startedDate.plusMonths(courseDurations.get(student.getCourse()));
+					student.setGraduation(java.sql.Date.valueOf(graduationDate));
+
+					setStudentParameters(preparedStatement, student, startedDate, graduationDate);
+					preparedStatement.addBatch();
+					courseAttendees.merge(student.getCourse(), 1, Integer::sum);
+
+					if (++batched == batchSize) {
+						preparedStatement.executeBatch();
+						batched = 0;
+					}
+				}
+
+				if (batched > 0) {
+					preparedStatement.executeBatch();
+				}
+
+				adjustCourseAttendees(connection, courseAttendees);
+
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			}
+
+			return ids;
+		} catch (SQLException e) {
+			e.printStackTrace();
+
+			// Return null if an exception has been thrown
+			return null;
+		} catch (Exception e) {
+			e.printStackTrace();
+
+			// Return null if an exception has been thrown
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the parameters of INSERT_STUDENT
+	 */
+	private static void setStudentParameters(final PreparedStatement preparedStatement, final Student student,
+			final LocalDate startedDate, final LocalDate graduationDate) throws SQLException {
+		preparedStatement.setInt(1, student.getId());
+		preparedStatement.setString(2, student.getName());
+		preparedStatement.setString(3, student.getSurname());
+		preparedStatement.setInt(4, student.getAge());
+		preparedStatement.setString(5, student.getGender().name());
+		preparedStatement.setString(6, student.getCourse());
+		preparedStatement.setDate(7, java.sql.Date.valueOf(startedDate));
+		preparedStatement.setDate(8, java.sql.Date.valueOf(graduationDate));
+	}
+
+	/**
+	 * Gives a student a new ID, unless it already has one
+	 *
+	 * @return The ID of the student
+	 */
+	private static int assignId(final Student student) throws SQLException {
+		if (student.id == 0) {
+			student.id = studentIds.nextId();
+		}
+		return student.id;
+	}
+
+	/**
+	 * Allocates the ID of a student that will be added later, e.g. to refer to
+	 * the student before it is written. No other client gets the same ID
+	 *
+	 * @return The ID, or -1 if no block of IDs could be reserved
+	 */
+	public static int nextStudentId() {
+		try {
+			return studentIds.nextId();
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return -1;
+		}
+	}
+
+	/**
+	 * Reserves a block of student IDs by moving the next free ID past it, in one
+	 * statement, so that two clients never get the same block
+	 *
+	 * @return The first ID of the block
+	 */
+	private static long reserveStudentIds(final int size) throws SQLException {
+		try (Connection connection = getDatabaseConnection();
+				PreparedStatement preparedStatement = connection
+						.prepareStatement(SqlStatement.RESERVE_STUDENT_IDS.getSql())) {
+			preparedStatement.setInt(1, size);
+			if (preparedStatement.executeUpdate() != 1) {
+				throw new SQLException("The " + idBlocksTable + " table has no student IDs");
+			}
+
+			// The value given to last_insert_id() by the update, on the same connection
+			try (PreparedStatement selectStatement = connection
+					.prepareStatement(SqlStatement.SELECT_LAST_INSERT_ID.getSql());
+					ResultSet resultSet = selectStatement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getLong(1) - size;
+			}
+		}
+	}
+
+	/**
+	 * Gets the durations of the courses of some students from the cache. A
+	 * course that isn't cached may have been added by another client, so the
+	 * cache is loaded again before giving up. Loading it takes a connection of
+	 * its own, so this is called before the students' connection is taken
+	 * 
+	 * @return The duration of every course, by name
+	 * @throws SQLException If there is no course with one of the names
+	 */
+	private static Map<String, Integer> getCourseDurations(final Collection<Student> students) throws SQLException {
+		final Map<String, Integer> durations = new HashMap<String, Integer>();
+		for (Student student : students) {
+			if (!durations.containsKey(student.getCourse())) {
+				final Course course = referenceData.findCourse(student.getCourse());
+				if (course == null) {
+					throw new SQLException("Course duration not found for the course " + student.getCourse());
+				}
+				durations.put(student.getCourse(), course.getDuration());
+			}
+		}
+
+		return durations;
+	}
+
+	/**
+	 * Reads all the courses and faculties for the cache
+	 */
+	private static void loadReferenceData(final Map<String, Course> courses, final Set<String> faculties)
+			throws SQLException {
+		try (Connection connection = getDatabaseConnection();
+			 PreparedStatement coursesStatement = connection.prepareStatement(SqlStatement.SELECT_COURSES.getSql());
+			 PreparedStatement facultiesStatement = connection
+					 .prepareStatement(SqlStatement.SELECT_FACULTY_NAMES.getSql())) {
+
+			try (ResultSet resultSet = coursesStatement.executeQuery()) {
+				while (resultSet.next()) {
+					final String name = resultSet.getString("Name");
+					courses.put(name, new Course(name, resultSet.getString("Faculty"), resultSet.getInt("Duration")));
+				}
+			}
+
+			try (ResultSet resultSet = facultiesStatement.executeQuery()) {
 				while (resultSet.next()) {
-					if (resultSet.getString(3).equals(tableName)) {
-						return true;
+					faculties.add(resultSet.getString("Name"));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads all the students from the table
+	 * 
+	 * @return The students, or null if an exception has been thrown
+	 */
+	public static List<Student> getStudents() {
+		try (Connection connection = getDatabaseConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(SqlStatement.SELECT_STUDENTS.getSql());
+			 ResultSet resultSet = preparedStatement.executeQuery()) {
+
+			List<Student> students = new ArrayList<Student>();
+
+			// Reading data from table
+			while (resultSet.next()) {
+				students.add(readStudent(resultSet));
+			}
+
+			return students;
+		} catch (SQLException e) {
+			e.printStackTrace();
+
+			// Return null if exception has been thrown
+			return null;
+		}
+	}
+
+	/**
+	 * Reads a whole table one row at a time, without keeping the rows in memory.
+	 * MySQL is asked to stream the rows, other databases to fetch them in chunks
+	 * 
+	 * @param tableName  - The students, courses or faculties table
+	 * @param rowHandler - Receives the column names first and then the values of
+	 *                   every row. The arrays are not reused
+	 * @throws SQLException If the table can't be read
+	 */
+	public static void streamTable(final String tableName, final Consumer<Object[]> rowHandler)
+			throws SQLException {
+		try (Connection connection = getDatabaseConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(
+					 SqlStatement.selectAll(tableName).getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+			final boolean mysql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+			preparedStatement.setFetchSize(mysql ? Integer.MIN_VALUE : DEFAULT_BATCH_SIZE);
+
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				ResultSetMetaData rsmData = resultSet.getMetaData();
+				final int howManyColumns = rsmData.getColumnCount();
+
+				Object[] columns = new Object[howManyColumns];
+				for (int currentColumn = 1; currentColumn <= howManyColumns; currentColumn++) {
+					columns[currentColumn - 1] = rsmData.getColumnLabel(currentColumn);
+				}
+				rowHandler.accept(columns);
+
+				while (resultSet.next()) {
+					Object[] values = new Object[howManyColumns];
+					for (int currentColumn = 1; currentColumn <= howManyColumns; currentColumn++) {
+						values[currentColumn - 1] = resultSet.getObject(currentColumn);
 					}
+					rowHandler.accept(values);
 				}
 			}
-			return false;
+		}
+	}
+
+	/**
+	 * @param column - The index of a column of the students table, counting from 0
+	 * @return The name of that column
+	 */
+	public static String getStudentColumn(final int column) {
+		return studentColumns[column];
+	}
+
+	/**
+	 * Reads the number of students meeting a filter and the key of the last row
+	 * of every page in a certain order
+	 * 
+	 * @param column     - The index of the column the students are sorted by
+	 * @param descending - Whether the order is descending
+	 * @param filter     - The criteria the students have to meet
+	 * @param pageSize   - The number of students on a page
+	 * @return The index, or null if an exception has been thrown
+	 */
+	public static StudentPageIndex getStudentPageIndex(final int column, final boolean descending,
+			final StudentFilter filter, final int pageSize) {
+		try (Connection connection = getDatabaseConnection();
+			 PreparedStatement timeStatement = connection.prepareStatement(SqlStatement.SELECT_SERVER_TIME.getSql());
+			 PreparedStatement countStatement = connection
+					 .prepareStatement(SqlStatement.selectStudentCount(filter));
+			 PreparedStatement keysStatement = connection.prepareStatement(
+					 SqlStatement.selectStudentPageKeys(studentColumns[column], descending, filter))) {
+
+			final Timestamp syncTime;
+			try (ResultSet resultSet = timeStatement.executeQuery()) {
+				resultSet.next();
+				syncTime = resultSet.getTimestamp(1);
+			}
+
+			final int rowCount;
+			filter.setParameters(countStatement, 1);
+			try (ResultSet resultSet = countStatement.executeQuery()) {
+				resultSet.next();
+				rowCount = resultSet.getInt(1);
+			}
+
+			List<Object[]> pageKeys = new ArrayList<Object[]>();
+			keysStatement.setInt(filter.setParameters(keysStatement, 1), pageSize);
+			try (ResultSet resultSet = keysStatement.executeQuery()) {
+				while (resultSet.next()) {
+					pageKeys.add(new Object[]{resultSet.getObject(1), resultSet.getInt(2)});
+				}
+			}
+
+			return new StudentPageIndex(rowCount, pageKeys, toSyncTime(syncTime));
 		} catch (SQLException e) {
 			e.printStackTrace();
-			return false;
+
+			// Return null if exception has been thrown
+			return null;
 		}
 	}
 
 	/**
-	 * Creates a table of students, courses and faculties
+	 * Reads one page of students in a certain order
 	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * @param column     - The index of the column the students are sorted by
+	 * @param descending - Whether the order is descending
+	 * @param filter     - The criteria the students have to meet
+	 * @param keyBefore  - The sorting value and the ID of the row before the page,
+	 *                   or null for the first page
+	 * @param keyLast    - The sorting value and the ID of the last row of the
+	 *                   page, or null to read pageSize rows
+	 * @param pageSize   - The most students read
+	 * @return The students on the page, or null if an exception has been thrown
 	 */
-	public static boolean createTables() {
+	public static List<Student> getStudentPage(final int column, final boolean descending,
+			final StudentFilter filter, final Object[] keyBefore, final Object[] keyLast, final int pageSize) {
 		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement()) {
+			 PreparedStatement preparedStatement = connection.prepareStatement(SqlStatement
+					 .selectStudentPage(studentColumns[column], descending, keyBefore, keyLast, filter))) {
+
+			int parameter = filter.setParameters(preparedStatement, 1);
+			parameter = setKeyParameters(preparedStatement, parameter, keyBefore);
+			parameter = setKeyParameters(preparedStatement, parameter, keyLast);
+			preparedStatement.setInt(parameter, pageSize);
 
-			if (!checkIfTableExists(studentsTable)) {
-				// Creating a table of students
-				statement.executeUpdate("create table " + studentsTable + "(ID INTEGER not NULL AUTO_INCREMENT, "
-						+ " Name varchar(50), " + "Surname varchar(50), " + "Age INTEGER, " + "Gender varchar(6), "
-						+ "Course varchar(50), " + "Started varchar(25),  " + "Graduation varchar(25), "
-						+ "PRIMARY KEY ( id ))");
+			List<Student> students = new ArrayList<Student>(pageSize);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					students.add(readStudent(resultSet));
+				}
 			}
 
-			if (!checkIfTableExists(coursesTable)) {
-				// Creating a table of courses
-				statement.executeUpdate("create table " + coursesTable + "(ID INTEGER not NULL AUTO_INCREMENT, "
-						+ " Name varchar(50), " + "Faculty varchar(50), " + "Duration INTEGER, " + "Attendees INTEGER, "
-						+ "PRIMARY KEY ( id ))");
+			return students;
+		} catch (SQLException e) {
+			e.printStackTrace();
+
+			// Return null if exception has been thrown
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the parameters of a page key. An empty sorting value isn't compared,
+	 * only the ID is
+	 *
+	 * @param key - The sorting value and the ID, or null for no key
+	 * @return The index of the next parameter
+	 */
+	private static int setKeyParameters(final PreparedStatement preparedStatement, int parameter, final Object[] key)
+			throws SQLException {
+		if (key != null) {
+			if (key[0] != null) {
+				preparedStatement.setObject(parameter++, key[0]);
 			}
+			preparedStatement.setObject(parameter++, key[1]);
+		}
+		return parameter;
+	}
+
+	/**
+	 * Reads certain students
+	 * 
+	 * @param ids    - The IDs of the students
+	 * @param filter - The criteria the students have to meet
+	 * @return The students in the order of the IDs given, leaving out the ones that
+	 *         don't exist anymore or don't meet the filter, or null if an
+	 *         exception has been thrown
+	 */
+	public static List<Student> getStudentsById(final int[] ids, final StudentFilter filter) {
+		if (ids.length == 0) {
+			return new ArrayList<Student>();
+		}
 
-			if (!checkIfTableExists(facultiesTable)) {
-				// Creating a table of faculties
-				statement.executeUpdate("create table " + facultiesTable + "(ID INTEGER not NULL AUTO_INCREMENT, "
-						+ " Name varchar(50), " + "Courses INTEGER, " + "Attendees INTEGER, " + "PRIMARY KEY ( id ))");
+		try (Connection connection = getDatabaseConnection();
+			 PreparedStatement preparedStatement = connection
+					 .prepareStatement(SqlStatement.selectStudentsById(ids.length, filter))) {
+			for (int i = 0; i < ids.length; i++) {
+				preparedStatement.setInt(i + 1, ids[i]);
 			}
+			filter.setParameters(preparedStatement, ids.length + 1);
 
-			return true;
+			Map<Integer, Student> students = new HashMap<Integer, Student>();
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					Student student = readStudent(resultSet);
+					students.put(student.getId(), student);
+				}
+			}
 
+			List<Student> ordered = new ArrayList<Student>(students.size());
+			for (int id : ids) {
+				if (students.containsKey(id)) {
+					ordered.add(students.get(id));
+				}
+			}
+			return ordered;
 		} catch (SQLException e) {
 			e.printStackTrace();
-			return false;
+
+			// Return null if exception has been thrown
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the names of all the students into a search index. The rows are
+	 * streamed, only the index is kept in memory
+	 * 
+	 * @return The index, or null if an exception has been thrown
+	 */
+	public static StudentSearchIndex readSearchIndex() {
+		try (Connection connection = getDatabaseConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(
+					 SqlStatement.SELECT_STUDENT_NAMES.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+			final boolean mysql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+			preparedStatement.setFetchSize(mysql ? Integer.MIN_VALUE : DEFAULT_BATCH_SIZE);
+
+			StudentSearchIndex index = new StudentSearchIndex();
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					index.put(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3));
+				}
+			}
+			return index;
+		} catch (SQLException e) {
+			e.printStackTrace();
+
+			// Return null if exception has been thrown
+			return null;
 		}
 	}
 
 	/**
-	 * Adds a new student to the table
+	 * Reads all the students into a columnar store. The rows are streamed, only
+	 * the store is kept in memory
 	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * @return The store, or null if an exception has been thrown
 	 */
-	public static boolean addStudent() {
+	public static StudentStore readStudentStore() {
 		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement("insert into " + studentsTable
-					 + " (Name, Surname, Age, Gender, Course, Started, Graduation) values " + "(?, ?, ?, ?, ?, ?, ?)");
-			 PreparedStatement preparedStatement2 = connection
-					 .prepareStatement("select Duration from courses where Name = ?")) {
-
-			// Setting the course name parameter
-			preparedStatement2.setString(1, ManagementView.courseSelectionBox.getSelectedItem().toString());
-
-			// Getting the duration of the course in order to calculate Graduation date field
-			ResultSet resultSet = preparedStatement2.executeQuery();
-			if (resultSet.next()) {
-				final int courseDuration = resultSet.getInt("Duration");
-
-				preparedStatement.setString(1, ManagementView.nameField.getText());
-				preparedStatement.setString(2, ManagementView.surnameField.getText());
-				preparedStatement.setInt(3, Integer.parseInt(ManagementView.ageField.getText()));
-				preparedStatement.setString(4, ManagementView.genderSelectionBox.getSelectedItem().toString());
-				preparedStatement.setString(5, ManagementView.courseSelectionBox.getSelectedItem().toString());
-
-				final String inputDate = ManagementView.startedDateField.getText();
-				LocalDate startedDate = LocalDate.of(Integer.parseInt(inputDate.substring(0, 4)),
-						Integer.parseInt(inputDate.substring(5, 7)), Integer.parseInt(inputDate.substring(8, 10)));
-				preparedStatement.setString(6, startedDate.toString());
-
-				LocalDate graduationDate = startedDate.plusMonths(courseDuration);
-				preparedStatement.setString(7, graduationDate.toString());
-
-				preparedStatement.executeUpdate();
+			 PreparedStatement preparedStatement = connection.prepareStatement(
+					 SqlStatement.SELECT_STUDENTS.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
 
-				updateStudents();
+			final boolean mysql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+			preparedStatement.setFetchSize(mysql ? Integer.MIN_VALUE : DEFAULT_BATCH_SIZE);
 
-				// Return true if no exception has been thrown
-				return true;
-			} else {
-				throw new SQLException("Course duration not found for the selected course.");
+			StudentStore store = new StudentStore(DEFAULT_BATCH_SIZE);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					store.add(readStudent(resultSet));
+				}
 			}
+			return store;
 		} catch (SQLException e) {
 			e.printStackTrace();
 
-			// Return false if an exception has been thrown
-			return false;
-		} catch (Exception e) {
-			e.printStackTrace();
-
-			// Return false if an exception has been thrown
-			return false;
+			// Return null if exception has been thrown
+			return null;
 		}
 	}
 
 	/**
-	 * Updates the contents of the table
+	 * Reads the students that have been added, changed or deleted since a certain
+	 * moment, so that a table can be patched instead of reloaded
 	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * @param since - The sync time of the previous delta, or null to read all the
+	 *              students
+	 * @return The changes, or null if an exception has been thrown
 	 */
-	public static boolean updateStudents() {
-		int howManyColumns = 0, currentColumn = 0;
-
+	public static StudentDelta getStudentChanges(final Timestamp since) {
 		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement("select * from " + studentsTable);
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
-
-			// Reading data from table
-			ResultSetMetaData rsmData = resultSet.getMetaData();
+			 PreparedStatement timeStatement = connection.prepareStatement(SqlStatement.SELECT_SERVER_TIME.getSql())) {
 
-			howManyColumns = rsmData.getColumnCount();
+			// The server's clock is read first, rows changed while reading are read again next time
+			final Timestamp serverTime;
+			try (ResultSet resultSet = timeStatement.executeQuery()) {
+				resultSet.next();
+				serverTime = resultSet.getTimestamp(1);
+			}
 
-			DefaultTableModel recordTable = (DefaultTableModel) ManagementView.table.getModel();
-			recordTable.setRowCount(0);
+			// The deletions older than the retention may have been forgotten, so everything is read
+			final boolean full = since == null
+					|| since.getTime() < serverTime.getTime() - StudentDelta.DELETIONS_RETENTION;
 
-			while (resultSet.next()) {
-				Vector columnData = new Vector();
-
-				for (currentColumn = 1; currentColumn <= howManyColumns; currentColumn++) {
-					columnData.add(resultSet.getString("ID"));
-					columnData.add(resultSet.getString("Name"));
-					columnData.add(resultSet.getString("Surname"));
-					columnData.add(resultSet.getString("Age"));
-					columnData.add(resultSet.getString("Gender"));
-					columnData.add(resultSet.getString("Course"));
-					columnData.add(resultSet.getString("Started"));
-					columnData.add(resultSet.getString("Graduation"));
+			List<Student> changed = new ArrayList<Student>();
+			try (PreparedStatement changedStatement = connection.prepareStatement(
+					full ? SqlStatement.SELECT_STUDENTS.getSql() : SqlStatement.SELECT_CHANGED_STUDENTS.getSql())) {
+				if (!full) {
+					changedStatement.setTimestamp(1, since);
+				}
+				try (ResultSet resultSet = changedStatement.executeQuery()) {
+					while (resultSet.next()) {
+						changed.add(readStudent(resultSet));
+					}
 				}
-
-				recordTable.addRow(columnData);
 			}
 
-			updateAttendees();
+			List<Integer> deletedIds = new ArrayList<Integer>();
+			if (!full) {
+				try (PreparedStatement deletedStatement = connection
+						.prepareStatement(SqlStatement.SELECT_DELETED_STUDENTS.getSql())) {
+					deletedStatement.setTimestamp(1, since);
+					try (ResultSet resultSet = deletedStatement.executeQuery()) {
+						while (resultSet.next()) {
+							deletedIds.add(resultSet.getInt("ID"));
+						}
+					}
+				}
+			}
 
-			// Return true if no exception has been thrown
-			return true;
+			pruneDeletedStudents(connection, serverTime);
+			return new StudentDelta(full, changed, deletedIds, toSyncTime(serverTime));
 		} catch (SQLException e) {
 			e.printStackTrace();
 
-			// Return false if exception has been thrown
-			return false;
+			// Return null if exception has been thrown
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the moment the changes are read from next time. A row is stamped when
+	 * it is written but only seen once its transaction commits, so the sync time
+	 * is set back by CHANGES_OVERLAP: the rows written by a transaction still
+	 * running now are read next time, provided it commits within that time. The
+	 * rows read twice are applied twice, which changes nothing
+	 *
+	 * @param serverTime - The server's clock when the changes have been read
+	 */
+	private static Timestamp toSyncTime(final Timestamp serverTime) {
+		return new Timestamp(serverTime.getTime() - CHANGES_OVERLAP);
+	}
+
+	/**
+	 * Forgets the deleted students older than StudentDelta.DELETIONS_RETENTION,
+	 * at most once per DELETIONS_PRUNE_INTERVAL. The changes since an older
+	 * moment are read in full, so nothing is missed. A failure is only reported,
+	 * the deletions are pruned next time
+	 */
+	private static void pruneDeletedStudents(final Connection connection, final Timestamp serverTime) {
+		final long now = System.currentTimeMillis();
+		final long nextPrune = nextDeletionsPrune.get();
+		if (now < nextPrune || !nextDeletionsPrune.compareAndSet(nextPrune, now + DELETIONS_PRUNE_INTERVAL)) {
+			return;
+		}
+
+		try (PreparedStatement preparedStatement = connection
+				.prepareStatement(SqlStatement.DELETE_OLD_DELETED_STUDENTS.getSql())) {
+			preparedStatement.setTimestamp(1,
+					new Timestamp(serverTime.getTime() - StudentDelta.DELETIONS_RETENTION));
+			preparedStatement.executeUpdate();
+		} catch (SQLException e) {
+			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Deletes the selected student from the table
+	 * Deletes a student from the table
 	 * 
+	 * @param id - The ID of the student to delete
 	 * @return True if no exception has been thrown, false otherwise
 	 */
-	public static boolean deleteStudent() {
-		// Getting row that user selected
-		DefaultTableModel recordTable = (DefaultTableModel) ManagementView.table.getModel();
-		int selectedRow = ManagementView.table.getSelectedRow();
-		ManagementView.table.clearSelection();
-
-		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection
-					 .prepareStatement("delete from " + studentsTable + " where id = ?")) {
+	public static boolean deleteStudent(final int id) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement courseStatement = connection
+					.prepareStatement(SqlStatement.SELECT_STUDENT_COURSE.getSql());
+				 PreparedStatement tombstoneStatement = connection
+						 .prepareStatement(SqlStatement.INSERT_DELETED_STUDENT.getSql());
+				 PreparedStatement preparedStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_STUDENT.getSql())) {
+
+				// Getting the student's course, whose number of attendees decreases
+				courseStatement.setInt(1, id);
+				String course = null;
+				try (ResultSet resultSet = courseStatement.executeQuery()) {
+					if (resultSet.next()) {
+						course = resultSet.getString("Course");
+					}
+				}
 
-			// Geting the ID of the student in the selected row
-			final int ID = Integer.parseInt(recordTable.getValueAt(selectedRow, 0).toString());
+				// Remember the deletion for the clients that refresh their table by changes
+				tombstoneStatement.setInt(1, id);
+				tombstoneStatement.executeUpdate();
 
-			preparedStatement.setInt(1, ID);
-			preparedStatement.executeUpdate();
+				preparedStatement.setInt(1, id);
+				if (preparedStatement.executeUpdate() > 0 && course != null) {
+					adjustCourseAttendees(connection, Collections.singletonMap(course, -1));
+				}
 
-			updateStudents();
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
 
 			// Return true if no exception has been thrown
 			return true;
@@ -344,22 +1090,28 @@ public class DBHandler {
 	/**
 	 * Adds a faculty to the faculties table
 	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * @return True if the faculty has been added, false if it already exists or
+	 *         an exception has been thrown
 	 */
 	public static boolean addFaculty(final String facultyName) {
 		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement(
-					 "insert into " + facultiesTable + " (Name, Courses, Attendees) values " + "(?, ?, ?)")) {
+			 PreparedStatement preparedStatement = connection.prepareStatement(SqlStatement.INSERT_FACULTY.getSql())) {
 
 			preparedStatement.setString(1, facultyName);
 			preparedStatement.setInt(2, 0);
 			preparedStatement.setInt(3, 0);
 
 			preparedStatement.executeUpdate();
+			referenceData.facultyAdded(facultyName);
 
 			// Return true if no exception has been thrown
 			return true;
 		} catch (SQLException e) {
+			// The unique index rejects a faculty that already exists, which isn't an error
+			if (isDuplicateName(e)) {
+				return false;
+			}
+
 			e.printStackTrace();
 
 			// Return false if exception has been thrown
@@ -370,25 +1122,80 @@ public class DBHandler {
 	/**
 	 * Adds a course to the courses table
 	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * @return True if the course has been added, false if it already exists or an
+	 *         exception has been thrown
 	 */
 	public static boolean addCourse(final String courseName, final String faculty, final int duration) {
-		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement(
-					 "insert into " + coursesTable + " (Name, Faculty, Duration, Attendees) values " + "(?, ?, ?, ?)")) {
+		return addCourses(Collections.singletonList(new Course(courseName, faculty, duration)));
+	}
+
+	/**
+	 * Adds many courses to the courses table in a single transaction. Students
+	 * already enrolled in a course with the same name count as its attendees, and
+	 * the faculties' counters are increased accordingly
+	 * 
+	 * @param courses - The courses to add
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	public static boolean addCourses(final Collection<Course> courses) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement preparedStatement = connection
+					.prepareStatement(SqlStatement.INSERT_COURSE.getSql());
+				 PreparedStatement countStatement = connection
+						 .prepareStatement(SqlStatement.SELECT_COURSE_STUDENT_COUNT.getSql());
+				 PreparedStatement facultyStatement = connection
+						 .prepareStatement(SqlStatement.ADJUST_FACULTY_COUNTERS.getSql())) {
+				final Map<String, int[]> facultyCounters = new HashMap<String, int[]>();
+
+				for (Course course : courses) {
+					countStatement.setString(1, course.getName());
+					final int attendees;
+					try (ResultSet resultSet = countStatement.executeQuery()) {
+						resultSet.next();
+						attendees = resultSet.getInt(1);
+					}
 
-			preparedStatement.setString(1, courseName);
-			preparedStatement.setString(2, faculty);
-			preparedStatement.setInt(3, duration);
-			preparedStatement.setInt(4, 0);
+					preparedStatement.setString(1, course.getName());
+					preparedStatement.setString(2, course.getFaculty());
+					preparedStatement.setInt(3, course.getDuration());
+					preparedStatement.setInt(4, attendees);
+					preparedStatement.addBatch();
 
-			preparedStatement.executeUpdate();
+					final int[] counters = facultyCounters.computeIfAbsent(course.getFaculty(), k -> new int[2]);
+					counters[0] += attendees;
+					counters[1]++;
+				}
+
+				preparedStatement.executeBatch();
+
+				for (Map.Entry<String, int[]> entry : facultyCounters.entrySet()) {
+					facultyStatement.setInt(1, entry.getValue()[0]);
+					facultyStatement.setInt(2, entry.getValue()[1]);
+					facultyStatement.setString(3, entry.getKey());
+					facultyStatement.addBatch();
+				}
+				facultyStatement.executeBatch();
 
-			updateAttendees();
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+
+			for (Course course : courses) {
+				referenceData.courseAdded(course);
+			}
 
 			// Return true if no exception has been thrown
 			return true;
 		} catch (SQLException e) {
+			// The unique index rejects a course that already exists, which isn't an error
+			if (isDuplicateName(e)) {
+				return false;
+			}
+
 			e.printStackTrace();
 
 			// Return false if exception has been thrown
@@ -397,159 +1204,150 @@ public class DBHandler {
 	}
 
 	/**
-	 * Gets all the faculties from the faculties table
+	 * Adds many faculties to the faculties table in a single transaction
 	 * 
-	 * @return An array with all the faculties
+	 * @param facultyNames - The names of the faculties to add
+	 * @return True if no exception has been thrown, false otherwise
 	 */
-	public static String[] getFaculties() {
-		Vector<String> faculties = new Vector<String>();
+	public static boolean addFaculties(final Collection<String> facultyNames) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement preparedStatement = connection
+					.prepareStatement(SqlStatement.INSERT_FACULTY.getSql())) {
+				for (String facultyName : facultyNames) {
+					preparedStatement.setString(1, facultyName);
+					preparedStatement.setInt(2, 0);
+					preparedStatement.setInt(3, 0);
+					preparedStatement.addBatch();
+				}
 
-		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement("select Name from faculties");
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
+				preparedStatement.executeBatch();
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
 
-			// Add every name of the faculty to the "faculties" vector
-			while (resultSet.next()) {
-				faculties.add(resultSet.getString("Name"));
+			for (String facultyName : facultyNames) {
+				referenceData.facultyAdded(facultyName);
 			}
 
+			// Return true if no exception has been thrown
+			return true;
 		} catch (SQLException e) {
 			e.printStackTrace();
+
+			// Return false if exception has been thrown
+			return false;
 		}
+	}
 
-		// Convert "faculties" vector to String array and return it
-		return faculties.toArray(new String[0]);
+	/**
+	 * Gets all the faculties, from the cache when it is fresh
+	 * 
+	 * @return An array with all the faculties
+	 */
+	public static String[] getFaculties() {
+		return referenceData.getFacultyNames();
 	}
 
 	/**
-	 * Gets all the courses from the courses table
+	 * Gets all the courses, from the cache when it is fresh
 	 * 
 	 * @return An array with all the courses
 	 */
 	public static String[] getCourses() {
-		Vector<String> courses = new Vector<String>();
+		return referenceData.getCourseNames();
+	}
 
-		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement("select Name from courses");
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
+	/**
+	 * Changes the number of attendees of courses and of the faculties they belong
+	 * to. Runs in the caller's transaction
+	 * 
+	 * @param courseAttendees - The change of the number of attendees by course
+	 */
+	private static void adjustCourseAttendees(final Connection connection, final Map<String, Integer> courseAttendees)
+			throws SQLException {
+		try (PreparedStatement preparedStatement = connection
+				.prepareStatement(SqlStatement.ADJUST_COURSE_ATTENDEES.getSql())) {
+			for (Map.Entry<String, Integer> entry : courseAttendees.entrySet()) {
+				if (entry.getValue() == 0) {
+					continue;
+				}
 
-			// Add every name of the courses to the "courses" vector
-			while (resultSet.next()) {
-				courses.add(resultSet.getString("Name"));
+				preparedStatement.setInt(1, entry.getValue());
+				preparedStatement.setInt(2, entry.getValue());
+				preparedStatement.setString(3, entry.getKey());
+				preparedStatement.addBatch();
 			}
 
-		} catch (SQLException e) {
-			e.printStackTrace();
+			preparedStatement.executeBatch();
 		}
-
-		// Convert "courses" vector to String array and return it
-		return courses.toArray(new String[0]);
 	}
 
 	/**
-	 * Updates the number of attendees in faculties and courses tables
+	 * Changes the number of attendees and courses of a faculty. Runs in the
+	 * caller's transaction
 	 */
-	private static void updateAttendees() {
-		updateCoursesAttendees();
-		updateFacultiesAttendees();
+	private static void adjustFacultyCounters(final Connection connection, final String faculty, final int attendees,
+			final int courses) throws SQLException {
+		try (PreparedStatement preparedStatement = connection
+				.prepareStatement(SqlStatement.ADJUST_FACULTY_COUNTERS.getSql())) {
+			preparedStatement.setInt(1, attendees);
+			preparedStatement.setInt(2, courses);
+			preparedStatement.setString(3, faculty);
+			preparedStatement.executeUpdate();
+		}
 	}
 
 	/**
-	 * Updates the number of attendees in courses table
+	 * Checks the number of attendees in faculties and courses tables against the
+	 * students and courses, and corrects the ones that drifted. The counters are
+	 * kept up to date by every write, so this is only needed after the tables
+	 * have been changed by hand or by an older version. Each table is recomputed
+	 * by one grouped query, the courses first since the faculties add up their
+	 * attendees, and both in one transaction
 	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * @return The number of courses and faculties corrected, or -1 if an exception
+	 *         has been thrown
 	 */
-	private static boolean updateCoursesAttendees() {
-		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement("select Course from " + studentsTable);
-			 Statement statement = connection.createStatement();
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
-
-			// Setting number of courses and attendees to 0 initially, in order to avoid
-			// wrong calculations
-			statement.executeUpdate("update " + getCoursesTable() + " set Attendees = 0");
-
-			// Reading courses that students attend from the table
-			HashMap<String, Integer> coursesAttendees = new HashMap<String, Integer>();
-
-			// Calculating the number of attendees to the courses
-			MAINLOOP: while (resultSet.next()) {
-				String currentCourse = resultSet.getString("Course");
-
-				for (String key : coursesAttendees.keySet()) {
-					// If currentCourse is already in the HashMap, increment the value of attendees
-					if (currentCourse.equals(key)) {
-						coursesAttendees.put(key, coursesAttendees.get(key) + 1);
-						continue MAINLOOP;
-					}
-				}
+	public static int repairAttendees() {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
 
-				coursesAttendees.put(currentCourse, 1);
-			}
+			try {
+				final int corrected = repairAttendees(connection);
 
-			// Update the number of attendees to the courses in the courses table
-			for (String key : coursesAttendees.keySet()) {
-				statement.executeUpdate("update " + coursesTable + " set Attendees = " + coursesAttendees.get(key)
-						+ " where Name = " + "\"" + key + "\"");
+				connection.commit();
+				return corrected;
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
 			}
-
-			// Return true if no exception has been thrown
-			return true;
 		} catch (SQLException e) {
 			e.printStackTrace();
 
-			// Return false if exception has been thrown
-			return false;
+			// Return -1 if exception has been thrown
+			return -1;
 		}
 	}
 
 	/**
-	 * Updates the number of attendees in faculties table
-	 * 
-	 * @return True if no exception has been thrown, false otherwise
+	 * Recomputes the counters of the courses and faculties on a connection the
+	 * caller already holds, e.g. the one a migration runs on
+	 *
+	 * @return The number of courses and faculties corrected
+	 * @throws SQLException If the counters can't be recomputed
 	 */
-	private static boolean updateFacultiesAttendees() {
-		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement();
-			 PreparedStatement preparedStatement = connection.prepareStatement("select Faculty, Attendees from " + coursesTable);
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
-
-			// Setting number of courses and attendees to 0 initially, in order to avoid
-			// wrong calculations
-			statement.executeUpdate("update " + facultiesTable + " set Attendees = 0, Courses = 0");
-
-			// Getting the faculties of courses and number of attendees
-			while (resultSet.next()) {
-				final String faculty = resultSet.getString("Faculty");
-				final int courseAttendees = resultSet.getInt("Attendees");
-
-				try (PreparedStatement preparedStatement2 = connection.prepareStatement(
-						"select Attendees, Courses from " + facultiesTable + " where Name = " + "\"" + faculty + "\"");
-					 ResultSet resultSet2 = preparedStatement2.executeQuery()) {
-
-					resultSet2.next();
-					final int currentNumberOfAttendees = resultSet2.getInt("Attendees");
-					final int currentNumberOfCourses = resultSet2.getInt("Courses");
-
-					statement.executeUpdate("update " + facultiesTable + " set Attendees = "
-							+ (courseAttendees + currentNumberOfAttendees) + " where Name = " + "\"" + faculty + "\"");
-
-					statement.executeUpdate("update " + facultiesTable + " set Courses = " + (currentNumberOfCourses + 1)
-							+ " where Name = " + "\"" + faculty + "\"");
-				}
-			}
-
-			// Return true if no exception has been thrown
-			return true;
-		} catch (SQLException e) {
-			e.printStackTrace();
-
-			// Return false if exception has been thrown
-			return false;
-		} catch (Exception e) {
-			e.printStackTrace();
-
-			return false;
+	static int repairAttendees(final Connection connection) throws SQLException {
+		try (PreparedStatement coursesStatement = connection
+				.prepareStatement(SqlStatement.RECOMPUTE_COURSES_ATTENDEES.getSql());
+			 PreparedStatement facultiesStatement = connection
+					 .prepareStatement(SqlStatement.RECOMPUTE_FACULTIES_COUNTERS.getSql())) {
+
+			// Only the rows that drifted are changed, so the update counts are the corrections
+			return coursesStatement.executeUpdate() + facultiesStatement.executeUpdate();
 		}
 	}
 
@@ -563,19 +1361,15 @@ public class DBHandler {
 	 */
 	public static boolean checkIfElementExists(final String tableName, final String name) {
 		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement("select Name from " + tableName);
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
+			 PreparedStatement preparedStatement = connection
+					 .prepareStatement(SqlStatement.selectExists(tableName).getSql())) {
 
-			// Get all the elements' name
-			while (resultSet.next()) {
-				if (resultSet.getString("Name").equals(name)) {
-					// Return true if an element has been found
-					return true;
-				}
-			}
+			preparedStatement.setString(1, name);
 
-			// Return false if no element has been found in the table
-			return false;
+			// Return true if an element has been found
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				return resultSet.next();
+			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 
@@ -596,14 +1390,16 @@ public class DBHandler {
 	public static int getNumberOfAttendees(final String tableName, final String element) {
 		try (Connection connection = getDatabaseConnection();
 			 PreparedStatement preparedStatement = connection
-					 .prepareStatement("select Attendees from " + tableName + " where Name = " + "\"" + element + "\"");
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
+					 .prepareStatement(SqlStatement.selectAttendees(tableName).getSql())) {
+
+			preparedStatement.setString(1, element);
 
-			// Get all the elements' name
-			resultSet.next();
-			int attendees = resultSet.getInt("Attendees");
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				resultSet.next();
+				int attendees = resultSet.getInt("Attendees");
 
-			return attendees;
+				return attendees;
+			}
 
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -618,12 +1414,27 @@ public class DBHandler {
 	 * @return True if no exception has been thrown, false otherwise
 	 */
 	public static boolean deleteCourseAttendees(final String course) {
-		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement()) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement tombstoneStatement = connection
+					.prepareStatement(SqlStatement.INSERT_DELETED_COURSE_STUDENTS.getSql());
+				 PreparedStatement preparedStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_COURSE_STUDENTS.getSql())) {
 
-			statement.executeUpdate("delete from " + getStudentsTable() + " where Course = " + "\"" + course + "\"");
+				// Remember the deletions for the clients that refresh their table by changes
+				tombstoneStatement.setString(1, course);
+				tombstoneStatement.executeUpdate();
 
-			updateStudents();
+				preparedStatement.setString(1, course);
+				final int deleted = preparedStatement.executeUpdate();
+				adjustCourseAttendees(connection, Collections.singletonMap(course, -deleted));
+
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
 
 			return true;
 
@@ -641,12 +1452,38 @@ public class DBHandler {
 	 * @return True if no exception has been thrown, false otherwise
 	 */
 	public static boolean deleteCourse(final String course) {
-		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement()) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try (PreparedStatement countersStatement = connection
+					.prepareStatement(SqlStatement.SELECT_COURSE_COUNTERS.getSql());
+				 PreparedStatement preparedStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_COURSE.getSql())) {
+
+				// The course's faculty loses the course and its attendees
+				countersStatement.setString(1, course);
+				String faculty = null;
+				int attendees = 0;
+				try (ResultSet resultSet = countersStatement.executeQuery()) {
+					if (resultSet.next()) {
+						faculty = resultSet.getString("Faculty");
+						attendees = resultSet.getInt("Attendees");
+					}
+				}
+
+				preparedStatement.setString(1, course);
+				final int deleted = preparedStatement.executeUpdate();
+				if (deleted > 0 && faculty != null) {
+					adjustFacultyCounters(connection, faculty, -attendees, -deleted);
+				}
 
-			statement.executeUpdate("delete from " + getCoursesTable() + " where Name = " + "\"" + course + "\"");
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
 
-			updateStudents();
+			referenceData.courseRemoved(course);
 
 			return true;
 
@@ -665,11 +1502,11 @@ public class DBHandler {
 	 */
 	public static boolean deleteFaculty(final String faculty) {
 		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement()) {
-
-			statement.executeUpdate("delete from " + getFacultiesTable() + " where Name = " + "\"" + faculty + "\"");
+			 PreparedStatement preparedStatement = connection.prepareStatement(SqlStatement.DELETE_FACULTY.getSql())) {
 
-			updateStudents();
+			preparedStatement.setString(1, faculty);
+			preparedStatement.executeUpdate();
+			referenceData.facultyRemoved(faculty);
 
 			return true;
 
@@ -681,35 +1518,121 @@ public class DBHandler {
 	}
 
 	/**
-	 * Deletes all the courses in a certain faculty
+	 * Deletes a course with the students attending it, in one transaction. The
+	 * students are deleted by one statement, whatever their number
 	 * 
-	 * @param faculty - The faculty whose courses should be deleted
-	 * @return True if no exception has been thrown, false otherwise
+	 * @param course - The course's name which should be deleted
+	 * @return The number of rows deleted, or null if an exception has been thrown
 	 */
-	public static boolean deleteFacultyCourses(final String faculty) {
-		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement();
-			 PreparedStatement preparedStatement = connection.prepareStatement(
-					 "select Name from " + getCoursesTable() + " where Faculty = " + "\"" + faculty + "\"");
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
+	public static DeleteReport deleteCourseCascade(final String course) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			final DeleteReport report;
+			try (PreparedStatement tombstoneStatement = connection
+					.prepareStatement(SqlStatement.INSERT_DELETED_COURSE_STUDENTS.getSql());
+				 PreparedStatement studentsStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_COURSE_STUDENTS.getSql());
+				 PreparedStatement countersStatement = connection
+						 .prepareStatement(SqlStatement.SELECT_COURSE_COUNTERS.getSql());
+				 PreparedStatement courseStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_COURSE.getSql())) {
+
+				// Remember the deletions for the clients that refresh their table by changes
+				tombstoneStatement.setString(1, course);
+				tombstoneStatement.executeUpdate();
+
+				studentsStatement.setString(1, course);
+				final int students = studentsStatement.executeUpdate();
+
+				// The course's faculty loses the course and the attendees it counted
+				countersStatement.setString(1, course);
+				String faculty = null;
+				int attendees = 0;
+				try (ResultSet resultSet = countersStatement.executeQuery()) {
+					if (resultSet.next()) {
+						faculty = resultSet.getString("Faculty");
+						attendees = resultSet.getInt("Attendees");
+					}
+				}
 
-			// Getting the courses in that faculty, in order to delete students attending
-			// them
-			while (resultSet.next()) {
-				deleteCourseAttendees(resultSet.getString("Name"));
+				courseStatement.setString(1, course);
+				final int courses = courseStatement.executeUpdate();
+				if (courses > 0 && faculty != null) {
+					adjustFacultyCounters(connection, faculty, -attendees, -courses);
+				}
+
+				connection.commit();
+				report = new DeleteReport(students, courses, 0);
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
 			}
 
-			// Deleting the course
-			statement.executeUpdate("delete from " + getCoursesTable() + " where Faculty = " + "\"" + faculty + "\"");
+			referenceData.courseRemoved(course);
 
-			updateStudents();
+			return report;
 
-			return true;
+		} catch (SQLException e) {
+			e.printStackTrace();
+
+			return null;
+		}
+	}
+
+	/**
+	 * Deletes a faculty with its courses and the students attending them, in one
+	 * transaction. Each table is changed by one statement, whatever the number of
+	 * courses and students, and no counters have to be adjusted since the rows
+	 * holding them are deleted too
+	 * 
+	 * @param faculty - The faculty name which should be deleted
+	 * @return The number of rows deleted, or null if an exception has been thrown
+	 */
+	public static DeleteReport deleteFacultyCascade(final String faculty) {
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			final DeleteReport report;
+			try (PreparedStatement tombstoneStatement = connection
+					.prepareStatement(SqlStatement.INSERT_DELETED_FACULTY_STUDENTS.getSql());
+				 PreparedStatement studentsStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_FACULTY_STUDENTS.getSql());
+				 PreparedStatement coursesStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_FACULTY_COURSES.getSql());
+				 PreparedStatement facultyStatement = connection
+						 .prepareStatement(SqlStatement.DELETE_FACULTY.getSql())) {
+
+				// Remember the deletions for the clients that refresh their table by changes
+				tombstoneStatement.setString(1, faculty);
+				tombstoneStatement.executeUpdate();
+
+				// The students first, their courses tell which ones attend the faculty
+				studentsStatement.setString(1, faculty);
+				final int students = studentsStatement.executeUpdate();
+
+				coursesStatement.setString(1, faculty);
+				final int courses = coursesStatement.executeUpdate();
+
+				facultyStatement.setString(1, faculty);
+				final int faculties = facultyStatement.executeUpdate();
+
+				connection.commit();
+				report = new DeleteReport(students, courses, faculties);
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			}
+
+			referenceData.facultyCoursesRemoved(faculty);
+			referenceData.facultyRemoved(faculty);
+
+			return report;
 
 		} catch (SQLException e) {
 			e.printStackTrace();
 
-			return false;
+			return null;
 		}
 	}
 
@@ -721,15 +1644,18 @@ public class DBHandler {
 	 */
 	public static int getNumberOfCourses(final String faculty) {
 		try (Connection connection = getDatabaseConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement(
-					 "select Courses from " + getFacultiesTable() + " where Name = " + "\"" + faculty + "\"");
-			 ResultSet resultSet = preparedStatement.executeQuery()) {
+			 PreparedStatement preparedStatement = connection
+					 .prepareStatement(SqlStatement.SELECT_FACULTY_COURSES.getSql())) {
+
+			preparedStatement.setString(1, faculty);
 
 			// Get Courses field's value
-			resultSet.next();
-			int courses = resultSet.getInt("Courses");
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				resultSet.next();
+				int courses = resultSet.getInt("Courses");
 
-			return courses;
+				return courses;
+			}
 
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -738,42 +1664,89 @@ public class DBHandler {
 	}
 
 	/**
-	 * Updates the contents of the database, taking into account changes from table
+	 * Changes one field of a student in the database
+	 * 
+	 * @param id     - The ID of the student
+	 * @param column - The table column of the field(1 - name, 2 - surname, 3 -
+	 *               age, 4 - gender)
+	 * @param value  - The new value of the field
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	public static boolean updateStudentField(final int id, final int column, final String value) {
+		return updateStudentFields(id, Collections.singletonMap(column, value));
+	}
+
+	/**
+	 * Changes several fields of a student in the database with one statement
 	 * 
+	 * @param id     - The ID of the student
+	 * @param fields - The new values of the fields by table column(1 - name, 2 -
+	 *               surname, 3 - age, 4 - gender), the other columns can't be
+	 *               changed and are ignored
 	 * @return True if no exception has been thrown, false otherwise
 	 */
-	public static boolean updateDatabase() {
-		// Getting row and column that user selected
-		int selectedRow = ManagementView.table.getSelectedRow();
-		int selectedColumn = ManagementView.table.getSelectedColumn();
+	public static boolean updateStudentFields(final int id, final Map<Integer, String> fields) {
+		return updateStudentsFields(Collections.singletonMap(id, fields));
+	}
 
-		try (Connection connection = getDatabaseConnection();
-			 Statement statement = connection.createStatement()) {
-
-			// If a cell has been selected
-			if (selectedRow > -1 && selectedColumn > -1) {
-				// Geting the selected field of the selected student and changing it in database
-				if (selectedColumn == 1) {
-					statement.executeUpdate("update " + studentsTable + " set Name = " + "\""
-							+ ManagementView.table.getValueAt(selectedRow, selectedColumn).toString() + "\""
-							+ " where id = "
-							+ Integer.parseInt(ManagementView.table.getValueAt(selectedRow, 0).toString()));
-				} else if (selectedColumn == 2) {
-					statement.executeUpdate("update " + studentsTable + " set Surname = " + "\""
-							+ ManagementView.table.getValueAt(selectedRow, selectedColumn).toString() + "\""
-							+ " where id = "
-							+ Integer.parseInt(ManagementView.table.getValueAt(selectedRow, 0).toString()));
-				} else if (selectedColumn == 3) {
-					statement.executeUpdate("update " + studentsTable + " set Age = "
-							+ Integer.parseInt(ManagementView.table.getValueAt(selectedRow, selectedColumn).toString())
-							+ " where id = "
-							+ Integer.parseInt(ManagementView.table.getValueAt(selectedRow, 0).toString()));
-				} else if (selectedColumn == 4) {
-					statement.executeUpdate("update " + studentsTable + " set Gender = " + "\""
-							+ ManagementView.table.getValueAt(selectedRow, selectedColumn).toString() + "\""
-							+ " where id = "
-							+ Integer.parseInt(ManagementView.table.getValueAt(selectedRow, 0).toString()));
+	/**
+	 * Changes fields of many students in one transaction, so either all of them
+	 * are changed or none. The students whose edited columns are the same share
+	 * a statement, which is executed once as a batch
+	 * 
+	 * @param edits - The new values of the fields by table column(1 - name, 2 -
+	 *              surname, 3 - age, 4 - gender), by student ID, the other
+	 *              columns can't be changed and are ignored
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	public static boolean updateStudentsFields(final Map<Integer, Map<Integer, String>> edits) {
+		// The IDs of the students by the columns edited, in table order
+		Map<List<Integer>, List<Integer>> studentsByColumns = new LinkedHashMap<List<Integer>, List<Integer>>();
+		for (Map.Entry<Integer, Map<Integer, String>> student : edits.entrySet()) {
+			List<Integer> columns = new ArrayList<Integer>();
+			for (Integer column : student.getValue().keySet()) {
+				if (column >= 1 && column <= 4) {
+					columns.add(column);
+				}
+			}
+			if (!columns.isEmpty()) {
+				Collections.sort(columns);
+				studentsByColumns.computeIfAbsent(columns, k -> new ArrayList<Integer>()).add(student.getKey());
+			}
+		}
+		if (studentsByColumns.isEmpty()) {
+			return true;
+		}
+
+		try (Connection connection = getDatabaseConnection()) {
+			connection.setAutoCommit(false);
+
+			try {
+				for (Map.Entry<List<Integer>, List<Integer>> group : studentsByColumns.entrySet()) {
+					List<String> columnNames = new ArrayList<String>();
+					for (Integer column : group.getKey()) {
+						columnNames.add(studentColumns[column]);
+					}
+
+					try (PreparedStatement preparedStatement = connection
+							.prepareStatement(SqlStatement.updateStudent(columnNames))) {
+						for (Integer id : group.getValue()) {
+							final Map<Integer, String> fields = edits.get(id);
+							int parameter = 1;
+							for (Integer column : group.getKey()) {
+								setStudentField(preparedStatement, parameter++, column, fields.get(column));
+							}
+							preparedStatement.setInt(parameter, id);
+							preparedStatement.addBatch();
+						}
+						preparedStatement.executeBatch();
+					}
 				}
+
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
 			}
 
 			// Return true if no exception has been thrown
@@ -790,6 +1763,23 @@ public class DBHandler {
 		}
 	}
 
+	/**
+	 * Sets the parameter of an edited field, converting the text the table shows
+	 * to the column's type
+	 * 
+	 * @throws IllegalArgumentException If the text isn't a valid age or gender
+	 */
+	private static void setStudentField(final PreparedStatement preparedStatement, final int parameter,
+			final int column, final String value) throws SQLException {
+		if (column == 3) {
+			preparedStatement.setInt(parameter, Integer.parseInt(value));
+		} else if (column == 4) {
+			preparedStatement.setString(parameter, Gender.valueOf(value).name());
+		} else {
+			preparedStatement.setString(parameter, value);
+		}
+	}
+
 	/**
 	 * Tests the connection to the database
 	 * 
@@ -804,4 +1794,32 @@ public class DBHandler {
 			return false;
 		}
 	}
+
+	/**
+	 * Builds a student out of the current row of a result set
+	 */
+	private static Student readStudent(final ResultSet resultSet) throws SQLException {
+		Student student = new Student(resultSet.getInt("ID"));
+		student.setName(resultSet.getString("Name"));
+		student.setSurname(resultSet.getString("Surname"));
+		student.setAge(resultSet.getInt("Age"));
+		student.setCourse(resultSet.getString("Course"));
+		student.setStarted(resultSet.getDate("Started"));
+		student.setGraduation(resultSet.getDate("Graduation"));
+
+		try {
+			student.setGender(Gender.valueOf(resultSet.getString("Gender")));
+		} catch (IllegalArgumentException | NullPointerException e) {
+			// Leave the gender unset if the table holds something unexpected
+		}
+
+		return student;
+	}
+
+	/**
+	 * Converts a date to a local date in the system's time zone
+	 */
+	private static LocalDate toLocalDate(final Date date) {
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
 }
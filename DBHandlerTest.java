@@ -1,8 +1,13 @@
 package sms;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -26,6 +31,14 @@ public class DBHandlerTest {
 		DBHandler.createTables();
 	}
 
+	@Test
+	public void createTablesTest() {
+		// The schema is already up to date, so the migrations aren't applied again
+		assertTrue(DBHandler.createTables());
+		assertTrue(DBHandler.checkIfTableExists(SchemaMigrator.SCHEMA_VERSION_TABLE));
+		assertTrue(DBHandler.checkIfTableExists(DBHandler.getDeletedStudentsTable()));
+	}
+
 	@Test
 	public void checkIfTableExistsTest() throws SQLException {
 
@@ -63,6 +76,11 @@ public class DBHandlerTest {
 
 	@Test
 	public void addFacultyTest() throws SQLException {
+		// Names are unique, so the faculties of previous runs are deleted first
+		for (String faculty : new String[] { "Test", "students", "automatica", "calculatoare", "electronica",
+				"y y y y y", "5161521", "=-/*-+", "", "   " })
+			DBHandler.deleteFaculty(faculty);
+
 		boolean result = DBHandler.addFaculty("Test");
 		assertEquals(true, result);
 
@@ -92,6 +110,19 @@ public class DBHandlerTest {
 
 		result = DBHandler.addFaculty("   ");
 		assertEquals(true, result);
+
+		result = DBHandler.addFaculty("Test");
+		assertEquals(false, result);
+	}
+
+	@Test
+	public void checkIfElementExistsTest() {
+		if (!DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "ExistingFaculty"))
+			DBHandler.addFaculty("ExistingFaculty");
+
+		assertTrue(DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "ExistingFaculty"));
+		assertFalse(DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "MissingFaculty"));
+		assertFalse(DBHandler.addFaculty("ExistingFaculty"));
 	}
 
 	@Test
@@ -111,4 +142,202 @@ public class DBHandlerTest {
 		result = DBHandler.addCourse("fizica", "electronica", 6);
 		assertEquals(true, result);
 	}
+
+	@Test
+	public void poolReusesConnectionsTest() {
+		DBHandler.warmUpConnectionPool();
+		final long created = DBHandler.getPoolStats().getCreated();
+
+		for (int i = 0; i < 20; i++) {
+			assertEquals(true, DBHandler.checkIfTableExists("students"));
+		}
+
+		PoolStats stats = DBHandler.getPoolStats();
+		assertEquals(0, stats.getActive());
+		assertTrue(stats.getCreated() - created <= 1);
+		assertTrue(stats.getOpen() <= stats.getMaxSize());
+	}
+
+	@Test
+	public void preparedStatementsAreReusedTest() {
+		DBHandler.getCourses();
+		final long hits = DBHandler.getPoolStats().getStatementHits();
+
+		for (int i = 0; i < 10; i++) {
+			DBHandler.getCourses();
+		}
+
+		assertTrue(DBHandler.getPoolStats().getStatementHits() - hits >= 10);
+	}
+
+	@Test
+	public void addStudentsTest() {
+		if (!DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "BatchFaculty"))
+			DBHandler.addFaculty("BatchFaculty");
+		if (!DBHandler.checkIfElementExists(DBHandler.getCoursesTable(), "BatchCourse"))
+			DBHandler.addCourse("BatchCourse", "BatchFaculty", 12);
+
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 5; i++) {
+			Student student = new Student();
+			student.setName("Batch" + i);
+			student.setSurname("Student");
+			student.setAge(20 + i);
+			student.setGender(Gender.Female);
+			student.setCourse("BatchCourse");
+			student.setStarted(java.sql.Date.valueOf(LocalDate.of(2021, 9, 1)));
+			students.add(student);
+		}
+
+		int[] ids = DBHandler.addStudents(students, 2);
+		assertEquals(5, ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(ids[i], students.get(i).getId());
+			assertEquals(java.sql.Date.valueOf(LocalDate.of(2022, 9, 1)), students.get(i).getGraduation());
+			if (i > 0)
+				assertTrue(ids[i] > ids[i - 1]);
+		}
+
+		Student unknownCourse = new Student();
+		unknownCourse.setName("Batch");
+		unknownCourse.setSurname("Student");
+		unknownCourse.setGender(Gender.Male);
+		unknownCourse.setCourse("NoSuchCourse");
+		unknownCourse.setStarted(java.sql.Date.valueOf(LocalDate.of(2021, 9, 1)));
+		assertEquals(null, DBHandler.addStudents(List.of(students.get(0), unknownCourse)));
+	}
+
+	@Test
+	public void nextStudentIdTest() {
+		final int first = DBHandler.nextStudentId();
+		final int second = DBHandler.nextStudentId();
+		assertTrue(first > 0);
+		assertTrue(second > first);
+
+		if (!DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "BatchFaculty"))
+			DBHandler.addFaculty("BatchFaculty");
+		if (!DBHandler.checkIfElementExists(DBHandler.getCoursesTable(), "BatchCourse"))
+			DBHandler.addCourse("BatchCourse", "BatchFaculty", 12);
+
+		// A student created with an allocated ID keeps it when it is added
+		Student student = new Student(first);
+		student.setName("Allocated");
+		student.setSurname("Student");
+		student.setAge(20);
+		student.setGender(Gender.Male);
+		student.setCourse("BatchCourse");
+		student.setStarted(java.sql.Date.valueOf(LocalDate.of(2021, 9, 1)));
+		assertTrue(DBHandler.addStudent(student));
+		assertEquals(first, student.getId());
+		assertTrue(DBHandler.deleteStudent(first));
+	}
+
+	@Test
+	public void attendeeCountersTest() {
+		if (!DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "CounterFaculty"))
+			DBHandler.addFaculty("CounterFaculty");
+		if (!DBHandler.checkIfElementExists(DBHandler.getCoursesTable(), "CounterCourse"))
+			DBHandler.addCourse("CounterCourse", "CounterFaculty", 12);
+		DBHandler.repairAttendees();
+
+		final int courseAttendees = DBHandler.getNumberOfAttendees(DBHandler.getCoursesTable(), "CounterCourse");
+		final int facultyAttendees = DBHandler.getNumberOfAttendees(DBHandler.getFacultiesTable(), "CounterFaculty");
+
+		Student student = new Student();
+		student.setName("Counter");
+		student.setSurname("Student");
+		student.setAge(20);
+		student.setGender(Gender.Male);
+		student.setCourse("CounterCourse");
+		student.setStarted(java.sql.Date.valueOf(LocalDate.of(2021, 9, 1)));
+		assertEquals(1, DBHandler.addStudents(List.of(student)).length);
+
+		assertEquals(courseAttendees + 1, DBHandler.getNumberOfAttendees(DBHandler.getCoursesTable(), "CounterCourse"));
+		assertEquals(facultyAttendees + 1,
+				DBHandler.getNumberOfAttendees(DBHandler.getFacultiesTable(), "CounterFaculty"));
+
+		assertTrue(DBHandler.deleteStudent(student.getId()));
+		assertEquals(courseAttendees, DBHandler.getNumberOfAttendees(DBHandler.getCoursesTable(), "CounterCourse"));
+		assertEquals(facultyAttendees, DBHandler.getNumberOfAttendees(DBHandler.getFacultiesTable(), "CounterFaculty"));
+
+		// The counters were kept up to date, so there is nothing to repair
+		assertEquals(0, DBHandler.repairAttendees());
+	}
+
+	@Test
+	public void cascadeDeleteTest() {
+		// Names are unique, so the faculty of a previous run is deleted first
+		DBHandler.deleteFacultyCascade("CascadeFaculty");
+		DBHandler.addFaculty("CascadeFaculty");
+		DBHandler.addCourse("CascadeCourseA", "CascadeFaculty", 12);
+		DBHandler.addCourse("CascadeCourseB", "CascadeFaculty", 12);
+
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 3; i++) {
+			Student student = new Student();
+			student.setName("Cascade" + i);
+			student.setSurname("Student");
+			student.setAge(20);
+			student.setGender(Gender.Male);
+			student.setCourse(i == 0 ? "CascadeCourseA" : "CascadeCourseB");
+			student.setStarted(java.sql.Date.valueOf(LocalDate.of(2021, 9, 1)));
+			students.add(student);
+		}
+		assertEquals(3, DBHandler.addStudents(students).length);
+
+		// The course goes with its student, and the faculty's counters follow
+		DeleteReport report = DBHandler.deleteCourseCascade("CascadeCourseA");
+		assertEquals(1, report.getStudents());
+		assertEquals(1, report.getCourses());
+		assertEquals(1, DBHandler.getNumberOfCourses("CascadeFaculty"));
+		assertEquals(2, DBHandler.getNumberOfAttendees(DBHandler.getFacultiesTable(), "CascadeFaculty"));
+
+		report = DBHandler.deleteFacultyCascade("CascadeFaculty");
+		assertEquals(2, report.getStudents());
+		assertEquals(1, report.getCourses());
+		assertEquals(1, report.getFaculties());
+		assertFalse(DBHandler.checkIfElementExists(DBHandler.getCoursesTable(), "CascadeCourseB"));
+		assertFalse(DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), "CascadeFaculty"));
+		assertEquals(0, DBHandler.repairAttendees());
+	}
+
+	@Test
+	public void genderPagesTest() {
+		DBHandler.deleteFacultyCascade("GenderFaculty");
+		DBHandler.addFaculty("GenderFaculty");
+		DBHandler.addCourse("GenderCourse", "GenderFaculty", 12);
+
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 13; i++) {
+			Student student = new Student();
+			student.setName("Gender" + i);
+			student.setSurname("Student");
+			student.setAge(20);
+			student.setGender(i % 3 == 0 ? Gender.Female : Gender.Male);
+			student.setCourse("GenderCourse");
+			student.setStarted(java.sql.Date.valueOf(LocalDate.of(2021, 9, 1)));
+			students.add(student);
+		}
+		assertEquals(13, DBHandler.addStudents(students).length);
+
+		// The pages read after the keys of the index are the ones the database sorts
+		StudentFilter filter = new StudentFilter("GenderCourse", null, null, null, null, null, null);
+		StudentPageIndex index = DBHandler.getStudentPageIndex(4, false, filter, 4);
+		assertEquals(13, index.getRowCount());
+
+		List<Gender> paged = new ArrayList<Gender>();
+		for (int page = 0; page < index.getPageCount(); page++) {
+			for (Student student : DBHandler.getStudentPage(4, false, filter, index.getKeyBefore(page),
+					index.getKeyLast(page), 4)) {
+				assertEquals(page, index.findPage(student, 4, false));
+				paged.add(student.getGender());
+			}
+		}
+		assertEquals(13, paged.size());
+		assertEquals(Gender.Female, paged.get(0));
+		assertEquals(Gender.Male, paged.get(12));
+		assertEquals(5, paged.lastIndexOf(Gender.Female) + 1);
+
+		DBHandler.deleteFacultyCascade("GenderFaculty");
+	}
 }
@@ -0,0 +1,48 @@
+package sms;
+
+/**
+ * The outcome of a cascade delete: how many rows of each table went with the
+ * course or faculty deleted
+ */
+public class DeleteReport {
+	private final int students;
+	private final int courses;
+	private final int faculties;
+
+	/**
+	 * @param students  - The number of students deleted
+	 * @param courses   - The number of courses deleted
+	 * @param faculties - The number of faculties deleted
+	 */
+	public DeleteReport(final int students, final int courses, final int faculties) {
+		this.students = students;
+		this.courses = courses;
+		this.faculties = faculties;
+	}
+
+	/**
+	 * @return The number of students deleted
+	 */
+	public int getStudents() {
+		return students;
+	}
+
+	/**
+	 * @return The number of courses deleted
+	 */
+	public int getCourses() {
+		return courses;
+	}
+
+	/**
+	 * @return The number of faculties deleted
+	 */
+	public int getFaculties() {
+		return faculties;
+	}
+
+	@Override
+	public String toString() {
+		return "students=" + students + ", courses=" + courses + ", faculties=" + faculties;
+	}
+}
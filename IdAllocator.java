@@ -0,0 +1,115 @@
+package sms;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out IDs that no other client will use, without asking the database
+ * for each one. A block of consecutive IDs is reserved from the database at
+ * once(hi/lo), and its IDs are then handed out with a single atomic increment,
+ * so threads never wait for each other until the block runs out. IDs of a
+ * block that isn't used up are never handed out, which leaves gaps
+ */
+public class IdAllocator {
+	/**
+	 * The default number of IDs reserved at once
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 100;
+
+	/**
+	 * Reserves IDs in the database
+	 */
+	interface BlockSource {
+		/**
+		 * @param size - The number of IDs to reserve
+		 * @return The first of the reserved IDs, the others follow it
+		 */
+		long reserve(int size) throws SQLException;
+	}
+
+	/**
+	 * A range of reserved IDs. The next ID keeps increasing past the end once
+	 * the block runs out, those IDs are never handed out
+	 */
+	private static class Block {
+		private final AtomicLong next;
+		private final long end;
+
+		private Block(final long first, final long end) {
+			this.next = new AtomicLong(first);
+			this.end = end;
+		}
+	}
+
+	/**
+	 * A block without IDs, which makes the first request reserve one
+	 */
+	private static final Block EMPTY = new Block(0, 0);
+
+	private final BlockSource source;
+	private final int blockSize;
+	private final AtomicReference<Block> block = new AtomicReference<Block>(EMPTY);
+	private final AtomicLong reservations = new AtomicLong();
+
+	/**
+	 * @param source    - Reserves IDs in the database
+	 * @param blockSize - The number of IDs reserved at once
+	 */
+	IdAllocator(final BlockSource source, final int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+		}
+
+		this.source = source;
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * @return A new ID, unique among all the clients of the database
+	 * @throws SQLException If a new block is needed and can't be reserved
+	 */
+	public int nextId() throws SQLException {
+		while (true) {
+			final Block current = block.get();
+			final long id = current.next.getAndIncrement();
+			if (id < current.end) {
+				if (id > Integer.MAX_VALUE) {
+					throw new SQLException("No student IDs are left");
+				}
+				return (int) id;
+			}
+
+			reserve(current);
+		}
+	}
+
+	/**
+	 * @return The number of blocks reserved so far
+	 */
+	public long getReservations() {
+		return reservations.get();
+	}
+
+	/**
+	 * Drops the current block, e.g. when the database changes. The next ID comes
+	 * from a new block
+	 */
+	public synchronized void reset() {
+		block.set(EMPTY);
+	}
+
+	/**
+	 * Reserves a new block once the current one has run out. The threads that
+	 * find the same block used up wait for the first one's reservation
+	 */
+	private synchronized void reserve(final Block usedUp) throws SQLException {
+		if (block.get() != usedUp) {
+			return;
+		}
+
+		final long first = source.reserve(blockSize);
+		reservations.incrementAndGet();
+		block.set(new Block(first, first + blockSize));
+	}
+}
@@ -0,0 +1,80 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * The class that tests IdAllocator class
+ */
+public class IdAllocatorTest {
+
+	/**
+	 * Reserves blocks from a counter, as the id_blocks table does
+	 */
+	private final AtomicLong nextFree = new AtomicLong(1);
+
+	private IdAllocator createAllocator(final int blockSize) {
+		return new IdAllocator(size -> nextFree.getAndAdd(size), blockSize);
+	}
+
+	@Test
+	public void reservesOneBlockPerBlockSizeIds() throws SQLException {
+		IdAllocator allocator = createAllocator(10);
+		for (int i = 1; i <= 25; i++) {
+			assertEquals(i, allocator.nextId());
+		}
+		assertEquals(3, allocator.getReservations());
+
+		// The rest of the current block is dropped
+		allocator.reset();
+		assertEquals(31, allocator.nextId());
+	}
+
+	@Test
+	public void threadsNeverGetTheSameId() throws Exception {
+		final IdAllocator allocator = createAllocator(7);
+		final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		final int threads = 8;
+		final int idsPerThread = 1000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit((Callable<Void>) () -> {
+					for (int j = 0; j < idsPerThread; j++) {
+						assertTrue(ids.add(allocator.nextId()));
+					}
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threads * idsPerThread, ids.size());
+	}
+
+	@Test(expected = SQLException.class)
+	public void failedReservationIsReported() throws SQLException {
+		new IdAllocator(size -> {
+			throw new SQLException("No connection");
+		}, 10).nextId();
+	}
+}
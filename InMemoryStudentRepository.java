@@ -0,0 +1,715 @@
+package sms;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The repository kept in the memory of the application, to run it, its tests
+ * and its benchmarks without a database. Nothing is kept after the application
+ * exits. Readers share a lock and writers hold it alone, so every operation
+ * sees a consistent state and the ones changing many rows change all of them
+ * or none, as the transactions of the database do. The students are copied in
+ * and out, so the caller's objects are never shared. The numbers of attendees
+ * and courses are counted from the rows, so they never drift
+ */
+public class InMemoryStudentRepository implements StudentRepository {
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Guarded by lock
+	private final TreeMap<Integer, Student> students = new TreeMap<Integer, Student>();
+	private final Map<Integer, Long> modified = new HashMap<Integer, Long>();
+	// In the order of the deletions, the oldest are forgotten first
+	private final Map<Integer, Long> deleted = new LinkedHashMap<Integer, Long>();
+	// The names are compared ignoring case, as the unique indexes of the database compare them
+	private final Map<String, Course> courses = new TreeMap<String, Course>(String.CASE_INSENSITIVE_ORDER);
+	private final Set<String> faculties = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, Integer> enrolled = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+
+	/**
+	 * The time of the last change, in milliseconds. Every change gets a later
+	 * time than the one before, even within the same millisecond. Guarded by lock
+	 */
+	private long clock;
+
+	private final AtomicInteger nextId = new AtomicInteger(1);
+
+	@Override
+	public boolean testConnection() {
+		return true;
+	}
+
+	@Override
+	public boolean createTables() {
+		return true;
+	}
+
+	@Override
+	public boolean warmUp() {
+		return true;
+	}
+
+	@Override
+	public boolean checkIfTableExists(final String tableName) {
+		return Arrays.asList(DBHandler.getStudentsTable(), DBHandler.getCoursesTable(), DBHandler.getFacultiesTable(),
+				DBHandler.getDeletedStudentsTable(), DBHandler.getIdBlocksTable()).contains(tableName);
+	}
+
+	@Override
+	public boolean addStudent(final Student student) {
+		return addStudents(Collections.singletonList(student), 1) != null;
+	}
+
+	@Override
+	public int[] addStudents(final Collection<Student> added, final int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+		}
+
+		lock.writeLock().lock();
+		try {
+			// Everything is checked before anything is changed
+			Set<Integer> ids = new HashSet<Integer>();
+			for (Student student : added) {
+				if (!courses.containsKey(student.getCourse())) {
+					throw new IllegalArgumentException("Course duration not found for the course " + student.getCourse());
+				}
+				if (student.getStarted() == null || student.getGender() == null) {
+					throw new IllegalArgumentException("The student has no start date or gender");
+				}
+				if (student.id != 0 && (students.containsKey(student.id) || !ids.add(student.id))) {
+					throw new IllegalArgumentException("Duplicate student ID " + student.id);
+				}
+			}
+
+			// The IDs handed out from now on come after the ones given
+			for (int id : ids) {
+				nextId.accumulateAndGet(id + 1, Math::max);
+			}
+
+			final int[] result = new int[added.size()];
+			final long time = tick();
+			int index = 0;
+			for (Student student : added) {
+				if (student.id == 0) {
+					student.id = nextStudentId();
+				}
+
+				final LocalDate startedDate = toLocalDate(student.getStarted());
+				student.setGraduation(
+						java.sql.Date.valueOf(startedDate.plusMonths(courses.get(student.getCourse()).getDuration())));
+
+				students.put(student.id, copy(student));
+				modified.put(student.id, time);
+				enrolled.merge(student.getCourse(), 1, Integer::sum);
+				result[index++] = student.id;
+			}
+
+			return result;
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+
+			// Return null if an exception has been thrown
+			return null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int nextStudentId() {
+		return nextId.getAndIncrement();
+	}
+
+	@Override
+	public List<Student> getStudents() {
+		lock.readLock().lock();
+		try {
+			List<Student> copies = new ArrayList<Student>(students.size());
+			for (Student student : students.values()) {
+				copies.add(copy(student));
+			}
+			return copies;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void streamTable(final String tableName, final Consumer<Object[]> rowHandler) {
+		lock.readLock().lock();
+		try {
+			if (DBHandler.getStudentsTable().equals(tableName)) {
+				rowHandler.accept(new Object[]{"ID", "Name", "Surname", "Age", "Gender", "Course", "Started",
+						"Graduation"});
+				for (Student student : students.values()) {
+					rowHandler.accept(new Object[]{student.getId(), student.getName(), student.getSurname(),
+							student.getAge(), student.getGender().name(), student.getCourse(), student.getStarted(),
+							student.getGraduation()});
+				}
+			} else if (DBHandler.getCoursesTable().equals(tableName)) {
+				rowHandler.accept(new Object[]{"Name", "Faculty", "Duration", "Attendees"});
+				for (Course course : courses.values()) {
+					rowHandler.accept(new Object[]{course.getName(), course.getFaculty(), course.getDuration(),
+							enrolled.getOrDefault(course.getName(), 0)});
+				}
+			} else if (DBHandler.getFacultiesTable().equals(tableName)) {
+				rowHandler.accept(new Object[]{"Name", "Courses", "Attendees"});
+				for (String faculty : faculties) {
+					rowHandler.accept(new Object[]{faculty, countCourses(faculty), countAttendees(faculty)});
+				}
+			} else {
+				throw new IllegalArgumentException("Unknown table: " + tableName);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public StudentPageIndex getStudentPageIndex(final int column, final boolean descending,
+			final StudentFilter filter, final int pageSize) {
+		lock.readLock().lock();
+		try {
+			List<Student> matching = new ArrayList<Student>();
+			for (Student student : students.values()) {
+				if (matches(filter, student)) {
+					matching.add(student);
+				}
+			}
+			matching.sort(order(column, descending));
+
+			List<Object[]> pageKeys = new ArrayList<Object[]>();
+			for (int row = pageSize - 1; row < matching.size(); row += pageSize) {
+				final Student last = matching.get(row);
+				pageKeys.add(new Object[]{StudentPageIndex.sortValue(last, column), last.getId()});
+			}
+
+			return new StudentPageIndex(matching.size(), pageKeys, syncTime());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Keeps the rows after the key in a heap of the page's size, so a page costs
+	 * one pass over the students instead of a sort
+	 */
+	@Override
+	public List<Student> getStudentPage(final int column, final boolean descending, final StudentFilter filter,
+			final Object[] keyBefore, final Object[] keyLast, final int pageSize) {
+		final Comparator<Student> order = order(column, descending);
+
+		lock.readLock().lock();
+		try {
+			// The last row of the page so far is the head, and leaves first
+			PriorityQueue<Student> page = new PriorityQueue<Student>(pageSize + 1, order.reversed());
+			for (Student student : students.values()) {
+				if (!matches(filter, student)
+						|| keyBefore != null && StudentPageIndex.compareToKey(student, keyBefore, column, descending) <= 0
+						|| keyLast != null && StudentPageIndex.compareToKey(student, keyLast, column, descending) > 0) {
+					continue;
+				}
+
+				page.add(student);
+				if (page.size() > pageSize) {
+					page.poll();
+				}
+			}
+
+			List<Student> sorted = new ArrayList<Student>(page);
+			sorted.sort(order);
+			List<Student> copies = new ArrayList<Student>(sorted.size());
+			for (Student student : sorted) {
+				copies.add(copy(student));
+			}
+			return copies;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Student> getStudentsById(final int[] ids, final StudentFilter filter) {
+		lock.readLock().lock();
+		try {
+			List<Student> found = new ArrayList<Student>(ids.length);
+			for (int id : ids) {
+				final Student student = students.get(id);
+				if (student != null && matches(filter, student)) {
+					found.add(copy(student));
+				}
+			}
+			return found;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public StudentSearchIndex readSearchIndex() {
+		lock.readLock().lock();
+		try {
+			StudentSearchIndex index = new StudentSearchIndex();
+			for (Student student : students.values()) {
+				index.put(student.getId(), student.getName(), student.getSurname());
+			}
+			return index;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public StudentStore readStudentStore() {
+		lock.readLock().lock();
+		try {
+			StudentStore store = new StudentStore(students.size());
+			for (Student student : students.values()) {
+				store.add(student);
+			}
+			return store;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public StudentDelta getStudentChanges(final Timestamp since) {
+		lock.readLock().lock();
+		try {
+			// The deletions older than the retention have been forgotten, so everything is read
+			final boolean full = since == null || since.getTime() < clock - StudentDelta.DELETIONS_RETENTION;
+
+			List<Student> changed = new ArrayList<Student>();
+			List<Integer> deletedIds = new ArrayList<Integer>();
+			for (Student student : students.values()) {
+				if (full || modified.get(student.getId()) >= since.getTime()) {
+					changed.add(copy(student));
+				}
+			}
+			if (!full) {
+				for (Map.Entry<Integer, Long> entry : deleted.entrySet()) {
+					if (entry.getValue() >= since.getTime()) {
+						deletedIds.add(entry.getKey());
+					}
+				}
+			}
+
+			return new StudentDelta(full, changed, deletedIds, syncTime());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteStudent(final int id) {
+		lock.writeLock().lock();
+		try {
+			final Student student = students.remove(id);
+			if (student != null) {
+				forget(student, tick());
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean addFaculty(final String facultyName) {
+		lock.writeLock().lock();
+		try {
+			return faculties.add(facultyName);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean addCourses(final Collection<Course> added) {
+		lock.writeLock().lock();
+		try {
+			// A course that already exists rejects the others, as the unique index does
+			Set<String> names = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+			for (Course course : added) {
+				if (courses.containsKey(course.getName()) || !names.add(course.getName())) {
+					return false;
+				}
+			}
+
+			for (Course course : added) {
+				courses.put(course.getName(), course);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean addFaculties(final Collection<String> facultyNames) {
+		lock.writeLock().lock();
+		try {
+			Set<String> names = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+			for (String facultyName : facultyNames) {
+				if (faculties.contains(facultyName) || !names.add(facultyName)) {
+					return false;
+				}
+			}
+
+			faculties.addAll(facultyNames);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public String[] getFaculties() {
+		lock.readLock().lock();
+		try {
+			return faculties.toArray(new String[0]);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public String[] getCourses() {
+		lock.readLock().lock();
+		try {
+			return courses.keySet().toArray(new String[0]);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The counters are counted when they are read, so there is never anything to
+	 * correct
+	 */
+	@Override
+	public int repairAttendees() {
+		return 0;
+	}
+
+	@Override
+	public boolean checkIfElementExists(final String tableName, final String name) {
+		lock.readLock().lock();
+		try {
+			if (DBHandler.getCoursesTable().equals(tableName)) {
+				return courses.containsKey(name);
+			} else if (DBHandler.getFacultiesTable().equals(tableName)) {
+				return faculties.contains(name);
+			}
+
+			throw new IllegalArgumentException("Unknown table: " + tableName);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public int getNumberOfAttendees(final String tableName, final String element) {
+		lock.readLock().lock();
+		try {
+			if (DBHandler.getCoursesTable().equals(tableName)) {
+				return courses.containsKey(element) ? enrolled.getOrDefault(element, 0) : 0;
+			} else if (DBHandler.getFacultiesTable().equals(tableName)) {
+				return countAttendees(element);
+			}
+
+			throw new IllegalArgumentException("Unknown table: " + tableName);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public int getNumberOfCourses(final String faculty) {
+		lock.readLock().lock();
+		try {
+			return countCourses(faculty);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteCourseAttendees(final String course) {
+		lock.writeLock().lock();
+		try {
+			removeStudents(student -> course.equalsIgnoreCase(student.getCourse()));
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteCourse(final String course) {
+		lock.writeLock().lock();
+		try {
+			courses.remove(course);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteFaculty(final String faculty) {
+		lock.writeLock().lock();
+		try {
+			faculties.remove(faculty);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public DeleteReport deleteCourseCascade(final String course) {
+		lock.writeLock().lock();
+		try {
+			final int removedStudents = removeStudents(student -> course.equalsIgnoreCase(student.getCourse()));
+			final int removedCourses = courses.remove(course) != null ? 1 : 0;
+			return new DeleteReport(removedStudents, removedCourses, 0);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public DeleteReport deleteFacultyCascade(final String faculty) {
+		lock.writeLock().lock();
+		try {
+			Set<String> facultyCourses = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+			for (Course course : courses.values()) {
+				if (faculty.equalsIgnoreCase(course.getFaculty())) {
+					facultyCourses.add(course.getName());
+				}
+			}
+
+			final int removedStudents = removeStudents(student -> facultyCourses.contains(student.getCourse()));
+			courses.keySet().removeAll(facultyCourses);
+			final int removedFaculties = faculties.remove(faculty) ? 1 : 0;
+			return new DeleteReport(removedStudents, facultyCourses.size(), removedFaculties);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean updateStudentsFields(final Map<Integer, Map<Integer, String>> edits) {
+		lock.writeLock().lock();
+		try {
+			// The edited copies are made first, so an invalid value changes nothing
+			List<Student> edited = new ArrayList<Student>(edits.size());
+			for (Map.Entry<Integer, Map<Integer, String>> entry : edits.entrySet()) {
+				final Student stored = students.get(entry.getKey());
+				if (stored == null) {
+					continue;
+				}
+
+				Student student = copy(stored);
+				for (Map.Entry<Integer, String> field : entry.getValue().entrySet()) {
+					switch (field.getKey()) {
+					case 1:
+						student.setName(field.getValue());
+						break;
+					case 2:
+						student.setSurname(field.getValue());
+						break;
+					case 3:
+						student.setAge(Integer.parseInt(field.getValue()));
+						break;
+					case 4:
+						student.setGender(Gender.valueOf(field.getValue()));
+						break;
+					default:
+						// The other columns can't be changed
+					}
+				}
+				edited.add(student);
+			}
+
+			final long time = tick();
+			for (Student student : edited) {
+				students.put(student.getId(), student);
+				modified.put(student.getId(), time);
+			}
+			return true;
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+
+			return false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Deletes the students meeting a condition and remembers when, for the
+	 * changes read by the other tables. The write lock has to be held
+	 *
+	 * @return The number of students deleted
+	 */
+	private int removeStudents(final Predicate<Student> condition) {
+		final long time = tick();
+		int removed = 0;
+		for (Iterator<Student> iterator = students.values().iterator(); iterator.hasNext();) {
+			final Student student = iterator.next();
+			if (condition.test(student)) {
+				iterator.remove();
+				forget(student, time);
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Records the deletion of a student removed from the students. The write lock
+	 * has to be held
+	 */
+	private void forget(final Student student, final long time) {
+		modified.remove(student.getId());
+		deleted.put(student.getId(), time);
+		enrolled.merge(student.getCourse(), -1, Integer::sum);
+
+		// The deletions are in order, so the forgotten ones are at the start
+		final Iterator<Long> deletions = deleted.values().iterator();
+		while (deletions.hasNext() && deletions.next() < time - StudentDelta.DELETIONS_RETENTION) {
+			deletions.remove();
+		}
+	}
+
+	/**
+	 * @return The number of courses of a faculty. The lock has to be held
+	 */
+	private int countCourses(final String faculty) {
+		int count = 0;
+		for (Course course : courses.values()) {
+			if (faculty.equalsIgnoreCase(course.getFaculty())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return The number of students attending the courses of a faculty. The lock
+	 *         has to be held
+	 */
+	private int countAttendees(final String faculty) {
+		int count = 0;
+		for (Course course : courses.values()) {
+			if (faculty.equalsIgnoreCase(course.getFaculty())) {
+				count += enrolled.getOrDefault(course.getName(), 0);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Moves the clock to the time of a change. The write lock has to be held
+	 */
+	private long tick() {
+		clock = Math.max(clock + 1, System.currentTimeMillis());
+		return clock;
+	}
+
+	/**
+	 * @return The time the changes made from now on get at least, to read them
+	 *         next. The lock has to be held
+	 */
+	private Timestamp syncTime() {
+		return new Timestamp(clock + 1);
+	}
+
+	/**
+	 * @return Whether a student meets the criteria of a filter. The lock has to
+	 *         be held
+	 */
+	private boolean matches(final StudentFilter filter, final Student student) {
+		if (filter.getCourse() != null && !filter.getCourse().equalsIgnoreCase(student.getCourse())) {
+			return false;
+		}
+		if (filter.getFaculty() != null) {
+			final Course course = courses.get(student.getCourse());
+			if (course == null || !filter.getFaculty().equalsIgnoreCase(course.getFaculty())) {
+				return false;
+			}
+		}
+		if (filter.getGender() != null && filter.getGender() != student.getGender()) {
+			return false;
+		}
+		if (filter.getMinAge() != null && student.getAge() < filter.getMinAge()
+				|| filter.getMaxAge() != null && student.getAge() > filter.getMaxAge()) {
+			return false;
+		}
+		if (filter.getStartedFrom() != null || filter.getStartedTo() != null) {
+			final LocalDate started = toLocalDate(student.getStarted());
+			if (filter.getStartedFrom() != null && started.isBefore(filter.getStartedFrom())
+					|| filter.getStartedTo() != null && started.isAfter(filter.getStartedTo())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return The order of the students by a column and then by ID, as the
+	 *         database sorts the pages
+	 */
+	private static Comparator<Student> order(final int column, final boolean descending) {
+		final Comparator<Student> ascending = (first, second) -> {
+			final int compared = StudentPageIndex.compareValues(StudentPageIndex.sortValue(first, column),
+					StudentPageIndex.sortValue(second, column));
+			return compared != 0 ? compared : Integer.compare(first.getId(), second.getId());
+		};
+		return descending ? ascending.reversed() : ascending;
+	}
+
+	private static Student copy(final Student student) {
+		Student copy = new Student(student.getId());
+		copy.setName(student.getName());
+		copy.setSurname(student.getSurname());
+		copy.setAge(student.getAge());
+		copy.setGender(student.getGender());
+		copy.setCourse(student.getCourse());
+		copy.setStarted(student.getStarted());
+		copy.setGraduation(student.getGraduation());
+		return copy;
+	}
+
+	/**
+	 * Converts a date to a local date in the system's time zone
+	 */
+	private static LocalDate toLocalDate(final Date date) {
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+}
@@ -0,0 +1,288 @@
+package sms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * The class that tests InMemoryStudentRepository class
+ */
+public class InMemoryStudentRepositoryTest {
+
+	private static Student student(final String name, final String surname, final int age, final String course) {
+		Student student = new Student();
+		student.setName(name);
+		student.setSurname(surname);
+		student.setAge(age);
+		student.setGender(age % 2 == 0 ? Gender.Female : Gender.Male);
+		student.setCourse(course);
+		student.setStarted(java.sql.Date.valueOf(LocalDate.of(2020 + age % 3, 9, 1)));
+		return student;
+	}
+
+	private static InMemoryStudentRepository withCourses() {
+		InMemoryStudentRepository repository = new InMemoryStudentRepository();
+		assertTrue(repository.addFaculties(List.of("Science", "Arts")));
+		assertTrue(repository.addCourse("Physics", "Science", 12));
+		assertTrue(repository.addCourse("Chemistry", "Science", 24));
+		assertTrue(repository.addCourse("Painting", "Arts", 36));
+		return repository;
+	}
+
+	@Test
+	public void addedStudentsGetIdsAndGraduation() {
+		InMemoryStudentRepository repository = withCourses();
+		Student student = student("Ann", "Lee", 20, "Chemistry");
+
+		assertTrue(repository.addStudent(student));
+		assertEquals(1, student.getId());
+		assertEquals(java.sql.Date.valueOf(LocalDate.of(2024, 9, 1)), student.getGraduation());
+		assertEquals(1, repository.getNumberOfAttendees(DBHandler.getCoursesTable(), "Chemistry"));
+		assertEquals(1, repository.getNumberOfAttendees(DBHandler.getFacultiesTable(), "Science"));
+
+		// An unknown course rejects the whole batch
+		assertNull(repository.addStudents(List.of(student("Bob", "Roe", 21, "Physics"),
+				student("Eve", "Doe", 22, "NoSuchCourse"))));
+		assertEquals(1, repository.getStudents().size());
+		assertFalse(repository.addCourse("Physics", "Science", 6));
+	}
+
+	@Test
+	public void pagesFollowTheIndex() {
+		InMemoryStudentRepository repository = withCourses();
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 23; i++) {
+			students.add(student("Name" + i, i % 2 == 0 ? "smith" : "Jones", 18 + i % 7, "Physics"));
+		}
+		repository.addStudents(students);
+
+		for (boolean descending : new boolean[] { false, true }) {
+			StudentPageIndex index = repository.getStudentPageIndex(2, descending, StudentFilter.NONE, 5);
+			assertEquals(23, index.getRowCount());
+
+			List<Integer> paged = new ArrayList<Integer>();
+			for (int page = 0; page * 5 < index.getRowCount(); page++) {
+				for (Student student : repository.getStudentPage(2, descending, StudentFilter.NONE,
+						index.getKeyBefore(page), null, 5)) {
+					paged.add(student.getId());
+				}
+			}
+
+			// Jones before smith ignoring case, then by ID
+			List<Integer> expected = new ArrayList<Integer>();
+			for (int i = 0; i < 23; i++) {
+				if (i % 2 == 1) {
+					expected.add(i + 1);
+				}
+			}
+			for (int i = 0; i < 23; i++) {
+				if (i % 2 == 0) {
+					expected.add(i + 1);
+				}
+			}
+			if (descending) {
+				java.util.Collections.reverse(expected);
+			}
+			assertEquals(expected, paged);
+		}
+	}
+
+	@Test
+	public void pagesSortedByGenderPutFemaleFirst() {
+		InMemoryStudentRepository repository = withCourses();
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 23; i++) {
+			students.add(student("Name" + i, "Smith", 18 + i % 7, "Physics"));
+		}
+		repository.addStudents(students);
+
+		for (boolean descending : new boolean[] { false, true }) {
+			StudentPageIndex index = repository.getStudentPageIndex(4, descending, StudentFilter.NONE, 5);
+			assertEquals(23, index.getRowCount());
+
+			List<Integer> paged = new ArrayList<Integer>();
+			for (int page = 0; page < index.getPageCount(); page++) {
+				for (Student student : repository.getStudentPage(4, descending, StudentFilter.NONE,
+						index.getKeyBefore(page), index.getKeyLast(page), 5)) {
+					assertEquals(page, index.findPage(student, 4, descending));
+					paged.add(student.getId());
+				}
+			}
+
+			// Female before Male, as the database sorts them, then by ID
+			List<Integer> expected = new ArrayList<Integer>();
+			for (Gender gender : new Gender[] { Gender.Female, Gender.Male }) {
+				for (int i = 0; i < 23; i++) {
+					if (students.get(i).getGender() == gender) {
+						expected.add(i + 1);
+					}
+				}
+			}
+			if (descending) {
+				java.util.Collections.reverse(expected);
+			}
+			assertEquals(expected, paged);
+		}
+	}
+
+	@Test
+	public void storeHoldsEveryStudent() {
+		InMemoryStudentRepository repository = withCourses();
+		repository.addStudents(List.of(student("Ann", "Lee", 20, "Physics"), student("Bob", "Roe", 25, "Physics"),
+				student("Eve", "Doe", 30, "Painting")));
+
+		StudentStore store = repository.readStudentStore();
+		assertEquals(3, store.size());
+		assertEquals(Integer.valueOf(2), store.countByCourse().get("Physics"));
+		assertEquals(Integer.valueOf(2), store.countByGender().get(Gender.Female));
+	}
+
+	@Test
+	public void namesAreUniqueIgnoringCase() {
+		InMemoryStudentRepository repository = withCourses();
+
+		// As the unique indexes of the database, the names differing only in case are the same
+		assertFalse(repository.addCourse("physics", "Science", 12));
+		assertFalse(repository.addFaculties(List.of("SCIENCE")));
+		assertFalse(repository.addFaculties(List.of("Music", "music")));
+		assertTrue(repository.checkIfElementExists(DBHandler.getCoursesTable(), "PHYSICS"));
+
+		repository.addStudents(List.of(student("Ann", "Lee", 20, "physics")));
+		assertEquals(1, repository.getNumberOfAttendees(DBHandler.getCoursesTable(), "Physics"));
+		assertEquals(1, repository.deleteFacultyCascade("science").getStudents());
+	}
+
+	@Test
+	public void filterLeavesOutStudents() {
+		InMemoryStudentRepository repository = withCourses();
+		repository.addStudents(List.of(student("Ann", "Lee", 20, "Physics"), student("Bob", "Roe", 25, "Painting"),
+				student("Eve", "Doe", 30, "Chemistry")));
+
+		StudentFilter science = new StudentFilter(null, "Science", null, 21, null, null, null);
+		assertEquals(1, repository.getStudentPageIndex(0, false, science, 10).getRowCount());
+		assertEquals("Eve", repository.getStudentPage(0, false, science, null, null, 10).get(0).getName());
+		assertEquals(2, repository.getStudentsById(new int[] { 3, 2, 1 }, new StudentFilter(null, null, null, null,
+				25, null, null)).size());
+	}
+
+	@Test
+	public void changesAreReadOnce() {
+		InMemoryStudentRepository repository = withCourses();
+		repository.addStudents(List.of(student("Ann", "Lee", 20, "Physics"), student("Bob", "Roe", 21, "Physics")));
+
+		StudentDelta full = repository.getStudentChanges(null);
+		assertTrue(full.isFull());
+		assertEquals(2, full.getChanged().size());
+		assertTrue(repository.getStudentChanges(full.getSyncTime()).isEmpty());
+
+		repository.updateStudentField(1, 1, "Anna");
+		repository.deleteStudent(2);
+		StudentDelta delta = repository.getStudentChanges(full.getSyncTime());
+		assertEquals("Anna", delta.getChanged().get(0).getName());
+		assertEquals(List.of(2), delta.getDeletedIds());
+		assertTrue(repository.getStudentChanges(delta.getSyncTime()).isEmpty());
+	}
+
+	@Test
+	public void pagesEndAtTheirLastKey() {
+		InMemoryStudentRepository repository = withCourses();
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 12; i++) {
+			students.add(student("Name" + i, "Surname", 18 + i % 4, "Physics"));
+		}
+		repository.addStudents(students);
+
+		StudentPageIndex index = repository.getStudentPageIndex(3, false, StudentFilter.NONE, 5);
+		assertEquals(3, index.getPageCount());
+		assertNull(index.getKeyLast(2));
+
+		// A student added to the first page makes it one longer, the page after it doesn't change
+		repository.addStudent(student("Added", "Surname", 18, "Physics"));
+		assertEquals(6, repository.getStudentPage(3, false, StudentFilter.NONE, null, index.getKeyLast(0), 20).size());
+		assertEquals(5, repository.getStudentPage(3, false, StudentFilter.NONE, index.getKeyBefore(1),
+				index.getKeyLast(1), 20).size());
+		assertEquals(0, index.findPage(repository.getStudents().get(12), 3, false));
+	}
+
+	@Test
+	public void invalidEditChangesNothing() {
+		InMemoryStudentRepository repository = withCourses();
+		repository.addStudents(List.of(student("Ann", "Lee", 20, "Physics"), student("Bob", "Roe", 21, "Physics")));
+
+		Map<Integer, Map<Integer, String>> edits = new HashMap<Integer, Map<Integer, String>>();
+		edits.put(1, Map.of(1, "Anna"));
+		edits.put(2, Map.of(3, "twenty"));
+		assertFalse(repository.updateStudentsFields(edits));
+		assertEquals("Ann", repository.getStudents().get(0).getName());
+
+		edits.put(2, Map.of(3, "22", 4, "Female"));
+		assertTrue(repository.updateStudentsFields(edits));
+		assertEquals("Anna", repository.getStudents().get(0).getName());
+		assertEquals(22, repository.getStudents().get(1).getAge());
+		assertEquals(Gender.Female, repository.getStudents().get(1).getGender());
+	}
+
+	@Test
+	public void cascadeDeletesReportRows() {
+		InMemoryStudentRepository repository = withCourses();
+		repository.addStudents(List.of(student("Ann", "Lee", 20, "Physics"), student("Bob", "Roe", 21, "Chemistry"),
+				student("Eve", "Doe", 22, "Painting")));
+
+		DeleteReport report = repository.deleteFacultyCascade("Science");
+		assertEquals(2, report.getStudents());
+		assertEquals(2, report.getCourses());
+		assertEquals(1, report.getFaculties());
+		assertArrayEquals(new Object[] { "Painting" }, repository.getCourses());
+		assertArrayEquals(new Object[] { "Arts" }, repository.getFaculties());
+
+		report = repository.deleteCourseCascade("Painting");
+		assertEquals(1, report.getStudents());
+		assertEquals(0, repository.getStudents().size());
+		assertEquals(0, repository.getNumberOfCourses("Arts"));
+	}
+
+	@Test
+	public void writersAndReadersRunTogether() throws Exception {
+		InMemoryStudentRepository repository = withCourses();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> tasks = new ArrayList<Future<?>>();
+			for (int writer = 0; writer < 3; writer++) {
+				tasks.add(executor.submit(() -> {
+					for (int i = 0; i < 200; i++) {
+						assertEquals(1, repository.addStudents(List.of(student("N" + i, "S", 20, "Physics"))).length);
+					}
+				}));
+			}
+			tasks.add(executor.submit(() -> {
+				for (int i = 0; i < 50; i++) {
+					StudentPageIndex index = repository.getStudentPageIndex(1, false, StudentFilter.NONE, 50);
+					assertTrue(index.getRowCount() <= 600);
+				}
+			}));
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(600, repository.getNumberOfAttendees(DBHandler.getCoursesTable(), "Physics"));
+		int[] ids = repository.getStudents().stream().mapToInt(Student::getId).toArray();
+		assertEquals(600, Arrays.stream(ids).distinct().count());
+	}
+}
@@ -0,0 +1,172 @@
+package sms;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The repository kept in the MySQL database DBHandler connects to, with the
+ * url and credentials set on DBHandler
+ */
+public class JdbcStudentRepository implements StudentRepository {
+
+	@Override
+	public boolean testConnection() {
+		return DBHandler.testConnection();
+	}
+
+	@Override
+	public boolean createTables() {
+		return DBHandler.createTables();
+	}
+
+	@Override
+	public boolean warmUp() {
+		return DBHandler.warmUpConnectionPool();
+	}
+
+	@Override
+	public boolean checkIfTableExists(final String tableName) {
+		return DBHandler.checkIfTableExists(tableName);
+	}
+
+	@Override
+	public boolean addStudent(final Student student) {
+		return DBHandler.addStudent(student);
+	}
+
+	@Override
+	public int[] addStudents(final Collection<Student> students, final int batchSize) {
+		return DBHandler.addStudents(students, batchSize);
+	}
+
+	@Override
+	public int nextStudentId() {
+		return DBHandler.nextStudentId();
+	}
+
+	@Override
+	public List<Student> getStudents() {
+		return DBHandler.getStudents();
+	}
+
+	@Override
+	public void streamTable(final String tableName, final Consumer<Object[]> rowHandler) throws SQLException {
+		DBHandler.streamTable(tableName, rowHandler);
+	}
+
+	@Override
+	public StudentPageIndex getStudentPageIndex(final int column, final boolean descending,
+			final StudentFilter filter, final int pageSize) {
+		return DBHandler.getStudentPageIndex(column, descending, filter, pageSize);
+	}
+
+	@Override
+	public List<Student> getStudentPage(final int column, final boolean descending, final StudentFilter filter,
+			final Object[] keyBefore, final Object[] keyLast, final int pageSize) {
+		return DBHandler.getStudentPage(column, descending, filter, keyBefore, keyLast, pageSize);
+	}
+
+	@Override
+	public List<Student> getStudentsById(final int[] ids, final StudentFilter filter) {
+		return DBHandler.getStudentsById(ids, filter);
+	}
+
+	@Override
+	public StudentSearchIndex readSearchIndex() {
+		return DBHandler.readSearchIndex();
+	}
+
+	@Override
+	public StudentStore readStudentStore() {
+		return DBHandler.readStudentStore();
+	}
+
+	@Override
+	public StudentDelta getStudentChanges(final Timestamp since) {
+		return DBHandler.getStudentChanges(since);
+	}
+
+	@Override
+	public boolean deleteStudent(final int id) {
+		return DBHandler.deleteStudent(id);
+	}
+
+	@Override
+	public boolean addFaculty(final String facultyName) {
+		return DBHandler.addFaculty(facultyName);
+	}
+
+	@Override
+	public boolean addCourses(final Collection<Course> courses) {
+		return DBHandler.addCourses(courses);
+	}
+
+	@Override
+	public boolean addFaculties(final Collection<String> facultyNames) {
+		return DBHandler.addFaculties(facultyNames);
+	}
+
+	@Override
+	public String[] getFaculties() {
+		return DBHandler.getFaculties();
+	}
+
+	@Override
+	public String[] getCourses() {
+		return DBHandler.getCourses();
+	}
+
+	@Override
+	public int repairAttendees() {
+		return DBHandler.repairAttendees();
+	}
+
+	@Override
+	public boolean checkIfElementExists(final String tableName, final String name) {
+		return DBHandler.checkIfElementExists(tableName, name);
+	}
+
+	@Override
+	public int getNumberOfAttendees(final String tableName, final String element) {
+		return DBHandler.getNumberOfAttendees(tableName, element);
+	}
+
+	@Override
+	public int getNumberOfCourses(final String faculty) {
+		return DBHandler.getNumberOfCourses(faculty);
+	}
+
+	@Override
+	public boolean deleteCourseAttendees(final String course) {
+		return DBHandler.deleteCourseAttendees(course);
+	}
+
+	@Override
+	public boolean deleteCourse(final String course) {
+		return DBHandler.deleteCourse(course);
+	}
+
+	@Override
+	public boolean deleteFaculty(final String faculty) {
+		return DBHandler.deleteFaculty(faculty);
+	}
+
+	@Override
+	public DeleteReport deleteCourseCascade(final String course) {
+		return DBHandler.deleteCourseCascade(course);
+	}
+
+	@Override
+	public DeleteReport deleteFacultyCascade(final String faculty) {
+		return DBHandler.deleteFacultyCascade(faculty);
+	}
+
+	@Override
+	public boolean updateStudentsFields(final Map<Integer, Map<Integer, String>> edits) {
+		return DBHandler.updateStudentsFields(edits);
+	}
+}
@@ -0,0 +1,132 @@
+package sms;
+
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.swing.AbstractButton;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableColumn;
+
+/**
+ * Keeps the texts of a window's components in the selected language. Every
+ * component is created or registered together with the key of its text, and
+ * when the language changes the texts are set again on the same components, so
+ * the window keeps its data, selection and scroll position
+ */
+public class LocalizedComponents {
+	/**
+	 * Sets the text of every registered component in the selected language
+	 */
+	private final List<Runnable> relabels = new ArrayList<Runnable>();
+
+	/**
+	 * Relabels the components on the event dispatch thread
+	 */
+	private final Consumer<Language> languageListener = language -> {
+		if (SwingUtilities.isEventDispatchThread()) {
+			relabel();
+		} else {
+			SwingUtilities.invokeLater(this::relabel);
+		}
+	};
+
+	/**
+	 * Registers a component and sets its text
+	 *
+	 * @param component - The component
+	 * @param key       - The key of the component's text, one of the constants of
+	 *                  Messages
+	 * @param setText   - Sets the text of the component
+	 * @return The component
+	 */
+	public <T> T bind(final T component, final int key, final BiConsumer<T, String> setText) {
+		final Runnable relabel = () -> setText.accept(component, Translator.getValue(key));
+		relabel.run();
+		relabels.add(relabel);
+		return component;
+	}
+
+	/**
+	 * @return A new label with the text of a key
+	 */
+	public JLabel label(final int key) {
+		return bind(new JLabel(), key, JLabel::setText);
+	}
+
+	/**
+	 * @return A new button with the text of a key
+	 */
+	public JButton button(final int key) {
+		return bind(new JButton(), key, AbstractButton::setText);
+	}
+
+	/**
+	 * @return A new menu with the text of a key
+	 */
+	public JMenu menu(final int key) {
+		return bind(new JMenu(), key, AbstractButton::setText);
+	}
+
+	/**
+	 * @return A new menu item with the text of a key
+	 */
+	public JMenuItem menuItem(final int key) {
+		return bind(new JMenuItem(), key, AbstractButton::setText);
+	}
+
+	/**
+	 * Registers a table whose model names its columns in the selected language.
+	 * Only the headers are set again, the columns keep their order and width
+	 *
+	 * @param table - The table
+	 * @return The table
+	 */
+	public JTable headers(final JTable table) {
+		relabels.add(() -> {
+			for (int i = 0; i < table.getColumnModel().getColumnCount(); i++) {
+				TableColumn column = table.getColumnModel().getColumn(i);
+				column.setHeaderValue(table.getModel().getColumnName(column.getModelIndex()));
+			}
+			if (table.getTableHeader() != null) {
+				table.getTableHeader().repaint();
+			}
+		});
+		return table;
+	}
+
+	/**
+	 * Sets the text of every registered component in the selected language. Must
+	 * be called on the event dispatch thread
+	 */
+	public void relabel() {
+		for (Runnable relabel : relabels) {
+			relabel.run();
+		}
+	}
+
+	/**
+	 * Relabels the components whenever the language changes, until a window is
+	 * closed
+	 *
+	 * @param window - The window the components are in
+	 */
+	public void attach(final Window window) {
+		Translator.addLanguageListener(languageListener);
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				Translator.removeLanguageListener(languageListener);
+			}
+		});
+	}
+}
@@ -0,0 +1,44 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import org.junit.Test;
+
+/**
+ * The class that tests LocalizedComponents class
+ */
+public class LocalizedComponentsTest {
+
+	@Test
+	public void relabelKeepsTheComponents() {
+		Language selected = Translator.getLanguage();
+		try {
+			Translator.setLanguage(Language.ENG);
+			LocalizedComponents texts = new LocalizedComponents();
+			JLabel label = texts.label(Messages.name);
+			JButton button = texts.button(Messages.exit);
+			JTable table = texts.headers(new JTable(new DefaultTableModel(1, 1) {
+				@Override
+				public String getColumnName(int column) {
+					return Translator.getValue(Messages.surname);
+				}
+			}));
+			table.setRowSelectionInterval(0, 0);
+
+			Translator.setLanguage(Language.RO);
+			texts.relabel();
+
+			assertEquals(Translator.getValue(Messages.name), label.getText());
+			assertEquals(Translator.getValue(Messages.exit), button.getText());
+			assertEquals(Translator.getValue(Messages.surname), table.getColumnModel().getColumn(0).getHeaderValue());
+			assertEquals(0, table.getSelectedRow());
+		} finally {
+			Translator.setLanguage(selected);
+		}
+	}
+}
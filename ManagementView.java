@@ -1,31 +1,53 @@
 package sms;
 
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.EventQueue;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.SystemColor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
+import javax.swing.ButtonGroup;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.LineBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableCellRenderer;
 
 /**
  * Manages the GUI for the Student Management System, allowing users to add, update, and delete student records.
@@ -37,6 +59,7 @@ public class ManagementView {
 
 	// Table to display student records
 	static JTable table;
+	static StudentTableModel studentModel;
 
 	// Input fields for student details
 	static JTextField nameField;
@@ -48,14 +71,47 @@ public class ManagementView {
 	static JComboBox<String> genderSelectionBox;
 	static JComboBox<String> courseSelectionBox;
 
+	// Runs the results of database operations on the event dispatch thread
+	private static final Executor EDT = SwingUtilities::invokeLater;
+
+	// The components whose texts follow the selected language
+	private final LocalizedComponents texts = new LocalizedComponents();
+
+	// How long to wait after the user stops typing before searching, in milliseconds
+	private static final int SEARCH_DELAY = 150;
+
+	private JTextField searchField;
+
+	// The names of all the students, null until read. Only used on the event dispatch thread
+	private StudentSearchIndex searchIndex;
+
+	// Cells whose edits are being written, and cells whose edits couldn't be written
+	private static final Color PENDING_EDIT_COLOR = new Color(255, 245, 200);
+	private static final Color FAILED_EDIT_COLOR = new Color(255, 210, 210);
+
+	// The edits made in the table, written in the background a batch per transaction
+	private final WriteBehindBuffer editBuffer = new WriteBehindBuffer(
+			edits -> StudentService.getRepository().updateStudentsFields(edits), WriteBehindBuffer.DEFAULT_FLUSH_DELAY,
+			WriteBehindBuffer.DEFAULT_MAX_PENDING);
+
+	private JLabel editStatusLabel;
+
 	/**
 	 * Launch the application.
 	 */
 	public static void main(String[] args) {
+		open(null);
+	}
+
+	/**
+	 * Launch the application, showing the students already being read.
+	 *
+	 * @param firstRead - The first page and index of the students, null to read them once the window is built
+	 */
+	public static void open(final StudentTableModel.FirstRead firstRead) {
 		EventQueue.invokeLater(() -> {
-			Translator.getMessagesFromXML(); // Load language translations
 			try {
-				ManagementView window = new ManagementView();
+				ManagementView window = new ManagementView(firstRead);
 				window.managementFrame.setVisible(true);
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -67,18 +123,382 @@ public class ManagementView {
 	 * Initialize the ManagementView.
 	 */
 	public ManagementView() {
+		this(null);
+	}
+
+	/**
+	 * Initialize the ManagementView, showing the students already being read.
+	 *
+	 * @param firstRead - The first page and index of the students, null to read them once the window is built
+	 */
+	public ManagementView(final StudentTableModel.FirstRead firstRead) {
+		final long buildStart = System.nanoTime();
 		initialize();
 		table.clearSelection(); // Clear table selection to avoid update issues
 		managementFrame.setVisible(true);
-		DBHandler.updateStudents(); // Populate table with student data
+		StartupTimings.record("buildManagementFrame", buildStart, System.nanoTime());
+
+		reportWhenUsable();
+		if (firstRead == null) {
+			refreshStudents(); // Populate table with student data
+		} else {
+			studentModel.show(firstRead);
+		}
+		readSearchIndex();
+	}
+
+	/**
+	 * Reads the names of all the students in the background, then searches for what has been typed so far.
+	 */
+	private void readSearchIndex() {
+		StudentService.readSearchIndex().thenAcceptAsync(index -> {
+			if (index != null) {
+				searchIndex = index;
+				search();
+			}
+		}, EDT);
+	}
+
+	/**
+	 * Lets the user choose the criteria the students shown have to meet.
+	 */
+	private void chooseFilter() {
+		// The courses and faculties are read in the background, the dialog opens once they are there
+		StudentService.getCourses().thenAcceptBothAsync(StudentService.getFaculties(), (courses, faculties) -> {
+			final StudentFilter filter = StudentFilterDialog.choose(managementFrame, studentModel.getFilter(), courses,
+					faculties);
+			if (filter == null) return;
+
+			table.clearSelection();
+			studentModel.setFilter(filter);
+			texts.relabel(); // The filter button tells whether a filter is on
+		}, EDT);
+	}
+
+	/**
+	 * Shows the students matching the search field, or all of them if it is empty.
+	 */
+	private void search() {
+		final String query = searchField.getText().trim();
+		if (query.isEmpty()) {
+			studentModel.clearSearch();
+		} else if (searchIndex != null) {
+			table.clearSelection();
+			studentModel.showSearchResults(searchIndex.search(query, StudentSearchIndex.DEFAULT_LIMIT));
+		}
+	}
+
+	/**
+	 * Records the startup as finished once the first page of students is shown, which is when the window is usable.
+	 */
+	private void reportWhenUsable() {
+		studentModel.addTableModelListener(new TableModelListener() {
+			@Override
+			public void tableChanged(TableModelEvent e) {
+				if (studentModel.getRowCount() > 0 && studentModel.getStudentId(0) == -1) return;
+
+				studentModel.removeTableModelListener(this);
+				StartupTimings.reached("studentsShown");
+				showEditStatus();
+			}
+		});
 	}
 
 	/**
 	 * Updates the list of courses in the course selection dropdown.
 	 */
 	private void updateCourses() {
-		DefaultComboBoxModel<String> courses = new DefaultComboBoxModel<>(DBHandler.getCourses());
-		courseSelectionBox.setModel(courses);
+		StudentService.getCourses().thenAcceptAsync(
+				courses -> courseSelectionBox.setModel(new DefaultComboBoxModel<>(courses)), EDT);
+	}
+
+	/**
+	 * Brings the table up to date in the background, only the visible pages of students are read.
+	 */
+	private void refreshStudents() {
+		// The pending edits are written first, so the rows read back have them
+		editBuffer.flush().whenCompleteAsync((ignored, exception) -> studentModel.refresh(), EDT);
+	}
+
+	/**
+	 * Shows how many edits are being written and how many couldn't be, with the stats as tooltip.
+	 */
+	private void showEditStatus() {
+		final WriteBehindStats stats = editBuffer.getStats();
+		if (stats.getFailed() > 0) {
+			editStatusLabel.setText(String.format(Translator.getValue(Messages.editsFailed), stats.getFailed()));
+			editStatusLabel.setForeground(Color.RED);
+		} else if (stats.getPending() > 0) {
+			editStatusLabel.setText(String.format(Translator.getValue(Messages.editsPending), stats.getPending()));
+			editStatusLabel.setForeground(Color.DARK_GRAY);
+		} else {
+			editStatusLabel.setText(Translator.getValue(Messages.editsSaved));
+			editStatusLabel.setForeground(Color.DARK_GRAY);
+		}
+		editStatusLabel.setToolTipText(getStatsText(stats));
+	}
+
+	/**
+	 * @return The write-behind stats, the connection pool's usage when the students are in the database and the
+	 *         startup timings, one per line of a tooltip
+	 */
+	private static String getStatsText(WriteBehindStats stats) {
+		StringBuilder text = new StringBuilder("<html>").append(stats);
+		if (StudentService.getRepository() instanceof JdbcStudentRepository) {
+			text.append("<br>").append(DBHandler.getPoolStats());
+		}
+		final String timings = StartupTimings.report();
+		if (!timings.isEmpty()) {
+			text.append("<br>").append(timings.replace(System.lineSeparator(), "<br>"));
+		}
+		return text.append("</html>").toString();
+	}
+
+	/**
+	 * Lets the user write the failed edits again, or discard them and show the students as they are stored.
+	 */
+	private void resolveFailedEdits() {
+		if (editBuffer.getFailedCount() == 0) return;
+
+		final int choice = JOptionPane.showConfirmDialog(managementFrame,
+				Translator.getValue(Messages.retryFailedEdits), Translator.getValue(Messages.sms),
+				JOptionPane.YES_NO_CANCEL_OPTION);
+		if (choice == JOptionPane.YES_OPTION) {
+			editBuffer.retryFailed();
+		} else if (choice == JOptionPane.NO_OPTION) {
+			editBuffer.discardFailed();
+			table.clearSelection();
+			studentModel.reload();
+		}
+	}
+
+	/**
+	 * Closes the application once the pending edits have been written. If some couldn't be, the user chooses to
+	 * write them again, to exit without them or to stay.
+	 */
+	private void exit() {
+		close(Messages.exitWithFailedEdits, () -> System.exit(0));
+	}
+
+	/**
+	 * Closes the window once the pending edits have been written, and runs what comes next once the last of them
+	 * have been. If some couldn't be written, the user chooses to write them again, to go on without them or to stay.
+	 *
+	 * @param failedEditsKey - The question asked when some edits couldn't be written
+	 * @param then           - Run on the event dispatch thread once the edits are closed
+	 */
+	private void close(int failedEditsKey, Runnable then) {
+		editBuffer.flush().whenCompleteAsync((ignored, exception) -> {
+			final int failed = editBuffer.getFailedCount();
+			if (failed > 0) {
+				final int choice = JOptionPane.showConfirmDialog(managementFrame,
+						String.format(Translator.getValue(failedEditsKey), failed), Translator.getValue(Messages.sms),
+						JOptionPane.YES_NO_CANCEL_OPTION);
+				if (choice == JOptionPane.YES_OPTION) {
+					editBuffer.retryFailed();
+					close(failedEditsKey, then);
+					return;
+				} else if (choice != JOptionPane.NO_OPTION) {
+					return;
+				}
+			}
+
+			managementFrame.dispose();
+			editBuffer.close().whenCompleteAsync((closed, closeException) -> then.run(), EDT);
+		}, EDT);
+	}
+
+	/**
+	 * Shows a message dialog over the management frame.
+	 */
+	private static void showMessage(int messageKey, int titleKey, int messageType) {
+		JOptionPane.showMessageDialog(managementFrame, Translator.getValue(messageKey), Translator.getValue(titleKey),
+				messageType);
+	}
+
+	/**
+	 * Deletes a faculty with its courses and their students in the background, then reports how many rows went.
+	 */
+	private void deleteFaculty(String faculty) {
+		StudentService.deleteFacultyCascade(faculty).thenAcceptAsync(report -> {
+			if (report == null) {
+				showMessage(Messages.somethingWrongTryAgain, Messages.error, JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			JOptionPane.showMessageDialog(managementFrame,
+					String.format(Translator.getValue(Messages.facultyDeletedCascade), report.getCourses(),
+							report.getStudents()),
+					Translator.getValue(Messages.success), JOptionPane.INFORMATION_MESSAGE);
+			updateCourses();
+			refreshStudents();
+		}, EDT);
+	}
+
+	/**
+	 * Deletes a course with its students in the background, then reports how many students went.
+	 */
+	private void deleteCourse(String course) {
+		StudentService.deleteCourseCascade(course).thenAcceptAsync(report -> {
+			if (report == null) {
+				showMessage(Messages.somethingWrongTryAgain, Messages.error, JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			JOptionPane.showMessageDialog(managementFrame,
+					String.format(Translator.getValue(Messages.courseDeletedCascade), report.getStudents()),
+					Translator.getValue(Messages.success), JOptionPane.INFORMATION_MESSAGE);
+			updateCourses();
+			refreshStudents();
+		}, EDT);
+	}
+
+	/**
+	 * Adds the student typed in the input fields in the background.
+	 */
+	private void addStudent() {
+		if (nameField.getText().isEmpty() || surnameField.getText().isEmpty() || ageField.getText().isEmpty()
+				|| startedDateField.getText().isEmpty()) {
+			JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.fillEmptyFields),
+					Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
+		} else {
+			Student student = new Student();
+			try {
+				SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+				format.setLenient(false);
+				student.setStarted(format.parse(startedDateField.getText()));
+			} catch (ParseException ex) {
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.dateFormatError),
+						Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			try {
+				student.setName(nameField.getText());
+				student.setSurname(surnameField.getText());
+				student.setAge(Integer.parseInt(ageField.getText()));
+				student.setGender(Gender.valueOf(genderSelectionBox.getSelectedItem().toString()));
+				student.setCourse(courseSelectionBox.getSelectedItem().toString());
+			} catch (RuntimeException ex) {
+				showMessage(Messages.somethingWrongInput, Messages.error, JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			StudentService.addStudent(student).thenAcceptAsync(added -> {
+				if (added) {
+					if (searchIndex != null) {
+						searchIndex.put(student.getId(), student.getName(), student.getSurname());
+					}
+					refreshStudents();
+					showMessage(Messages.studentSuccessfullyAdded, Messages.success, JOptionPane.INFORMATION_MESSAGE);
+				} else {
+					showMessage(Messages.somethingWrongInput, Messages.error, JOptionPane.ERROR_MESSAGE);
+				}
+			}, EDT);
+		}
+	}
+
+	/**
+	 * Lets the user pick a CSV file and imports it in the background.
+	 */
+	private void importCsv(CsvImporter.Target target) {
+		JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setFileFilter(new FileNameExtensionFilter("CSV", "csv"));
+		if (fileChooser.showOpenDialog(managementFrame) != JFileChooser.APPROVE_OPTION) return;
+
+		Path input = fileChooser.getSelectedFile().toPath();
+		Path errorFile = input.resolveSibling(input.getFileName() + ".errors.csv");
+
+		StudentService.importCsv(target, input, errorFile).whenCompleteAsync((report, exception) -> {
+			if (exception != null) {
+				exception.printStackTrace();
+				showMessage(Messages.importFailed, Messages.error, JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			String message = String.format(Translator.getValue(Messages.importFinished), report.getRowsWritten(),
+					report.getRowsRejected(), report.getRowsPerSecond());
+			if (report.getRowsRejected() > 0) {
+				message += " " + String.format(Translator.getValue(Messages.importRejectedRows), errorFile);
+			}
+			JOptionPane.showMessageDialog(managementFrame, message, Translator.getValue(Messages.sms),
+					JOptionPane.INFORMATION_MESSAGE);
+
+			updateCourses();
+			refreshStudents();
+		}, EDT);
+	}
+
+	/**
+	 * Checks the attendee counters against the students in the background and reports how many were corrected.
+	 */
+	private void repairAttendees() {
+		StudentService.repairAttendees().thenAcceptAsync(corrected -> {
+			if (corrected < 0) {
+				showMessage(Messages.somethingWrongUnexpected, Messages.sms, JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			JOptionPane.showMessageDialog(managementFrame,
+					String.format(Translator.getValue(Messages.countersRepaired), corrected),
+					Translator.getValue(Messages.sms), JOptionPane.INFORMATION_MESSAGE);
+		}, EDT);
+	}
+
+	/**
+	 * Counts all the students by course and by gender in the background, in a columnar store, and shows the counts
+	 * with the average age.
+	 */
+	private void showStatistics() {
+		StudentService.readStudentStore().thenAcceptAsync(store -> {
+			if (store == null) {
+				showMessage(Messages.somethingWrongUnexpected, Messages.sms, JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+
+			StringBuilder text = new StringBuilder(
+					String.format(Translator.getValue(Messages.statisticsSummary), store.size(), store.averageAge()));
+			text.append(System.lineSeparator()).append(System.lineSeparator())
+					.append(Translator.getValue(Messages.statisticsByCourse));
+			for (Map.Entry<String, Integer> course : store.countByCourse().entrySet()) {
+				text.append(System.lineSeparator()).append(course.getKey()).append(": ").append(course.getValue());
+			}
+			text.append(System.lineSeparator()).append(System.lineSeparator())
+					.append(Translator.getValue(Messages.statisticsByGender));
+			for (Map.Entry<Gender, Integer> gender : store.countByGender().entrySet()) {
+				final String name = gender.getKey() == null ? Translator.getValue(Messages.noGender)
+						: gender.getKey().name();
+				text.append(System.lineSeparator()).append(name).append(": ").append(gender.getValue());
+			}
+
+			JOptionPane.showMessageDialog(managementFrame, text.toString(), Translator.getValue(Messages.statistics),
+					JOptionPane.INFORMATION_MESSAGE);
+		}, EDT);
+	}
+
+	/**
+	 * Lets the user pick a file and exports a table to it in the background. The
+	 * format follows the file's extension(.csv, .json, optionally followed by .gz).
+	 */
+	private void exportTable(String tableName) {
+		JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setFileFilter(new FileNameExtensionFilter("CSV, JSON", "csv", "json", "gz"));
+		fileChooser.setSelectedFile(new File(tableName + ".csv"));
+		if (fileChooser.showSaveDialog(managementFrame) != JFileChooser.APPROVE_OPTION) return;
+
+		StudentService.exportTable(tableName, fileChooser.getSelectedFile().toPath())
+				.whenCompleteAsync((report, exception) -> {
+					if (exception != null) {
+						exception.printStackTrace();
+						showMessage(Messages.exportFailed, Messages.error, JOptionPane.ERROR_MESSAGE);
+						return;
+					}
+
+					JOptionPane.showMessageDialog(managementFrame,
+							String.format(Translator.getValue(Messages.exportFinished), report.getRowsWritten(),
+									report.getRowsPerSecond()),
+							Translator.getValue(Messages.sms), JOptionPane.INFORMATION_MESSAGE);
+				}, EDT);
 	}
 
 	/**
@@ -87,12 +507,75 @@ public class ManagementView {
 	private void initialize() {
 		// Set up the main frame
 		managementFrame = new JFrame();
-		managementFrame.setBounds(100, 100, 860, 540);
+		managementFrame.setBounds(100, 100, 860, 565);
 		managementFrame.setResizable(false);
-		managementFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		managementFrame.setTitle(Translator.getValue("sms"));
+		managementFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		managementFrame.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				exit();
+			}
+		});
+		texts.bind(managementFrame, Messages.sms, JFrame::setTitle);
+		texts.attach(managementFrame);
 		managementFrame.getContentPane().setLayout(null);
 
+		// Menu with the bulk data operations
+		JMenuBar menuBar = new JMenuBar();
+		managementFrame.setJMenuBar(menuBar);
+
+		JMenu dataMenu = texts.menu(Messages.dataMenu);
+		dataMenu.setName("dataMenu");
+		menuBar.add(dataMenu);
+
+		JMenuItem importStudentsItem = texts.menuItem(Messages.importStudents);
+		importStudentsItem.addActionListener(e -> importCsv(CsvImporter.Target.STUDENTS));
+		dataMenu.add(importStudentsItem);
+
+		JMenuItem importCoursesItem = texts.menuItem(Messages.importCourses);
+		importCoursesItem.addActionListener(e -> importCsv(CsvImporter.Target.COURSES));
+		dataMenu.add(importCoursesItem);
+
+		JMenuItem importFacultiesItem = texts.menuItem(Messages.importFaculties);
+		importFacultiesItem.addActionListener(e -> importCsv(CsvImporter.Target.FACULTIES));
+		dataMenu.add(importFacultiesItem);
+		dataMenu.addSeparator();
+
+		JMenuItem exportStudentsItem = texts.menuItem(Messages.exportStudents);
+		exportStudentsItem.addActionListener(e -> exportTable(DBHandler.getStudentsTable()));
+		dataMenu.add(exportStudentsItem);
+
+		JMenuItem exportCoursesItem = texts.menuItem(Messages.exportCourses);
+		exportCoursesItem.addActionListener(e -> exportTable(DBHandler.getCoursesTable()));
+		dataMenu.add(exportCoursesItem);
+
+		JMenuItem exportFacultiesItem = texts.menuItem(Messages.exportFaculties);
+		exportFacultiesItem.addActionListener(e -> exportTable(DBHandler.getFacultiesTable()));
+		dataMenu.add(exportFacultiesItem);
+		dataMenu.addSeparator();
+
+		JMenuItem repairCountersItem = texts.menuItem(Messages.repairCounters);
+		repairCountersItem.addActionListener(e -> repairAttendees());
+		dataMenu.add(repairCountersItem);
+
+		JMenuItem statisticsItem = texts.menuItem(Messages.statistics);
+		statisticsItem.addActionListener(e -> showStatistics());
+		dataMenu.add(statisticsItem);
+
+		// Menu switching the language, the texts are changed in place
+		JMenu languageMenu = texts.menu(Messages.changeLanguage);
+		languageMenu.setName("languageMenu");
+		menuBar.add(languageMenu);
+
+		ButtonGroup languageGroup = new ButtonGroup();
+		for (Language language : Language.values()) {
+			JRadioButtonMenuItem languageItem = new JRadioButtonMenuItem(language.toString(),
+					language == Translator.getLanguage());
+			languageItem.addActionListener(e -> Translator.setLanguage(language));
+			languageGroup.add(languageItem);
+			languageMenu.add(languageItem);
+		}
+
 		// Student input panel
 		JPanel studentPanel = new JPanel();
 		studentPanel.setBorder(new LineBorder(SystemColor.textHighlight, 5));
@@ -101,7 +584,7 @@ public class ManagementView {
 		managementFrame.getContentPane().add(studentPanel);
 
 		// Name field
-		JLabel nameText = new JLabel(Translator.getValue("name"));
+		JLabel nameText = texts.label(Messages.name);
 		nameText.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		nameText.setBounds(10, 22, 67, 19);
 		studentPanel.add(nameText);
@@ -113,7 +596,7 @@ public class ManagementView {
 		studentPanel.add(nameField);
 
 		// Surname field
-		JLabel surnameText = new JLabel(Translator.getValue("surname"));
+		JLabel surnameText = texts.label(Messages.surname);
 		surnameText.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		surnameText.setBounds(10, 54, 67, 19);
 		studentPanel.add(surnameText);
@@ -125,7 +608,7 @@ public class ManagementView {
 		studentPanel.add(surnameField);
 
 		// Age field
-		JLabel ageText = new JLabel(Translator.getValue("age"));
+		JLabel ageText = texts.label(Messages.age);
 		ageText.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		ageText.setBounds(10, 86, 67, 19);
 		studentPanel.add(ageText);
@@ -137,7 +620,7 @@ public class ManagementView {
 		studentPanel.add(ageField);
 
 		// Gender selection
-		JLabel genderText = new JLabel(Translator.getValue("gender"));
+		JLabel genderText = texts.label(Messages.gender);
 		genderText.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		genderText.setBounds(10, 118, 67, 19);
 		studentPanel.add(genderText);
@@ -152,7 +635,7 @@ public class ManagementView {
 		studentPanel.add(genderSelectionBox);
 
 		// Course selection
-		JLabel courseText = new JLabel(Translator.getValue("course"));
+		JLabel courseText = texts.label(Messages.course);
 		courseText.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		courseText.setBounds(10, 150, 67, 19);
 		studentPanel.add(courseText);
@@ -164,7 +647,7 @@ public class ManagementView {
 		studentPanel.add(courseSelectionBox);
 
 		// Start date field
-		JLabel startedDateText = new JLabel(Translator.getValue("started"));
+		JLabel startedDateText = texts.label(Messages.started);
 		startedDateText.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		startedDateText.setBounds(10, 182, 67, 19);
 		studentPanel.add(startedDateText);
@@ -173,167 +656,152 @@ public class ManagementView {
 		startedDateField.setName("startedDateField");
 		startedDateField.setBounds(85, 179, 143, 22);
 		startedDateField.setColumns(10);
-		startedDateField.setText(Translator.getValue("dateFormat"));
+		// The hint follows the language, unless a date has been typed over it
+		texts.bind(startedDateField, Messages.dateFormat, new BiConsumer<JTextField, String>() {
+			private String hint = "";
+
+			@Override
+			public void accept(JTextField field, String text) {
+				if (field.getText().equals(hint)) field.setText(text);
+				hint = text;
+			}
+		});
 		studentPanel.add(startedDateField);
 
 		// Add Faculty button
-		JButton addFacultyButton = new JButton(Translator.getValue("addFaculty"));
+		JButton addFacultyButton = texts.button(Messages.addFaculty);
 		addFacultyButton.setName("addFacultyButton");
 		addFacultyButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		addFacultyButton.setBounds(10, 220, 220, 30);
 		addFacultyButton.addActionListener(e -> {
-			String facultyName = JOptionPane.showInputDialog(managementFrame, Translator.getValue("typeNameFaculty"));
+			String facultyName = JOptionPane.showInputDialog(managementFrame,
+					Translator.getValue(Messages.typeNameFaculty));
 			if (facultyName == null || facultyName.isEmpty()) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("emptyNameFaculty"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-			} else if (DBHandler.checkIfElementExists(DBHandler.getFacultiesTable(), facultyName)) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("facultyAlreadyExists"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.emptyNameFaculty),
+						Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 			} else {
-				if (DBHandler.addFaculty(facultyName)) {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("facultySuccessfullyAdded"),
-							Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-				} else {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("facultyNotAdded"),
-							Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-				}
+				// The unique index rejects duplicates, the check afterwards only picks the message
+				StudentService.addFaculty(facultyName).thenCompose(added -> added
+						? CompletableFuture.completedFuture(Messages.facultySuccessfullyAdded)
+						: StudentService.checkIfElementExists(DBHandler.getFacultiesTable(), facultyName)
+								.thenApply(exists -> exists ? Messages.facultyAlreadyExists : Messages.facultyNotAdded))
+						.thenAcceptAsync(messageKey -> {
+							if (messageKey == Messages.facultySuccessfullyAdded) {
+								showMessage(messageKey, Messages.success, JOptionPane.INFORMATION_MESSAGE);
+							} else {
+								showMessage(messageKey, Messages.error, JOptionPane.ERROR_MESSAGE);
+							}
+						}, EDT);
 			}
 		});
 		studentPanel.add(addFacultyButton);
 
 		// Add Course button
-		JButton addCourseButton = new JButton(Translator.getValue("addCourse"));
+		JButton addCourseButton = texts.button(Messages.addCourse);
 		addCourseButton.setName("addCourseButton");
 		addCourseButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		addCourseButton.setBounds(10, 260, 220, 30);
-		addCourseButton.addActionListener(e -> {
-			if (DBHandler.getFaculties().length == 0) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("cannotAddCourse"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+		addCourseButton.addActionListener(e -> StudentService.getFaculties().thenAcceptAsync(faculties -> {
+			if (faculties.length == 0) {
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.cannotAddCourse),
+						Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 				return;
 			}
 
-			String courseName = JOptionPane.showInputDialog(managementFrame, Translator.getValue("typeNameCourse"));
+			String courseName = JOptionPane.showInputDialog(managementFrame,
+					Translator.getValue(Messages.typeNameCourse));
 			if (courseName == null || courseName.isEmpty()) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("emptyNameCourse"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.emptyNameCourse),
+						Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 				return;
 			}
 
-			String[] faculties = DBHandler.getFaculties();
-			String faculty = (String) JOptionPane.showInputDialog(null, Translator.getValue("chooseFaculty"),
-					Translator.getValue("sms"), JOptionPane.QUESTION_MESSAGE, null, faculties, faculties[0]);
+			String faculty = (String) JOptionPane.showInputDialog(null, Translator.getValue(Messages.chooseFaculty),
+					Translator.getValue(Messages.sms), JOptionPane.QUESTION_MESSAGE, null, faculties, faculties[0]);
 			if (faculty == null || faculty.isEmpty()) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseNotAddedNoFaculty"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.courseNotAddedNoFaculty),
+						Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 				return;
 			}
 
 			int duration;
 			try {
 				duration = Integer.parseInt(JOptionPane.showInputDialog(managementFrame,
-						Translator.getValue("courseTypeDuration")));
+						Translator.getValue(Messages.courseTypeDuration)));
 			} catch (NumberFormatException ex) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseNotAddedNoDuration"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.courseNotAddedNoDuration),
+						Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 				return;
 			}
 
-			if (DBHandler.checkIfElementExists(DBHandler.getCoursesTable(), courseName)) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseAlreadyExists"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-			} else if (DBHandler.addCourse(courseName, faculty, duration)) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseSuccessfullyAdded"),
-						Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-				updateCourses();
-			} else {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseNotAdded"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-			}
-		});
+			// The unique index rejects duplicates, the check afterwards only picks the message
+			StudentService.addCourse(courseName, faculty, duration).thenCompose(added -> added
+					? CompletableFuture.completedFuture(Messages.courseSuccessfullyAdded)
+					: StudentService.checkIfElementExists(DBHandler.getCoursesTable(), courseName)
+							.thenApply(exists -> exists ? Messages.courseAlreadyExists : Messages.courseNotAdded))
+					.thenAcceptAsync(messageKey -> {
+						if (messageKey == Messages.courseSuccessfullyAdded) {
+							showMessage(messageKey, Messages.success, JOptionPane.INFORMATION_MESSAGE);
+							updateCourses();
+						} else {
+							showMessage(messageKey, Messages.error, JOptionPane.ERROR_MESSAGE);
+						}
+					}, EDT);
+		}, EDT));
 		studentPanel.add(addCourseButton);
 
 		// Delete Faculty button
-		JButton deleteFacultyButton = new JButton(Translator.getValue("deleteFaculty"));
+		JButton deleteFacultyButton = texts.button(Messages.deleteFaculty);
 		deleteFacultyButton.setName("deleteFacultyButton");
 		deleteFacultyButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		deleteFacultyButton.setBounds(10, 300, 220, 30);
 		deleteFacultyButton.addActionListener(e -> {
 			table.clearSelection();
-			String faculty = (String) JOptionPane.showInputDialog(null, Translator.getValue("sms"),
-					Translator.getValue("chooseFacultyDelete"), JOptionPane.QUESTION_MESSAGE, null,
-					DBHandler.getFaculties(), DBHandler.getFaculties()[0]);
-			if (faculty == null) return;
-
-			if (DBHandler.getNumberOfCourses(faculty) > 0) {
-				if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue("deleteFacultyWithCourses"),
-						Translator.getValue("sms"), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-					if (DBHandler.deleteFacultyCourses(faculty)) {
-						JOptionPane.showMessageDialog(managementFrame,
-								Translator.getValue("coursesFromFacultySuccessfullyDeleted"),
-								Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-						if (DBHandler.deleteFaculty(faculty)) {
-							JOptionPane.showMessageDialog(managementFrame, Translator.getValue("facultyDeleted"),
-									Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-						} else {
-							JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongTryAgain"),
-									Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-						}
-					} else {
-						JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongTryAgain"),
-								Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+			StudentService.getFaculties().thenAcceptAsync(faculties -> {
+				if (faculties.length == 0) return;
+
+				String faculty = (String) JOptionPane.showInputDialog(null, Translator.getValue(Messages.sms),
+						Translator.getValue(Messages.chooseFacultyDelete), JOptionPane.QUESTION_MESSAGE, null,
+						faculties, faculties[0]);
+				if (faculty == null) return;
+
+				// The courses and their students go with the faculty, in one transaction
+				StudentService.getNumberOfCourses(faculty).thenAcceptAsync(courses -> {
+					if (courses == 0 || JOptionPane.showConfirmDialog(managementFrame,
+							Translator.getValue(Messages.deleteFacultyWithCourses), Translator.getValue(Messages.sms),
+							JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+						deleteFaculty(faculty);
 					}
-				}
-			} else if (DBHandler.deleteFaculty(faculty)) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("facultyDeleted"),
-						Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-			} else {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongTryAgain"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-			}
-			updateCourses();
+				}, EDT);
+			}, EDT);
 		});
 		studentPanel.add(deleteFacultyButton);
 
 		// Delete Course button
-		JButton deleteCourseButton = new JButton(Translator.getValue("deleteCourse"));
+		JButton deleteCourseButton = texts.button(Messages.deleteCourse);
 		deleteCourseButton.setName("deleteCourseButton");
 		deleteCourseButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		deleteCourseButton.setBounds(10, 340, 220, 30);
 		deleteCourseButton.addActionListener(e -> {
 			table.clearSelection();
-			String course = (String) JOptionPane.showInputDialog(null, Translator.getValue("sms"),
-					Translator.getValue("chooseCourseDelete"), JOptionPane.QUESTION_MESSAGE, null,
-					DBHandler.getCourses(), DBHandler.getCourses()[0]);
-			if (course == null) return;
-
-			if (DBHandler.getNumberOfAttendees(DBHandler.getCoursesTable(), course) > 0) {
-				if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue("deleteCourseWithStudents"),
-						Translator.getValue("deleteCourse"), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-					if (DBHandler.deleteCourseAttendees(course)) {
-						JOptionPane.showMessageDialog(managementFrame,
-								Translator.getValue("studentsAttendingSuccessfullyDeleted"),
-								Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-						if (DBHandler.deleteCourse(course)) {
-							JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseDeleted"),
-									Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-						} else {
-							JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongTryAgain"),
-									Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-						}
-					} else {
-						JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongTryAgain"),
-								Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+			StudentService.getCourses().thenAcceptAsync(courses -> {
+				if (courses.length == 0) return;
+
+				String course = (String) JOptionPane.showInputDialog(null, Translator.getValue(Messages.sms),
+						Translator.getValue(Messages.chooseCourseDelete), JOptionPane.QUESTION_MESSAGE, null, courses,
+						courses[0]);
+				if (course == null) return;
+
+				// The students go with the course, in one transaction
+				StudentService.getNumberOfAttendees(DBHandler.getCoursesTable(), course).thenAcceptAsync(attendees -> {
+					if (attendees == 0 || JOptionPane.showConfirmDialog(managementFrame,
+							Translator.getValue(Messages.deleteCourseWithStudents),
+							Translator.getValue(Messages.deleteCourse),
+							JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+						deleteCourse(course);
 					}
-				}
-			} else if (DBHandler.deleteCourse(course)) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("courseDeleted"),
-						Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
-			} else {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongTryAgain"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-			}
-			updateCourses();
+				}, EDT);
+			}, EDT);
 		});
 		studentPanel.add(deleteCourseButton);
 
@@ -344,32 +812,107 @@ public class ManagementView {
 		tablePanel.setLayout(null);
 		managementFrame.getContentPane().add(tablePanel);
 
+		JLabel searchText = texts.label(Messages.searchText);
+		searchText.setFont(new Font("Tahoma", Font.PLAIN, 14));
+		searchText.setBounds(10, 10, 120, 24);
+		tablePanel.add(searchText);
+
+		searchField = new JTextField();
+		searchField.setName("searchField");
+		searchField.setBounds(130, 10, 315, 24);
+		tablePanel.add(searchField);
+
+		// The filter is applied by the database, the table only receives the students meeting it
+		JButton filterButton = new JButton();
+		filterButton.setName("filterButton");
+		texts.bind(filterButton, Messages.filterButton, (button, text) -> {
+			if (studentModel == null || studentModel.getFilter().isEmpty()) {
+				button.setText(text);
+			} else {
+				button.setText(Translator.getValue(Messages.filterActive));
+			}
+		});
+		filterButton.setBounds(455, 10, 110, 24);
+		filterButton.addActionListener(e -> chooseFilter());
+		tablePanel.add(filterButton);
+
+		// Search once the user pauses typing, not on every key
+		Timer searchTimer = new Timer(SEARCH_DELAY, e -> search());
+		searchTimer.setRepeats(false);
+		searchField.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+		});
+
 		JScrollPane tableScrollPane = new JScrollPane();
-		tableScrollPane.setBounds(10, 10, 555, 375);
+		tableScrollPane.setBounds(10, 40, 555, 320);
 		tablePanel.add(tableScrollPane);
 
 		table = new JTable();
 		tableScrollPane.setViewportView(table);
 		table.setColumnSelectionAllowed(true);
-		table.setModel(new DefaultTableModel(new Object[][]{},
-				new String[]{Translator.getValue("ID"), Translator.getValue("name"), Translator.getValue("surname"),
-						Translator.getValue("age"), Translator.getValue("gender"), Translator.getValue("course"),
-						Translator.getValue("started"), Translator.getValue("graduation")}) {
-			boolean[] columnEditables = new boolean[]{false, true, true, true, true, false, false, false};
+		studentModel = new StudentTableModel();
+		table.setModel(studentModel);
+
+		// Sorting is done by the database, the table only ever holds the pages it shows
+		table.setRowSorter(new StudentRowSorter(studentModel));
+		texts.headers(table);
+
+		// Keep the search index up to date with the changes made by other clients
+		studentModel.setDeltaListener(delta -> {
+			if (searchIndex == null || delta.isEmpty()) return;
 
+			if (!searchIndex.apply(delta)) {
+				readSearchIndex();
+			} else if (studentModel.isSearching()) {
+				search();
+			}
+		});
+
+		// Tint the cells whose edits haven't been written
+		table.setDefaultRenderer(String.class, new EditStateRenderer(SwingConstants.LEADING));
+		table.setDefaultRenderer(Integer.class, new EditStateRenderer(SwingConstants.TRAILING));
+
+		editStatusLabel = new JLabel();
+		editStatusLabel.setName("editStatusLabel");
+		editStatusLabel.setFont(new Font("Tahoma", Font.PLAIN, 12));
+		editStatusLabel.setBounds(10, 364, 555, 22);
+		texts.bind(editStatusLabel, Messages.editsSaved, (label, text) -> showEditStatus());
+		editStatusLabel.addMouseListener(new MouseAdapter() {
 			@Override
-			public boolean isCellEditable(int row, int column) {
-				return columnEditables[column];
+			public void mouseClicked(MouseEvent e) {
+				resolveFailedEdits();
 			}
 		});
+		tablePanel.add(editStatusLabel);
 
-		TableRowSorter<DefaultTableModel> tableSorter = new TableRowSorter<>((DefaultTableModel) table.getModel());
-		table.setRowSorter(tableSorter);
+		editBuffer.addListener(() -> EDT.execute(() -> {
+			showEditStatus();
+			table.repaint();
+		}));
 
-		table.getModel().addTableModelListener(e -> {
-			if (!DBHandler.updateDatabase()) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("checkInput"),
-						Translator.getValue("sms"), JOptionPane.ERROR_MESSAGE);
+		studentModel.addTableModelListener(e -> {
+			// Only the user's edits are written back, loading and patching the pages writes nothing
+			if (!(e instanceof StudentTableModel.StudentEditEvent)) return;
+
+			final StudentTableModel.StudentEditEvent edit = (StudentTableModel.StudentEditEvent) e;
+			editBuffer.put(edit.getStudentId(), edit.getColumn(), edit.getValue());
+
+			if (searchIndex != null && (edit.getColumn() == 1 || edit.getColumn() == 2)) {
+				searchIndex.put(edit.getStudentId(), studentModel.getValueAt(edit.getFirstRow(), 1).toString(),
+						studentModel.getValueAt(edit.getFirstRow(), 2).toString());
 			}
 		});
 
@@ -382,97 +925,113 @@ public class ManagementView {
 		managementFrame.getContentPane().add(buttonsPanel);
 
 		// Add button
-		JButton addButton = new JButton(Translator.getValue("add"));
+		JButton addButton = texts.button(Messages.add);
 		addButton.setName("addButton");
 		addButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		addButton.addActionListener(e -> {
 			table.clearSelection();
-			if (DBHandler.getFaculties().length == 0) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("cannotAddStudent"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-				return;
-			}
-
-			if (nameField.getText().isEmpty() || surnameField.getText().isEmpty() || ageField.getText().isEmpty()
-					|| startedDateField.getText().isEmpty()) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("fillEmptyFields"),
-						Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-			} else {
-				try {
-					SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-					format.setLenient(false);
-					format.parse(startedDateField.getText());
-				} catch (ParseException ex) {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("dateFormatError"),
-							Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
-					return;
-				}
-
-				if (DBHandler.addStudent()) {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("studentSuccessfullyAdded"),
-							Translator.getValue("success"), JOptionPane.INFORMATION_MESSAGE);
+			StudentService.getFaculties().thenAcceptAsync(faculties -> {
+				if (faculties.length == 0) {
+					JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.cannotAddStudent),
+							Translator.getValue(Messages.error), JOptionPane.ERROR_MESSAGE);
 				} else {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongInput"),
-							Translator.getValue("error"), JOptionPane.ERROR_MESSAGE);
+					addStudent();
 				}
-			}
+			}, EDT);
 		});
 		buttonsPanel.add(addButton);
 
 		// Update button
-		JButton updateButton = new JButton(Translator.getValue("update"));
+		JButton updateButton = texts.button(Messages.update);
 		updateButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		updateButton.addActionListener(e -> {
 			table.clearSelection();
-			DBHandler.updateStudents();
+			refreshStudents();
 		});
 		buttonsPanel.add(updateButton);
 
 		// Delete button
-		JButton deleteButton = new JButton(Translator.getValue("delete"));
+		JButton deleteButton = texts.button(Messages.delete);
 		deleteButton.setName("deleteButton");
 		deleteButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		deleteButton.addActionListener(e -> {
-			if (table.getSelectedRow() == -1) {
-				JOptionPane.showMessageDialog(managementFrame, Translator.getValue("noStudentSelected"),
-						Translator.getValue("sms"), JOptionPane.ERROR_MESSAGE);
-			} else if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue("warningDelete"),
-					Translator.getValue("sms"), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-				if (DBHandler.deleteStudent()) {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("studentSuccessfullyDeleted"),
-							Translator.getValue("sms"), JOptionPane.INFORMATION_MESSAGE);
-				} else {
-					JOptionPane.showMessageDialog(managementFrame, Translator.getValue("somethingWrongUnexpected"),
-							Translator.getValue("sms"), JOptionPane.ERROR_MESSAGE);
-				}
+			if (table.getSelectedRow() == -1
+					|| studentModel.getStudentId(table.convertRowIndexToModel(table.getSelectedRow())) == -1) {
+				JOptionPane.showMessageDialog(managementFrame, Translator.getValue(Messages.noStudentSelected),
+						Translator.getValue(Messages.sms), JOptionPane.ERROR_MESSAGE);
+			} else if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue(Messages.warningDelete),
+					Translator.getValue(Messages.sms), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+				// Geting the ID of the student in the selected row
+				final int id = studentModel.getStudentId(table.convertRowIndexToModel(table.getSelectedRow()));
+				table.clearSelection();
+
+				StudentService.deleteStudent(id).thenAcceptAsync(deleted -> {
+					if (deleted) {
+						if (searchIndex != null) {
+							searchIndex.remove(id);
+						}
+						refreshStudents();
+						showMessage(Messages.studentSuccessfullyDeleted, Messages.sms, JOptionPane.INFORMATION_MESSAGE);
+					} else {
+						showMessage(Messages.somethingWrongUnexpected, Messages.sms, JOptionPane.ERROR_MESSAGE);
+					}
+				}, EDT);
 			}
 		});
 		buttonsPanel.add(deleteButton);
 
 		// Disconnect button
-		JButton disconnectButton = new JButton(Translator.getValue("disconnect"));
+		JButton disconnectButton = texts.button(Messages.disconnect);
 		disconnectButton.setName("disconnectButton");
 		disconnectButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		disconnectButton.addActionListener(e -> {
-			if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue("confirmDialog"),
-					Translator.getValue("sms"), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-				ConnectionView.main(null);
-				managementFrame.dispose();
+			if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue(Messages.confirmDialog),
+					Translator.getValue(Messages.sms), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+				// The connection window opens once the edits have gone to the repository they were made in
+				close(Messages.disconnectWithFailedEdits, () -> ConnectionView.main(null));
 			}
 		});
 		buttonsPanel.add(disconnectButton);
 
 		// Exit button
-		JButton exitButton = new JButton(Translator.getValue("exit"));
+		JButton exitButton = texts.button(Messages.exit);
 		exitButton.setName("exitButton");
 		exitButton.setFont(new Font("Tahoma", Font.PLAIN, 16));
 		exitButton.addActionListener(e -> {
-			if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue("confirmDialog"),
-					Translator.getValue("sms"), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-				managementFrame.dispose();
-				System.exit(0);
+			if (JOptionPane.showConfirmDialog(managementFrame, Translator.getValue(Messages.confirmDialog),
+					Translator.getValue(Messages.sms), JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+				exit();
 			}
 		});
 		buttonsPanel.add(exitButton);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Renders a cell with the background telling whether its edit is being written or couldn't be written.
+	 */
+	private class EditStateRenderer extends DefaultTableCellRenderer {
+		private static final long serialVersionUID = 1L;
+
+		EditStateRenderer(int alignment) {
+			setHorizontalAlignment(alignment);
+		}
+
+		@Override
+		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+				boolean hasFocus, int row, int column) {
+			super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+			if (isSelected) return this;
+
+			final int id = studentModel.getStudentId(table.convertRowIndexToModel(row));
+			final int modelColumn = table.convertColumnIndexToModel(column);
+			if (editBuffer.isFailed(id, modelColumn)) {
+				setBackground(FAILED_EDIT_COLOR);
+			} else if (editBuffer.isPending(id, modelColumn)) {
+				setBackground(PENDING_EDIT_COLOR);
+			} else {
+				setBackground(table.getBackground());
+			}
+			return this;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+<?xml version="1.0" encoding="UTF-8"?>
+
+<!--
+	Compiles Languages.xml into sms/Messages.java, a class holding one array of
+	messages per language and the index of every key as a constant. The build
+	fails if a key is missing a translation, is repeated or isn't a valid name
+-->
+<xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+	<xsl:output method="text" encoding="UTF-8" />
+
+	<xsl:variable name="languages" select="/translation/languageList/language" />
+	<xsl:variable name="keys" select="/translation/key" />
+
+	<xsl:template match="/">
+		<xsl:call-template name="validate" />
+
+		<xsl:text>package sms;
+
+/**
+ * The messages of every language, generated from Languages.xml at build time.
+ * Do not edit, change Languages.xml instead
+ */
+final class Messages {
+	/**
+	 * The languages, in the order of the arrays of messages
+	 */
+	static final String[] LANGUAGES = { </xsl:text>
+		<xsl:for-each select="$languages">
+			<xsl:if test="position() &gt; 1">, </xsl:if>
+			<xsl:text>"</xsl:text>
+			<xsl:value-of select="@lang" />
+			<xsl:text>"</xsl:text>
+		</xsl:for-each>
+		<xsl:text> };
+
+</xsl:text>
+		<xsl:for-each select="$keys">
+			<xsl:text>	static final int </xsl:text>
+			<xsl:value-of select="@value" />
+			<xsl:text> = </xsl:text>
+			<xsl:value-of select="position() - 1" />
+			<xsl:text>;
+</xsl:text>
+		</xsl:for-each>
+		<xsl:text>
+	/**
+	 * The keys, in the order of the messages
+	 */
+	static final String[] KEYS = {
+</xsl:text>
+		<xsl:for-each select="$keys">
+			<xsl:text>			"</xsl:text>
+			<xsl:value-of select="@value" />
+			<xsl:text>",
+</xsl:text>
+		</xsl:for-each>
+		<xsl:text>	};
+
+	/**
+	 * The messages, by language and then by key
+	 */
+	static final String[][] VALUES = {
+</xsl:text>
+		<xsl:for-each select="$languages">
+			<xsl:variable name="lang" select="@lang" />
+			<xsl:text>			{
+</xsl:text>
+			<xsl:for-each select="$keys">
+				<xsl:text>					"</xsl:text>
+				<xsl:call-template name="escape">
+					<xsl:with-param name="text" select="val[@lang = $lang]" />
+				</xsl:call-template>
+				<xsl:text>",
+</xsl:text>
+			</xsl:for-each>
+			<xsl:text>			},
+</xsl:text>
+		</xsl:for-each>
+		<xsl:text>	};
+
+	private Messages() {
+
+	}
+}
+</xsl:text>
+	</xsl:template>
+
+	<xsl:template name="validate">
+		<xsl:for-each select="$keys">
+			<xsl:variable name="key" select="@value" />
+			<xsl:if test="not(translate(substring($key, 1, 1), 'abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_', '') = '')
+					or translate($key, 'abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_0123456789', '') != ''">
+				<xsl:message terminate="yes">The key "<xsl:value-of select="$key" />" isn't a valid Java name</xsl:message>
+			</xsl:if>
+			<xsl:if test="count($keys[@value = $key]) &gt; 1">
+				<xsl:message terminate="yes">The key "<xsl:value-of select="$key" />" is defined more than once</xsl:message>
+			</xsl:if>
+			<xsl:for-each select="$languages">
+				<xsl:variable name="lang" select="@lang" />
+				<xsl:if test="count($keys[@value = $key][1]/val[@lang = $lang]) != 1">
+					<xsl:message terminate="yes">The key "<xsl:value-of select="$key" />" needs exactly one <xsl:value-of select="$lang" /> translation</xsl:message>
+				</xsl:if>
+			</xsl:for-each>
+		</xsl:for-each>
+	</xsl:template>
+
+	<!-- Writes a message as the content of a Java string literal -->
+	<xsl:template name="escape">
+		<xsl:param name="text" />
+		<xsl:variable name="first" select="substring($text, 1, 1)" />
+		<xsl:if test="$text != ''">
+			<xsl:choose>
+				<xsl:when test="$first = '\'">\\</xsl:when>
+				<xsl:when test="$first = '&quot;'">\"</xsl:when>
+				<xsl:when test="$first = '&#10;'">\n</xsl:when>
+				<xsl:when test="$first = '&#13;'" />
+				<xsl:otherwise>
+					<xsl:value-of select="$first" />
+				</xsl:otherwise>
+			</xsl:choose>
+			<xsl:call-template name="escape">
+				<xsl:with-param name="text" select="substring($text, 2)" />
+			</xsl:call-template>
+		</xsl:if>
+	</xsl:template>
+</xsl:stylesheet>
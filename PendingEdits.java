@@ -0,0 +1,84 @@
+package sms;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The cell edits the user has made in the management table and that haven't
+ * been written yet. Editing a cell again only keeps the last value, and the
+ * edits of one student are written together, so a burst of edits costs one
+ * statement per student. Not thread safe
+ */
+public class PendingEdits {
+	/**
+	 * The new values by column, by student ID, in the order the students have
+	 * first been edited
+	 */
+	private Map<Integer, Map<Integer, String>> edits = new LinkedHashMap<Integer, Map<Integer, String>>();
+
+	/**
+	 * Adds an edit, replacing the previous edit of the same cell
+	 *
+	 * @param id     - The ID of the student
+	 * @param column - The table column of the field
+	 * @param value  - The new value of the field
+	 */
+	public void put(final int id, final int column, final String value) {
+		edits.computeIfAbsent(id, k -> new LinkedHashMap<Integer, String>()).put(column, value);
+	}
+
+	/**
+	 * @return Whether a cell has been edited
+	 */
+	public boolean contains(final int id, final int column) {
+		final Map<Integer, String> fields = edits.get(id);
+		return fields != null && fields.containsKey(column);
+	}
+
+	/**
+	 * Forgets the edit of a cell, if there is one
+	 */
+	public void remove(final int id, final int column) {
+		final Map<Integer, String> fields = edits.get(id);
+		if (fields != null && fields.remove(column) != null && fields.isEmpty()) {
+			edits.remove(id);
+		}
+	}
+
+	/**
+	 * @return The number of cells edited
+	 */
+	public int size() {
+		int size = 0;
+		for (Map<Integer, String> fields : edits.values()) {
+			size += fields.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return Whether there are no edits to write
+	 */
+	public boolean isEmpty() {
+		return edits.isEmpty();
+	}
+
+	/**
+	 * @return A read only view of the new values by column, by student ID
+	 */
+	public Map<Integer, Map<Integer, String>> view() {
+		return Collections.unmodifiableMap(edits);
+	}
+
+	/**
+	 * Removes all the edits, to write them
+	 *
+	 * @return The new values by column, by student ID
+	 */
+	public Map<Integer, Map<Integer, String>> drain() {
+		final Map<Integer, Map<Integer, String>> drained = edits;
+		edits = new LinkedHashMap<Integer, Map<Integer, String>>();
+		return drained;
+	}
+}
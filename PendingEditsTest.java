@@ -0,0 +1,44 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * The class that tests PendingEdits class
+ */
+public class PendingEditsTest {
+
+	@Test
+	public void editsOfACellAreCoalesced() {
+		PendingEdits edits = new PendingEdits();
+		edits.put(7, 1, "Jon");
+		edits.put(7, 1, "John");
+		edits.put(7, 3, "21");
+		edits.put(3, 2, "Smith");
+
+		assertEquals(3, edits.size());
+		Map<Integer, Map<Integer, String>> drained = edits.drain();
+
+		// One entry per student, in the order they have been edited
+		assertEquals(Arrays.asList(7, 3), Arrays.asList(drained.keySet().toArray()));
+		assertEquals("John", drained.get(7).get(1));
+		assertEquals("21", drained.get(7).get(3));
+		assertEquals("Smith", drained.get(3).get(2));
+	}
+
+	@Test
+	public void drainEmptiesTheEdits() {
+		PendingEdits edits = new PendingEdits();
+		edits.put(1, 1, "Ann");
+		edits.drain();
+
+		assertTrue(edits.isEmpty());
+		assertEquals(0, edits.size());
+		assertTrue(edits.drain().isEmpty());
+	}
+}
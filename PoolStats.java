@@ -0,0 +1,127 @@
+package sms;
+
+/**
+ * A snapshot of a connection pool's usage, used to size the pool
+ */
+public class PoolStats {
+	private final int active;
+	private final int idle;
+	private final int open;
+	private final int maxSize;
+	private final long created;
+	private final long destroyed;
+	private final long borrowed;
+	private final long averageWaitMicros;
+	private final long maxWaitMicros;
+	private final long statementHits;
+	private final long statementMisses;
+
+	PoolStats(final int active, final int idle, final int open, final int maxSize, final long created,
+			final long destroyed, final long borrowed, final long averageWaitMicros, final long maxWaitMicros,
+			final long statementHits, final long statementMisses) {
+		this.active = active;
+		this.idle = idle;
+		this.open = open;
+		this.maxSize = maxSize;
+		this.created = created;
+		this.destroyed = destroyed;
+		this.borrowed = borrowed;
+		this.averageWaitMicros = averageWaitMicros;
+		this.maxWaitMicros = maxWaitMicros;
+		this.statementHits = statementHits;
+		this.statementMisses = statementMisses;
+	}
+
+	/**
+	 * @return The number of connections currently borrowed
+	 */
+	public int getActive() {
+		return active;
+	}
+
+	/**
+	 * @return The number of open connections waiting to be borrowed
+	 */
+	public int getIdle() {
+		return idle;
+	}
+
+	/**
+	 * @return The number of physical connections currently open
+	 */
+	public int getOpen() {
+		return open;
+	}
+
+	/**
+	 * @return The maximum number of connections the pool may open
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return How many physical connections have been opened since the pool started
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return How many physical connections have been closed since the pool started
+	 */
+	public long getDestroyed() {
+		return destroyed;
+	}
+
+	/**
+	 * @return How many times a connection has been borrowed
+	 */
+	public long getBorrowed() {
+		return borrowed;
+	}
+
+	/**
+	 * @return The average time(in microseconds) spent waiting for a connection
+	 */
+	public long getAverageWaitMicros() {
+		return averageWaitMicros;
+	}
+
+	/**
+	 * @return The longest time(in microseconds) spent waiting for a connection
+	 */
+	public long getMaxWaitMicros() {
+		return maxWaitMicros;
+	}
+
+	/**
+	 * @return How many times a prepared statement has been reused from the cache
+	 */
+	public long getStatementHits() {
+		return statementHits;
+	}
+
+	/**
+	 * @return How many times a statement had to be prepared
+	 */
+	public long getStatementMisses() {
+		return statementMisses;
+	}
+
+	/**
+	 * @return The share of prepared statements served from the cache, from 0 to 1
+	 */
+	public double getStatementHitRatio() {
+		final long total = statementHits + statementMisses;
+		return total == 0 ? 0 : (double) statementHits / total;
+	}
+
+	@Override
+	public String toString() {
+		return "active=" + active + ", idle=" + idle + ", open=" + open + "/" + maxSize + ", created=" + created
+				+ ", destroyed=" + destroyed + ", borrowed=" + borrowed + ", avgWait=" + averageWaitMicros
+				+ "us, maxWait=" + maxWaitMicros + "us, statementHits=" + statementHits + ", statementMisses="
+				+ statementMisses;
+	}
+}
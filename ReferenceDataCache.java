@@ -0,0 +1,269 @@
+package sms;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the courses and the faculties in memory, since they are read far more
+ * often than they change. The data is loaded at once the first time it is
+ * needed, kept up to date by the writes of this application and loaded again
+ * once it is older than a time to live, in order to see the changes made by
+ * other clients. The data is replaced as a whole, so readers never see a half
+ * updated state and never wait for each other
+ */
+public class ReferenceDataCache {
+	/**
+	 * The default time after which the data is loaded again, in milliseconds
+	 */
+	public static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * A course missing from data loaded this recently is taken as missing from
+	 * the database too, in milliseconds
+	 */
+	static final long MIN_RELOAD_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+	/**
+	 * Reads the courses and the faculties from the database
+	 */
+	interface Loader {
+		/**
+		 * @param courses   - The map the courses are put in, by name
+		 * @param faculties - The set the faculty names are put in
+		 */
+		void load(Map<String, Course> courses, Set<String> faculties) throws SQLException;
+	}
+
+	/**
+	 * The data loaded at a certain moment. Never changed once published
+	 */
+	private static class Snapshot {
+		private final Map<String, Course> courses;
+		private final Set<String> faculties;
+		private final long loadedAt;
+
+		private Snapshot(final Map<String, Course> courses, final Set<String> faculties, final long loadedAt) {
+			this.courses = Collections.unmodifiableMap(courses);
+			this.faculties = Collections.unmodifiableSet(faculties);
+			this.loadedAt = loadedAt;
+		}
+	}
+
+	private final Loader loader;
+	private final long ttl;
+
+	/**
+	 * The current data, null until it is loaded or after it is invalidated
+	 */
+	private volatile Snapshot snapshot;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param loader - Reads the courses and the faculties from the database
+	 * @param ttl    - The time after which the data is loaded again, in
+	 *               milliseconds
+	 */
+	ReferenceDataCache(final Loader loader, final long ttl) {
+		this.loader = loader;
+		this.ttl = ttl;
+	}
+
+	/**
+	 * @return The names of the faculties
+	 */
+	public String[] getFacultyNames() {
+		return getSnapshot().faculties.toArray(new String[0]);
+	}
+
+	/**
+	 * @return The names of the courses
+	 */
+	public String[] getCourseNames() {
+		return getSnapshot().courses.keySet().toArray(new String[0]);
+	}
+
+	/**
+	 * @param name - The name of a course
+	 * @return The course, or null if there is no course with that name
+	 */
+	public Course getCourse(final String name) {
+		return getSnapshot().courses.get(name);
+	}
+
+	/**
+	 * Gets a course that may have been added by another client. The data is
+	 * loaded again if the course isn't there, unless it has just been loaded, so
+	 * that a name nobody has added doesn't load it on every call
+	 *
+	 * @param name - The name of a course
+	 * @return The course, or null if there is no course with that name
+	 */
+	public Course findCourse(final String name) {
+		final Course course = getCourse(name);
+		if (course != null) {
+			return course;
+		}
+
+		synchronized (this) {
+			final Snapshot current = snapshot;
+			if (current != null && System.currentTimeMillis() - current.loadedAt < MIN_RELOAD_INTERVAL) {
+				return current.courses.get(name);
+			}
+			snapshot = null;
+		}
+		return getCourse(name);
+	}
+
+	/**
+	 * @return Whether there is a faculty with a certain name
+	 */
+	public boolean hasFaculty(final String name) {
+		return getSnapshot().faculties.contains(name);
+	}
+
+	/**
+	 * @return The number of reads answered from memory
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of reads that had to load the data
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return The share of reads answered from memory, between 0 and 1
+	 */
+	public double getHitRatio() {
+		final long total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double) hits.get() / total;
+	}
+
+	/**
+	 * Drops the data, it is loaded again on the next read
+	 */
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	/**
+	 * Records a course added by this application
+	 */
+	synchronized void courseAdded(final Course course) {
+		final Snapshot current = snapshot;
+		if (current != null) {
+			Map<String, Course> courses = new LinkedHashMap<String, Course>(current.courses);
+			courses.put(course.getName(), course);
+			snapshot = new Snapshot(courses, current.faculties, current.loadedAt);
+		}
+	}
+
+	/**
+	 * Records a course deleted by this application
+	 */
+	synchronized void courseRemoved(final String name) {
+		final Snapshot current = snapshot;
+		if (current != null) {
+			Map<String, Course> courses = new LinkedHashMap<String, Course>(current.courses);
+			courses.remove(name);
+			snapshot = new Snapshot(courses, current.faculties, current.loadedAt);
+		}
+	}
+
+	/**
+	 * Records that all the courses of a faculty have been deleted by this
+	 * application
+	 */
+	synchronized void facultyCoursesRemoved(final String faculty) {
+		final Snapshot current = snapshot;
+		if (current != null) {
+			Map<String, Course> courses = new LinkedHashMap<String, Course>(current.courses);
+			courses.values().removeIf(course -> faculty.equals(course.getFaculty()));
+			snapshot = new Snapshot(courses, current.faculties, current.loadedAt);
+		}
+	}
+
+	/**
+	 * Records a faculty added by this application
+	 */
+	synchronized void facultyAdded(final String name) {
+		final Snapshot current = snapshot;
+		if (current != null) {
+			Set<String> faculties = new LinkedHashSet<String>(current.faculties);
+			faculties.add(name);
+			snapshot = new Snapshot(current.courses, faculties, current.loadedAt);
+		}
+	}
+
+	/**
+	 * Records a faculty deleted by this application
+	 */
+	synchronized void facultyRemoved(final String name) {
+		final Snapshot current = snapshot;
+		if (current != null) {
+			Set<String> faculties = new LinkedHashSet<String>(current.faculties);
+			faculties.remove(name);
+			snapshot = new Snapshot(current.courses, faculties, current.loadedAt);
+		}
+	}
+
+	/**
+	 * Gets the current data, loading it if it is missing or expired. Only one
+	 * thread loads it at a time, the others wait and use its result
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current != null && !isExpired(current)) {
+			hits.incrementAndGet();
+			return current;
+		}
+
+		synchronized (this) {
+			current = snapshot;
+			if (current != null && !isExpired(current)) {
+				hits.incrementAndGet();
+				return current;
+			}
+
+			misses.incrementAndGet();
+			Map<String, Course> courses = new LinkedHashMap<String, Course>();
+			Set<String> faculties = new LinkedHashSet<String>();
+			try {
+				loader.load(courses, faculties);
+			} catch (SQLException e) {
+				e.printStackTrace();
+
+				// Keep using the old data if there is any, the next read tries again
+				return current != null ? current
+						: new Snapshot(Collections.<String, Course>emptyMap(), Collections.<String>emptySet(), 0);
+			}
+
+			snapshot = new Snapshot(courses, faculties, System.currentTimeMillis());
+			return snapshot;
+		}
+	}
+
+	private boolean isExpired(final Snapshot current) {
+		return System.currentTimeMillis() - current.loadedAt > ttl;
+	}
+
+	@Override
+	public String toString() {
+		final Snapshot current = snapshot;
+		return "hits=" + hits.get() + ", misses=" + misses.get() + String.format(", hitRatio=%.2f", getHitRatio())
+				+ (current == null ? ", loaded=false"
+						: ", courses=" + current.courses.size() + ", faculties=" + current.faculties.size());
+	}
+}
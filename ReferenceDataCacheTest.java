@@ -0,0 +1,82 @@
+package sms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * The class that tests ReferenceDataCache class
+ */
+public class ReferenceDataCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private ReferenceDataCache createCache(final long ttl) {
+		return new ReferenceDataCache((courses, faculties) -> {
+			loads.incrementAndGet();
+			faculties.add("Science");
+			courses.put("Physics", new Course("Physics", "Science", 36));
+		}, ttl);
+	}
+
+	@Test
+	public void loadsOnceWhileFresh() {
+		ReferenceDataCache cache = createCache(ReferenceDataCache.DEFAULT_TTL);
+
+		assertArrayEquals(new String[] { "Science" }, cache.getFacultyNames());
+		assertArrayEquals(new String[] { "Physics" }, cache.getCourseNames());
+		assertEquals(36, cache.getCourse("Physics").getDuration());
+
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getMisses());
+		assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void writesUpdateTheCachedData() {
+		ReferenceDataCache cache = createCache(ReferenceDataCache.DEFAULT_TTL);
+		cache.getFacultyNames();
+
+		cache.facultyAdded("Arts");
+		cache.courseAdded(new Course("Painting", "Arts", 24));
+		assertTrue(cache.hasFaculty("Arts"));
+		assertEquals(24, cache.getCourse("Painting").getDuration());
+
+		cache.facultyCoursesRemoved("Arts");
+		cache.facultyRemoved("Arts");
+		assertNull(cache.getCourse("Painting"));
+		assertFalse(cache.hasFaculty("Arts"));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void unknownCourseDoesNotReloadFreshData() {
+		ReferenceDataCache cache = createCache(ReferenceDataCache.DEFAULT_TTL);
+
+		assertEquals(36, cache.findCourse("Physics").getDuration());
+		assertNull(cache.findCourse("Chemistry"));
+		assertNull(cache.findCourse("Chemistry"));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void reloadsWhenExpiredOrInvalidated() throws InterruptedException {
+		ReferenceDataCache cache = createCache(0);
+		cache.getCourseNames();
+		Thread.sleep(5);
+		cache.getCourseNames();
+		assertEquals(2, loads.get());
+
+		cache = createCache(ReferenceDataCache.DEFAULT_TTL);
+		cache.getCourseNames();
+		cache.invalidate();
+		cache.getCourseNames();
+		assertEquals(4, loads.get());
+	}
+}
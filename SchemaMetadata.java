@@ -0,0 +1,109 @@
+package sms;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The tables of the database with their columns and indexes, read from the
+ * database's metadata in one pass over a single connection. Never changed once
+ * read, it is read again after the schema changes
+ */
+class SchemaMetadata {
+	/**
+	 * The tables by name
+	 */
+	private final Map<String, Table> tables;
+
+	private static class Table {
+		private final Set<String> columns = new HashSet<String>();
+		private final Set<String> indexedColumns = new HashSet<String>();
+		private final Set<String> uniqueColumns = new HashSet<String>();
+	}
+
+	private SchemaMetadata(final Map<String, Table> tables) {
+		this.tables = Collections.unmodifiableMap(tables);
+	}
+
+	/**
+	 * Reads the tables of the connection's database, with the columns and indexes
+	 * of the ones the application uses
+	 *
+	 * @param connection - A connection to the database
+	 * @param tableNames - The tables whose columns and indexes are read
+	 * @return The metadata
+	 */
+	static SchemaMetadata read(final Connection connection, final String... tableNames) throws SQLException {
+		final DatabaseMetaData metaData = connection.getMetaData();
+		final String catalog = connection.getCatalog();
+		final Map<String, Table> tables = new HashMap<String, Table>();
+
+		try (ResultSet resultSet = metaData.getTables(catalog, null, "%", new String[]{"TABLE"})) {
+			while (resultSet.next()) {
+				tables.put(resultSet.getString("TABLE_NAME"), new Table());
+			}
+		}
+
+		for (String tableName : tableNames) {
+			final Table table = tables.get(tableName);
+			if (table == null) {
+				continue;
+			}
+
+			try (ResultSet resultSet = metaData.getColumns(catalog, null, tableName, "%")) {
+				while (resultSet.next()) {
+					table.columns.add(resultSet.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+				}
+			}
+
+			// Only the first column of an index can be used to look up that column
+			try (ResultSet resultSet = metaData.getIndexInfo(catalog, null, tableName, false, true)) {
+				while (resultSet.next()) {
+					final String columnName = resultSet.getString("COLUMN_NAME");
+					if (columnName == null || resultSet.getShort("ORDINAL_POSITION") != 1) {
+						continue;
+					}
+
+					table.indexedColumns.add(columnName.toLowerCase(Locale.ROOT));
+					if (!resultSet.getBoolean("NON_UNIQUE")) {
+						table.uniqueColumns.add(columnName.toLowerCase(Locale.ROOT));
+					}
+				}
+			}
+		}
+
+		return new SchemaMetadata(tables);
+	}
+
+	/**
+	 * @return Whether the database has a certain table
+	 */
+	boolean hasTable(final String tableName) {
+		return tables.containsKey(tableName);
+	}
+
+	/**
+	 * @return Whether a table has a certain column
+	 */
+	boolean hasColumn(final String tableName, final String columnName) {
+		final Table table = tables.get(tableName);
+		return table != null && table.columns.contains(columnName.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * @param unique - Whether the index has to be unique
+	 * @return Whether a column is the first column of an index of a table
+	 */
+	boolean hasIndex(final String tableName, final String columnName, final boolean unique) {
+		final Table table = tables.get(tableName);
+		return table != null && (unique ? table.uniqueColumns : table.indexedColumns)
+				.contains(columnName.toLowerCase(Locale.ROOT));
+	}
+}
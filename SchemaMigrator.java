@@ -0,0 +1,335 @@
+package sms;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Brings the database's schema up to date. Every change of the schema is a
+ * numbered migration, and the migrations already applied are recorded in a
+ * schema version table, so each one runs once per database and in order. The
+ * migrations check what is already there, since databases created by older
+ * versions of the application have some of the changes without a recorded
+ * version
+ */
+class SchemaMigrator {
+	/**
+	 * The table that records the migrations applied
+	 */
+	static final String SCHEMA_VERSION_TABLE = "schema_version";
+
+	/**
+	 * The number of students whose columns are converted in one statement, so
+	 * that a large table is never locked for long
+	 */
+	static final int BACKFILL_BATCH_SIZE = 5000;
+
+	/**
+	 * The name of the lock that keeps two clients from migrating at once
+	 */
+	private static final String LOCK_NAME = "sms_schema_migration";
+
+	/**
+	 * How long to wait for another client's migration to finish, in seconds
+	 */
+	private static final int LOCK_TIMEOUT = 60;
+
+	/**
+	 * One change of the schema
+	 */
+	private interface Change {
+		/**
+		 * @param metadata - The schema as it was before the first migration of this
+		 *                 run. The migrations only add what is missing from it, and
+		 *                 none of them adds what a later one looks for
+		 */
+		void apply(Connection connection, Statement statement, SchemaMetadata metadata) throws SQLException;
+	}
+
+	private static class Migration {
+		private final int version;
+		private final String description;
+		private final Change change;
+
+		private Migration(final int version, final String description, final Change change) {
+			this.version = version;
+			this.description = description;
+			this.change = change;
+		}
+	}
+
+	/**
+	 * Every migration, in the order they are applied
+	 */
+	private static final List<Migration> MIGRATIONS = Arrays.asList(
+			new Migration(1, "Create the students, courses and faculties tables", SchemaMigrator::createTables),
+			new Migration(2, "Track modified and deleted students", SchemaMigrator::trackModifications),
+			new Migration(3, "Make course and faculty names unique", SchemaMigrator::uniqueNames),
+			new Migration(4, "Index students by course and courses by faculty", SchemaMigrator::secondaryIndexes),
+			new Migration(5, "Store dates as DATE and gender as ENUM", SchemaMigrator::typedColumns),
+			new Migration(6, "Reserve student IDs in blocks", SchemaMigrator::idBlocks),
+			new Migration(7, "Index students by the columns they are sorted and filtered by",
+					SchemaMigrator::studentIndexes),
+			new Migration(8, "Declare the genders in the order they are sorted in", SchemaMigrator::genderOrder));
+
+	/**
+	 * Default constructor
+	 */
+	private SchemaMigrator() {
+
+	}
+
+	/**
+	 * @return The version the migrations bring the schema to
+	 */
+	static int getLatestVersion() {
+		return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+	}
+
+	/**
+	 * Applies the migrations the database doesn't have yet
+	 *
+	 * @param connection - A connection to the database, in auto-commit mode
+	 * @return The number of migrations applied
+	 * @throws SQLException If a migration fails, the ones before it stay applied
+	 */
+	static int migrate(final Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			acquireLock(statement);
+
+			try {
+				statement.executeUpdate("create table if not exists " + SCHEMA_VERSION_TABLE
+						+ "(Version INTEGER not NULL, Description varchar(100), "
+						+ "Applied TIMESTAMP not NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY ( Version ))");
+
+				final int currentVersion;
+				try (ResultSet resultSet = statement
+						.executeQuery("select coalesce(max(Version), 0) from " + SCHEMA_VERSION_TABLE)) {
+					resultSet.next();
+					currentVersion = resultSet.getInt(1);
+				}
+
+				int applied = 0;
+				SchemaMetadata metadata = null;
+				for (Migration migration : MIGRATIONS) {
+					if (migration.version <= currentVersion) {
+						continue;
+					}
+
+					// The metadata is only read when there is something to migrate
+					if (metadata == null) {
+						metadata = SchemaMetadata.read(connection, DBHandler.getStudentsTable(),
+								DBHandler.getCoursesTable(), DBHandler.getFacultiesTable());
+					}
+					migration.change.apply(connection, statement, metadata);
+					recordVersion(connection, migration);
+					applied++;
+				}
+
+				return applied;
+			} finally {
+				statement.executeQuery("select release_lock('" + LOCK_NAME + "')").close();
+			}
+		}
+	}
+
+	private static void acquireLock(final Statement statement) throws SQLException {
+		try (ResultSet resultSet = statement
+				.executeQuery("select get_lock('" + LOCK_NAME + "', " + LOCK_TIMEOUT + ")")) {
+			if (!resultSet.next() || resultSet.getInt(1) != 1) {
+				throw new SQLException("Another client is still migrating the schema");
+			}
+		}
+	}
+
+	private static void recordVersion(final Connection connection, final Migration migration) throws SQLException {
+		try (PreparedStatement preparedStatement = connection.prepareStatement(
+				"insert into " + SCHEMA_VERSION_TABLE + " (Version, Description) values (?, ?)")) {
+			preparedStatement.setInt(1, migration.version);
+			preparedStatement.setString(2, migration.description);
+			preparedStatement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Version 1: the tables as the first versions of the application created them
+	 */
+	private static void createTables(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		statement.executeUpdate("create table if not exists " + DBHandler.getStudentsTable()
+				+ "(ID INTEGER not NULL AUTO_INCREMENT, " + " Name varchar(50), " + "Surname varchar(50), "
+				+ "Age INTEGER, " + "Gender varchar(6), " + "Course varchar(50), " + "Started varchar(25),  "
+				+ "Graduation varchar(25), " + "PRIMARY KEY ( id ))");
+
+		statement.executeUpdate("create table if not exists " + DBHandler.getCoursesTable()
+				+ "(ID INTEGER not NULL AUTO_INCREMENT, " + " Name varchar(50), " + "Faculty varchar(50), "
+				+ "Duration INTEGER, " + "Attendees INTEGER, " + "PRIMARY KEY ( id ))");
+
+		statement.executeUpdate("create table if not exists " + DBHandler.getFacultiesTable()
+				+ "(ID INTEGER not NULL AUTO_INCREMENT, " + " Name varchar(50), " + "Courses INTEGER, "
+				+ "Attendees INTEGER, " + "PRIMARY KEY ( id ))");
+	}
+
+	/**
+	 * Version 2: the modification time of the students and the table remembering
+	 * the deleted ones, which the delta refresh of the students table reads
+	 */
+	private static void trackModifications(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		if (!metadata.hasColumn(DBHandler.getStudentsTable(), "Modified")) {
+			statement.executeUpdate("alter table " + DBHandler.getStudentsTable() + " add column Modified TIMESTAMP(3) "
+					+ "not NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), add INDEX ( Modified )");
+		}
+
+		statement.executeUpdate("create table if not exists " + DBHandler.getDeletedStudentsTable()
+				+ "(ID INTEGER not NULL, Deleted TIMESTAMP(3) not NULL DEFAULT CURRENT_TIMESTAMP(3), "
+				+ "PRIMARY KEY ( id ), INDEX ( Deleted ))");
+	}
+
+	/**
+	 * Version 3: unique names of courses and faculties. Duplicates left by older
+	 * versions are dropped first, keeping the oldest row, and the counters are
+	 * recomputed on the same connection since the dropped courses were counted
+	 */
+	private static void uniqueNames(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		int duplicates = 0;
+		for (String tableName : new String[]{DBHandler.getCoursesTable(), DBHandler.getFacultiesTable()}) {
+			if (!metadata.hasIndex(tableName, "Name", true)) {
+				duplicates += statement.executeUpdate("delete Duplicates from " + tableName + " as Duplicates join "
+						+ tableName + " as Kept on Kept.Name = Duplicates.Name and Kept.ID < Duplicates.ID");
+				statement.executeUpdate("alter table " + tableName + " add UNIQUE INDEX ( Name )");
+			}
+		}
+
+		if (duplicates > 0) {
+			DBHandler.repairAttendees(connection);
+		}
+	}
+
+	/**
+	 * Version 4: the indexes used to find the students of a course and the courses
+	 * of a faculty, by the counters, the cascading deletes and the filters
+	 */
+	private static void secondaryIndexes(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		if (!metadata.hasIndex(DBHandler.getStudentsTable(), "Course", false)) {
+			statement.executeUpdate("create index StudentsCourse on " + DBHandler.getStudentsTable() + " ( Course )");
+		}
+
+		if (!metadata.hasIndex(DBHandler.getCoursesTable(), "Faculty", false)) {
+			statement.executeUpdate("create index CoursesFaculty on " + DBHandler.getCoursesTable() + " ( Faculty )");
+		}
+	}
+
+	/**
+	 * Version 5: the dates become DATE columns and the gender an ENUM. The typed
+	 * values are written to new columns a range of IDs at a time, each range in
+	 * its own short transaction, and the new columns then replace the old ones.
+	 * The students written by other clients meanwhile are converted again with
+	 * the table locked, right before the columns are replaced. Text that isn't a
+	 * valid date or gender becomes NULL
+	 */
+	private static void typedColumns(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		final String studentsTable = DBHandler.getStudentsTable();
+		if (!metadata.hasColumn(studentsTable, "StartedDate")) {
+			statement.executeUpdate("alter table " + studentsTable + " add column StartedDate DATE, "
+					+ "add column GraduationDate DATE, add column GenderCode ENUM('Female', 'Male')");
+		}
+
+		final int minId;
+		final int maxId;
+		final Timestamp backfillStart;
+		try (ResultSet resultSet = statement.executeQuery("select coalesce(min(ID), 0), coalesce(max(ID), -1), "
+				+ "current_timestamp(3) from " + studentsTable)) {
+			resultSet.next();
+			minId = resultSet.getInt(1);
+			maxId = resultSet.getInt(2);
+			backfillStart = resultSet.getTimestamp(3);
+		}
+
+		// Modified keeps its value, the students haven't changed for the clients
+		final String convert = "update " + studentsTable + " set StartedDate = " + toDate("Started")
+				+ ", GraduationDate = " + toDate("Graduation")
+				+ ", GenderCode = case when Gender in ('Male', 'Female') then Gender end, Modified = Modified ";
+		try (PreparedStatement preparedStatement = connection.prepareStatement(convert + "where ID between ? and ?")) {
+			for (long first = minId; first <= maxId; first += BACKFILL_BATCH_SIZE) {
+				preparedStatement.setLong(1, first);
+				preparedStatement.setLong(2, first + BACKFILL_BATCH_SIZE - 1);
+				preparedStatement.executeUpdate();
+			}
+		}
+
+		// Every write sets Modified, so the students written during the backfill are the ones modified since
+		statement.executeUpdate("lock tables " + studentsTable + " write");
+		try {
+			try (PreparedStatement preparedStatement = connection.prepareStatement(convert + "where Modified >= ?")) {
+				preparedStatement.setTimestamp(1, backfillStart);
+				preparedStatement.executeUpdate();
+			}
+
+			statement.executeUpdate("alter table " + studentsTable + " drop column Started, drop column Graduation, "
+					+ "drop column Gender, rename column StartedDate to Started, "
+					+ "rename column GraduationDate to Graduation, rename column GenderCode to Gender");
+		} finally {
+			statement.executeUpdate("unlock tables");
+		}
+	}
+
+	/**
+	 * Version 6: the next free student ID, from which the clients reserve blocks
+	 * of IDs. It starts after every ID used so far, including the ones of deleted
+	 * students, which other clients may still remember
+	 */
+	private static void idBlocks(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		statement.executeUpdate("create table if not exists " + DBHandler.getIdBlocksTable()
+				+ "(Name varchar(50) not NULL, NextId BIGINT not NULL, PRIMARY KEY ( Name ))");
+
+		statement.executeUpdate("insert ignore into " + DBHandler.getIdBlocksTable() + " (Name, NextId) select '"
+				+ DBHandler.getStudentsTable() + "', greatest((select coalesce(max(ID), 0) from "
+				+ DBHandler.getStudentsTable() + "), (select coalesce(max(ID), 0) from "
+				+ DBHandler.getDeletedStudentsTable() + ")) + 1");
+	}
+
+	/**
+	 * Version 7: an index on every column the students are sorted or filtered by,
+	 * so that a page is read from the index in order instead of sorting the whole
+	 * table. The ID, which breaks the ties, is part of every secondary index
+	 */
+	private static void studentIndexes(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		for (String column : new String[]{"Name", "Surname", "Age", "Gender", "Started", "Graduation"}) {
+			if (!metadata.hasIndex(DBHandler.getStudentsTable(), column, false)) {
+				statement.executeUpdate("create index Students" + column + " on " + DBHandler.getStudentsTable()
+						+ " ( " + column + " )");
+			}
+		}
+	}
+
+	/**
+	 * Version 8: MySQL sorts an ENUM by the position its values are declared in,
+	 * while the pages are read after a key compared as text. The genders are
+	 * declared alphabetically so that both orders are the same. The values are
+	 * kept, they are converted by their text
+	 */
+	private static void genderOrder(final Connection connection, final Statement statement,
+			final SchemaMetadata metadata) throws SQLException {
+		statement.executeUpdate("alter table " + DBHandler.getStudentsTable()
+				+ " modify column Gender ENUM('Female', 'Male')");
+	}
+
+	/**
+	 * @return The SQL converting a YYYY-MM-DD text column to a date
+	 */
+	private static String toDate(final String column) {
+		return "case when " + column + " regexp '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' then str_to_date(" + column
+				+ ", '%Y-%m-%d') end";
+	}
+}
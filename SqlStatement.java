@@ -0,0 +1,295 @@
+package sms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The registry of every parameterized statement the application sends to the
+ * database. Keeping the SQL text constant lets the pooled connections prepare
+ * each statement once and reuse it
+ */
+enum SqlStatement {
+	SELECT_SERVER_TIME("select CURRENT_TIMESTAMP(3)"),
+	SELECT_LAST_INSERT_ID("select last_insert_id()"),
+
+	// Blocks of IDs
+	RESERVE_STUDENT_IDS("update " + DBHandler.getIdBlocksTable() + " set NextId = last_insert_id(NextId + ?) where Name = '"
+			+ DBHandler.getStudentsTable() + "'"),
+
+	// Students
+	INSERT_STUDENT("insert into " + DBHandler.getStudentsTable()
+			+ " (ID, Name, Surname, Age, Gender, Course, Started, Graduation) values (?, ?, ?, ?, ?, ?, ?, ?)"),
+	SELECT_STUDENTS("select * from " + DBHandler.getStudentsTable()),
+	SELECT_STUDENT_NAMES("select ID, Name, Surname from " + DBHandler.getStudentsTable()),
+	DELETE_STUDENT("delete from " + DBHandler.getStudentsTable() + " where ID = ?"),
+	DELETE_COURSE_STUDENTS("delete from " + DBHandler.getStudentsTable() + " where Course = ?"),
+	SELECT_STUDENT_COUNT("select count(*) from " + DBHandler.getStudentsTable()),
+	SELECT_STUDENT_COURSE("select Course from " + DBHandler.getStudentsTable() + " where ID = ?"),
+	SELECT_COURSE_STUDENT_COUNT("select count(*) from " + DBHandler.getStudentsTable() + " where Course = ?"),
+	SELECT_CHANGED_STUDENTS("select * from " + DBHandler.getStudentsTable() + " where Modified >= ?"),
+	SELECT_DELETED_STUDENTS("select ID from " + DBHandler.getDeletedStudentsTable() + " where Deleted >= ?"),
+	DELETE_OLD_DELETED_STUDENTS("delete from " + DBHandler.getDeletedStudentsTable() + " where Deleted < ?"),
+	INSERT_DELETED_STUDENT("insert ignore into " + DBHandler.getDeletedStudentsTable() + " (ID) values (?)"),
+	INSERT_DELETED_COURSE_STUDENTS("insert ignore into " + DBHandler.getDeletedStudentsTable() + " (ID) select ID from "
+			+ DBHandler.getStudentsTable() + " where Course = ?"),
+	DELETE_FACULTY_STUDENTS("delete from " + DBHandler.getStudentsTable() + " where Course in (select Name from "
+			+ DBHandler.getCoursesTable() + " where Faculty = ?)"),
+	INSERT_DELETED_FACULTY_STUDENTS("insert ignore into " + DBHandler.getDeletedStudentsTable() + " (ID) select ID from "
+			+ DBHandler.getStudentsTable() + " where Course in (select Name from " + DBHandler.getCoursesTable()
+			+ " where Faculty = ?)"),
+
+	// Courses
+	INSERT_COURSE("insert into " + DBHandler.getCoursesTable()
+			+ " (Name, Faculty, Duration, Attendees) values (?, ?, ?, ?)"),
+	SELECT_COURSES("select * from " + DBHandler.getCoursesTable()),
+	SELECT_COURSE_EXISTS("select 1 from " + DBHandler.getCoursesTable() + " where Name = ? limit 1"),
+	SELECT_COURSE_ATTENDEES("select Attendees from " + DBHandler.getCoursesTable() + " where Name = ?"),
+	SELECT_COURSE_COUNTERS("select Faculty, Attendees from " + DBHandler.getCoursesTable() + " where Name = ?"),
+	RECOMPUTE_COURSES_ATTENDEES("update " + DBHandler.getCoursesTable() + " as Courses left join (select Course, "
+			+ "count(*) as Attendees from " + DBHandler.getStudentsTable() + " group by Course) as Counts "
+			+ "on Counts.Course = Courses.Name set Courses.Attendees = coalesce(Counts.Attendees, 0) "
+			+ "where Courses.Attendees <> coalesce(Counts.Attendees, 0)"),
+	ADJUST_COURSE_ATTENDEES("update " + DBHandler.getCoursesTable() + " as Courses left join "
+			+ DBHandler.getFacultiesTable() + " as Faculties on Faculties.Name = Courses.Faculty "
+			+ "set Courses.Attendees = Courses.Attendees + ?, Faculties.Attendees = Faculties.Attendees + ? "
+			+ "where Courses.Name = ?"),
+	DELETE_COURSE("delete from " + DBHandler.getCoursesTable() + " where Name = ?"),
+	DELETE_FACULTY_COURSES("delete from " + DBHandler.getCoursesTable() + " where Faculty = ?"),
+
+	// Faculties
+	INSERT_FACULTY("insert into " + DBHandler.getFacultiesTable() + " (Name, Courses, Attendees) values (?, ?, ?)"),
+	SELECT_FACULTIES("select * from " + DBHandler.getFacultiesTable()),
+	SELECT_FACULTY_NAMES("select Name from " + DBHandler.getFacultiesTable()),
+	SELECT_FACULTY_EXISTS("select 1 from " + DBHandler.getFacultiesTable() + " where Name = ? limit 1"),
+	SELECT_FACULTY_ATTENDEES("select Attendees from " + DBHandler.getFacultiesTable() + " where Name = ?"),
+	SELECT_FACULTY_COURSES("select Courses from " + DBHandler.getFacultiesTable() + " where Name = ?"),
+	RECOMPUTE_FACULTIES_COUNTERS("update " + DBHandler.getFacultiesTable() + " as Faculties left join (select "
+			+ "Faculty, count(*) as Courses, sum(Attendees) as Attendees from " + DBHandler.getCoursesTable()
+			+ " group by Faculty) as Counts on Counts.Faculty = Faculties.Name "
+			+ "set Faculties.Attendees = coalesce(Counts.Attendees, 0), Faculties.Courses = coalesce(Counts.Courses, 0) "
+			+ "where Faculties.Attendees <> coalesce(Counts.Attendees, 0) "
+			+ "or Faculties.Courses <> coalesce(Counts.Courses, 0)"),
+	ADJUST_FACULTY_COUNTERS("update " + DBHandler.getFacultiesTable()
+			+ " set Attendees = Attendees + ?, Courses = Courses + ? where Name = ?"),
+	DELETE_FACULTY("delete from " + DBHandler.getFacultiesTable() + " where Name = ?");
+
+	/**
+	 * The SQL text of the statement
+	 */
+	private final String sql;
+
+	SqlStatement(final String sql) {
+		this.sql = sql;
+	}
+
+	/**
+	 * @return The SQL text of the statement, to be passed to prepareStatement()
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * Gets the statement that selects every row of a table
+	 *
+	 * @param tableName - The students, courses or faculties table
+	 * @return The statement selecting the whole table
+	 */
+	public static SqlStatement selectAll(final String tableName) {
+		if (DBHandler.getStudentsTable().equals(tableName)) {
+			return SELECT_STUDENTS;
+		} else if (DBHandler.getCoursesTable().equals(tableName)) {
+			return SELECT_COURSES;
+		} else if (DBHandler.getFacultiesTable().equals(tableName)) {
+			return SELECT_FACULTIES;
+		}
+
+		throw new IllegalArgumentException("Unknown table: " + tableName);
+	}
+
+	/**
+	 * Gets the statement that looks for an element with a certain name in a table,
+	 * which only reads the unique index on the names
+	 *
+	 * @param tableName - The courses or faculties table
+	 * @return The statement selecting a row if the name is in that table
+	 */
+	public static SqlStatement selectExists(final String tableName) {
+		if (DBHandler.getCoursesTable().equals(tableName)) {
+			return SELECT_COURSE_EXISTS;
+		} else if (DBHandler.getFacultiesTable().equals(tableName)) {
+			return SELECT_FACULTY_EXISTS;
+		}
+
+		throw new IllegalArgumentException("Unknown table: " + tableName);
+	}
+
+	/**
+	 * Gets the statement that selects the number of attendees of a course or a
+	 * faculty
+	 *
+	 * @param tableName - The courses or faculties table
+	 * @return The statement selecting the attendees in that table
+	 */
+	public static SqlStatement selectAttendees(final String tableName) {
+		if (DBHandler.getCoursesTable().equals(tableName)) {
+			return SELECT_COURSE_ATTENDEES;
+		} else if (DBHandler.getFacultiesTable().equals(tableName)) {
+			return SELECT_FACULTY_ATTENDEES;
+		}
+
+		throw new IllegalArgumentException("Unknown table: " + tableName);
+	}
+
+	/**
+	 * Builds the statement reading certain students
+	 *
+	 * @param count  - The number of students
+	 * @param filter - The criteria the students have to meet
+	 * @return The statement, whose parameters are the IDs of the students, then
+	 *         the filter's
+	 */
+	public static String selectStudentsById(final int count, final StudentFilter filter) {
+		StringBuilder sql = new StringBuilder("select * from " + DBHandler.getStudentsTable() + " where ID in (");
+		for (int i = 0; i < count; i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		sql.append(")");
+		if (!filter.isEmpty()) {
+			sql.append(" and ").append(filter.getConditions());
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Builds the statement changing several fields of a student at once
+	 *
+	 * @param columns - The columns of the fields
+	 * @return The statement, whose parameters are the new values in the order of
+	 *         the columns, then the ID of the student
+	 */
+	public static String updateStudent(final List<String> columns) {
+		return "update " + DBHandler.getStudentsTable() + " set " + String.join(" = ?, ", columns)
+				+ " = ? where ID = ?";
+	}
+
+	/**
+	 * Builds the statement counting the students that meet a filter
+	 *
+	 * @return The statement, whose parameters are the filter's
+	 */
+	public static String selectStudentCount(final StudentFilter filter) {
+		return filter.isEmpty() ? SELECT_STUDENT_COUNT.getSql()
+				: SELECT_STUDENT_COUNT.getSql() + " where " + filter.getConditions();
+	}
+
+	/**
+	 * The columns of the students table that may be empty, e.g. the dates and the
+	 * gender of the students whose old text values weren't valid
+	 */
+	private static final List<String> NULLABLE_STUDENT_COLUMNS = Arrays.asList("Gender", "Started", "Graduation");
+
+	/**
+	 * Builds the statement reading one page of students in a certain order. Pages
+	 * are found by the key of the row before them(keyset pagination), so reading
+	 * a page costs the same wherever it is in the table. The ID breaks ties
+	 * between equal values of the sorting column
+	 *
+	 * @param column     - The column the students are sorted by
+	 * @param descending - Whether the order is descending
+	 * @param keyBefore  - The sorting value and the ID of the row before the page,
+	 *                   or null for the first page
+	 * @param keyLast    - The sorting value and the ID of the last row of the
+	 *                   page, or null to read as many rows as the page's size.
+	 *                   Only whether the keys and their values are null changes
+	 *                   the statement
+	 * @param filter     - The criteria the students have to meet
+	 * @return The statement, whose parameters are the filter's, the sorting value
+	 *         (unless it is null) and the ID of each key given and the page's
+	 *         size
+	 */
+	public static String selectStudentPage(final String column, final boolean descending, final Object[] keyBefore,
+			final Object[] keyLast, final StudentFilter filter) {
+		List<String> conditions = new ArrayList<String>();
+		if (!filter.isEmpty()) {
+			conditions.add(filter.getConditions());
+		}
+		if (keyBefore != null) {
+			conditions.add(afterKey(column, descending, keyBefore[0] == null));
+		}
+		if (keyLast != null) {
+			conditions.add(upToKey(column, descending, keyLast[0] == null));
+		}
+
+		return "select * from " + DBHandler.getStudentsTable()
+				+ (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+				+ " order by " + orderBy(column, descending) + " limit ?";
+	}
+
+	/**
+	 * Builds the statement reading the key of the last row of every page, so that
+	 * any page can be read without reading the ones before it
+	 *
+	 * @param column     - The column the students are sorted by
+	 * @param descending - Whether the order is descending
+	 * @param filter     - The criteria the students have to meet
+	 * @return The statement, whose parameters are the filter's and the page's
+	 *         size
+	 */
+	public static String selectStudentPageKeys(final String column, final boolean descending,
+			final StudentFilter filter) {
+		return "select SortValue, ID from (select " + column + " as SortValue, ID, row_number() over (order by "
+				+ orderBy(column, descending) + ") as RowNumber from " + DBHandler.getStudentsTable()
+				+ (filter.isEmpty() ? "" : " where " + filter.getConditions())
+				+ ") as PageKeys where RowNumber % ? = 0 order by RowNumber";
+	}
+
+	/**
+	 * @return The order of the pages and of their keys. MySQL sorts the empty
+	 *         values first, and last when the order is descending
+	 */
+	private static String orderBy(final String column, final boolean descending) {
+		final String direction = descending ? " desc" : "";
+		return column + direction + ", ID" + direction;
+	}
+
+	/**
+	 * Builds the condition of the rows after a page key. Comparing with an empty
+	 * value is never true, so the empty values are compared by ID alone. The
+	 * comparison of the values is kept as it is otherwise, so the index of the
+	 * column is still used
+	 *
+	 * @param emptyKey - Whether the sorting value of the key is empty
+	 * @return The condition, whose parameters are the sorting value(unless it is
+	 *         empty) and the ID of the key
+	 */
+	private static String afterKey(final String column, final boolean descending, final boolean emptyKey) {
+		if (emptyKey) {
+			// The empty values come first, so in ascending order every value follows them
+			return descending ? "(" + column + " is null and ID < ?)"
+					: "(" + column + " is null and ID > ? or " + column + " is not null)";
+		}
+
+		final String after = "(" + column + ", ID) " + (descending ? "<" : ">") + " (?, ?)";
+		return descending && NULLABLE_STUDENT_COLUMNS.contains(column) ? "(" + after + " or " + column + " is null)"
+				: after;
+	}
+
+	/**
+	 * Builds the condition of the rows up to a page key, the key's row included
+	 *
+	 * @see #afterKey(String, boolean, boolean)
+	 */
+	private static String upToKey(final String column, final boolean descending, final boolean emptyKey) {
+		if (emptyKey) {
+			// The empty values come last in descending order, so every value comes before them
+			return descending ? "(" + column + " is not null or ID >= ?)"
+					: "(" + column + " is null and ID <= ?)";
+		}
+
+		final String upTo = "(" + column + ", ID) " + (descending ? ">=" : "<=") + " (?, ?)";
+		return !descending && NULLABLE_STUDENT_COLUMNS.contains(column) ? "(" + upTo + " or " + column + " is null)"
+				: upTo;
+	}
+}
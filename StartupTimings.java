@@ -0,0 +1,92 @@
+package sms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the phases between pressing Connect and the management window being
+ * usable. Phases may run on different threads at the same time, each one is
+ * reported with the moment it started and how long it took
+ */
+public class StartupTimings {
+	/**
+	 * When the startup began, in nanoseconds
+	 */
+	private static long start = System.nanoTime();
+
+	/**
+	 * The phases measured so far, in the order they ended
+	 */
+	private static final List<String> phases = new ArrayList<String>();
+
+	/**
+	 * The time spent waiting for the user since the startup began, in nanoseconds
+	 */
+	private static long userTime;
+
+	/**
+	 * Default constructor
+	 */
+	public StartupTimings() {
+
+	}
+
+	/**
+	 * Starts measuring a new startup, forgetting the previous one
+	 */
+	public static synchronized void begin() {
+		start = System.nanoTime();
+		userTime = 0;
+		phases.clear();
+	}
+
+	/**
+	 * Runs a phase spent waiting for the user, such as a dialog, and measures it.
+	 * The time it takes is left out of the phases reached afterwards
+	 *
+	 * @param phase  - The name of the phase
+	 * @param action - The work of the phase
+	 */
+	public static void waitForUser(final String phase, final Runnable action) {
+		final long phaseStart = System.nanoTime();
+		try {
+			action.run();
+		} finally {
+			final long phaseEnd = System.nanoTime();
+			record(phase, phaseStart, phaseEnd);
+			synchronized (StartupTimings.class) {
+				userTime += phaseEnd - phaseStart;
+			}
+		}
+	}
+
+	/**
+	 * Records a phase that began with the startup and ends now, such as the
+	 * window becoming usable, without the time spent waiting for the user
+	 *
+	 * @param phase - The name of the phase
+	 */
+	public static synchronized void reached(final String phase) {
+		record(phase, start, System.nanoTime() - userTime);
+	}
+
+	/**
+	 * Records a phase measured by the caller
+	 *
+	 * @param phase      - The name of the phase
+	 * @param phaseStart - When the phase started, from System.nanoTime()
+	 * @param phaseEnd   - When the phase ended, from System.nanoTime()
+	 */
+	public static synchronized void record(final String phase, final long phaseStart, final long phaseEnd) {
+		phases.add(String.format("%s: started at %d ms, took %d ms", phase,
+				TimeUnit.NANOSECONDS.toMillis(phaseStart - start), TimeUnit.NANOSECONDS.toMillis(phaseEnd - phaseStart)));
+	}
+
+	/**
+	 * @return One line per phase measured since the startup began
+	 */
+	public static synchronized String report() {
+		return String.join(System.lineSeparator(), phases);
+	}
+}
@@ -0,0 +1,178 @@
+package sms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The prepared statements of one physical connection, kept open and reused in
+ * least-recently-used order. A statement handed out by the cache is given back
+ * to it when it's closed
+ */
+class StatementCache {
+	/**
+	 * The connection the statements are prepared on
+	 */
+	private final Connection connection;
+
+	/**
+	 * The maximum number of statements kept open on the connection
+	 */
+	private final int capacity;
+
+	/**
+	 * Cached statements by SQL text, the least recently used one first
+	 */
+	private final LinkedHashMap<String, CachedStatement> statements;
+
+	/**
+	 * Counters shared by every cache of a pool
+	 */
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+
+	StatementCache(final Connection connection, final int capacity, final AtomicLong hits, final AtomicLong misses) {
+		this.connection = connection;
+		this.capacity = capacity;
+		this.hits = hits;
+		this.misses = misses;
+		this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true);
+	}
+
+	/**
+	 * Gets the prepared statement for a SQL text, preparing it on the first use
+	 *
+	 * @param owner             - The pooled connection the statement should report
+	 *                          as its connection
+	 * @param sql               - The SQL text of the statement
+	 * @param autoGeneratedKeys - Statement.RETURN_GENERATED_KEYS or
+	 *                          Statement.NO_GENERATED_KEYS
+	 * @return A statement that goes back to the cache when it's closed
+	 */
+	PreparedStatement prepare(final Connection owner, final String sql, final int autoGeneratedKeys)
+			throws SQLException {
+		final String key = autoGeneratedKeys + ":" + sql;
+		CachedStatement cached = statements.get(key);
+
+		if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+
+			PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys);
+
+			// The same statement is already used further up the stack, don't cache this one
+			if (cached != null && cached.inUse) {
+				return statement;
+			}
+
+			cached = new CachedStatement(statement);
+			statements.put(key, cached);
+			evictLeastRecentlyUsed();
+		}
+
+		cached.inUse = true;
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new CachedStatementHandler(owner, cached));
+	}
+
+	/**
+	 * Closes every cached statement
+	 */
+	void clear() {
+		for (CachedStatement cached : statements.values()) {
+			close(cached.statement);
+		}
+		statements.clear();
+	}
+
+	/**
+	 * Closes the least recently used statements above the cache's capacity
+	 */
+	private void evictLeastRecentlyUsed() {
+		Iterator<CachedStatement> iterator = statements.values().iterator();
+
+		while (statements.size() > capacity && iterator.hasNext()) {
+			CachedStatement cached = iterator.next();
+
+			if (!cached.inUse) {
+				iterator.remove();
+				close(cached.statement);
+			}
+		}
+	}
+
+	private static void close(final PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * A prepared statement and whether someone is using it right now
+	 */
+	private static class CachedStatement {
+		private final PreparedStatement statement;
+		private boolean inUse;
+
+		private CachedStatement(final PreparedStatement statement) {
+			this.statement = statement;
+		}
+	}
+
+	/**
+	 * Forwards every call to the cached statement, except close() which clears it
+	 * and gives it back to the cache
+	 */
+	private static class CachedStatementHandler implements InvocationHandler {
+		private final Connection owner;
+		private final CachedStatement cached;
+		private boolean returned;
+
+		private CachedStatementHandler(final Connection owner, final CachedStatement cached) {
+			this.owner = owner;
+			this.cached = cached;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (!returned) {
+					returned = true;
+					cached.statement.clearParameters();
+					cached.statement.clearBatch();
+					cached.inUse = false;
+				}
+				return null;
+			case "isClosed":
+				return returned || cached.statement.isClosed();
+			case "getConnection":
+				return owner;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				if (returned) {
+					throw new SQLException("The statement has already been closed");
+				}
+			}
+
+			try {
+				return method.invoke(cached.statement, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
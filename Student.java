@@ -49,31 +49,26 @@ public class Student {
 	private Date graduation;
 
 	/**
-	 * The unique id of the student
+	 * The unique id of the student, 0 until one is assigned
 	 */
 	int id;
 
 	/**
-	 * The counter that is increased by one everytime a new instance is created,
-	 * used for ID system
+	 * Creates a student without an ID, which is assigned when the student is
+	 * added to the database
 	 */
-	static int counter;
+	public Student() {
 
-	/**
-	 * Counter is set to 1 initially
-	 */
-	static {
-		counter = 1;
 	}
 
 	/**
-	 * Default constructor
+	 * Creates a student that already has an ID, e.g. one read from the database
+	 * or one allocated with DBHandler.nextStudentId()
+	 * 
+	 * @param id - The unique id of the student
 	 */
-	public Student() {
-		// The unique id of the student is set to value of the counter
-		this.id = counter;
-		// The counter after that is increased by one
-		counter++;
+	public Student(final int id) {
+		this.id = id;
 	}
 
 	/**
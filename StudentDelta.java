@@ -0,0 +1,75 @@
+package sms;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The students that have been added, changed or deleted since a table was last
+ * refreshed
+ */
+public class StudentDelta {
+	/**
+	 * How long the deleted students are remembered, in milliseconds. The changes
+	 * since an older moment are read in full, since some of the deletions may have
+	 * been forgotten
+	 */
+	public static final long DELETIONS_RETENTION = TimeUnit.DAYS.toMillis(1);
+
+	private final boolean full;
+	private final List<Student> changed;
+	private final List<Integer> deletedIds;
+	private final Timestamp syncTime;
+
+	/**
+	 * @param full       - Whether the changed students are all the students, in
+	 *                   which case the table is replaced instead of patched
+	 * @param changed    - The students added or changed
+	 * @param deletedIds - The IDs of the students deleted
+	 * @param syncTime   - The moment the changes have been read at, to pass on
+	 *                   the next refresh
+	 */
+	public StudentDelta(final boolean full, final List<Student> changed, final List<Integer> deletedIds,
+			final Timestamp syncTime) {
+		this.full = full;
+		this.changed = Collections.unmodifiableList(changed);
+		this.deletedIds = Collections.unmodifiableList(deletedIds);
+		this.syncTime = syncTime;
+	}
+
+	/**
+	 * @return Whether the changed students are all the students
+	 */
+	public boolean isFull() {
+		return full;
+	}
+
+	/**
+	 * @return The students added or changed
+	 */
+	public List<Student> getChanged() {
+		return changed;
+	}
+
+	/**
+	 * @return The IDs of the students deleted
+	 */
+	public List<Integer> getDeletedIds() {
+		return deletedIds;
+	}
+
+	/**
+	 * @return The moment the changes have been read at
+	 */
+	public Timestamp getSyncTime() {
+		return syncTime;
+	}
+
+	/**
+	 * @return Whether there is nothing to apply
+	 */
+	public boolean isEmpty() {
+		return !full && changed.isEmpty() && deletedIds.isEmpty();
+	}
+}
@@ -0,0 +1,176 @@
+package sms;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The criteria the students shown in the management table have to meet. Every
+ * criterion is optional(null) and the ones given all have to be met. They
+ * become the conditions of the queries reading the students, so the database
+ * only returns the students shown, using the indexes on the columns. Immutable
+ */
+public class StudentFilter {
+	/**
+	 * The filter without criteria, which every student meets
+	 */
+	public static final StudentFilter NONE = new StudentFilter(null, null, null, null, null, null, null);
+
+	private final String course;
+	private final String faculty;
+	private final Gender gender;
+	private final Integer minAge;
+	private final Integer maxAge;
+	private final LocalDate startedFrom;
+	private final LocalDate startedTo;
+
+	/**
+	 * @param course      - The course of the students, or null
+	 * @param faculty     - The faculty of the students' course, or null
+	 * @param gender      - The gender of the students, or null
+	 * @param minAge      - The lowest age, or null
+	 * @param maxAge      - The highest age, or null
+	 * @param startedFrom - The earliest day the students started, or null
+	 * @param startedTo   - The latest day the students started, or null
+	 * @throws IllegalArgumentException If a range ends before it starts
+	 */
+	public StudentFilter(final String course, final String faculty, final Gender gender, final Integer minAge,
+			final Integer maxAge, final LocalDate startedFrom, final LocalDate startedTo) {
+		if (minAge != null && maxAge != null && minAge > maxAge) {
+			throw new IllegalArgumentException("Age range ends before it starts: " + minAge + " - " + maxAge);
+		}
+		if (startedFrom != null && startedTo != null && startedFrom.isAfter(startedTo)) {
+			throw new IllegalArgumentException("Date range ends before it starts: " + startedFrom + " - " + startedTo);
+		}
+
+		this.course = course;
+		this.faculty = faculty;
+		this.gender = gender;
+		this.minAge = minAge;
+		this.maxAge = maxAge;
+		this.startedFrom = startedFrom;
+		this.startedTo = startedTo;
+	}
+
+	/**
+	 * @return The course of the students, or null
+	 */
+	public String getCourse() {
+		return course;
+	}
+
+	/**
+	 * @return The faculty of the students' course, or null
+	 */
+	public String getFaculty() {
+		return faculty;
+	}
+
+	/**
+	 * @return The gender of the students, or null
+	 */
+	public Gender getGender() {
+		return gender;
+	}
+
+	/**
+	 * @return The lowest age, or null
+	 */
+	public Integer getMinAge() {
+		return minAge;
+	}
+
+	/**
+	 * @return The highest age, or null
+	 */
+	public Integer getMaxAge() {
+		return maxAge;
+	}
+
+	/**
+	 * @return The earliest day the students started, or null
+	 */
+	public LocalDate getStartedFrom() {
+		return startedFrom;
+	}
+
+	/**
+	 * @return The latest day the students started, or null
+	 */
+	public LocalDate getStartedTo() {
+		return startedTo;
+	}
+
+	/**
+	 * @return Whether there are no criteria, so every student meets the filter
+	 */
+	public boolean isEmpty() {
+		return getConditions().isEmpty();
+	}
+
+	/**
+	 * @return The SQL conditions of the criteria given, joined by "and", or an
+	 *         empty text if there are none. Their parameters are set by
+	 *         setParameters(), in the same order
+	 */
+	String getConditions() {
+		List<String> conditions = new ArrayList<String>();
+		if (course != null) {
+			conditions.add("Course = ?");
+		}
+		if (faculty != null) {
+			conditions.add("Course in (select Name from " + DBHandler.getCoursesTable() + " where Faculty = ?)");
+		}
+		if (gender != null) {
+			conditions.add("Gender = ?");
+		}
+		if (minAge != null) {
+			conditions.add("Age >= ?");
+		}
+		if (maxAge != null) {
+			conditions.add("Age <= ?");
+		}
+		if (startedFrom != null) {
+			conditions.add("Started >= ?");
+		}
+		if (startedTo != null) {
+			conditions.add("Started <= ?");
+		}
+		return String.join(" and ", conditions);
+	}
+
+	/**
+	 * Sets the parameters of the conditions
+	 *
+	 * @param first - The index of the first parameter of the conditions in the
+	 *              statement
+	 * @return The index of the parameter after them
+	 */
+	int setParameters(final PreparedStatement preparedStatement, final int first) throws SQLException {
+		int parameter = first;
+		if (course != null) {
+			preparedStatement.setString(parameter++, course);
+		}
+		if (faculty != null) {
+			preparedStatement.setString(parameter++, faculty);
+		}
+		if (gender != null) {
+			preparedStatement.setString(parameter++, gender.name());
+		}
+		if (minAge != null) {
+			preparedStatement.setInt(parameter++, minAge);
+		}
+		if (maxAge != null) {
+			preparedStatement.setInt(parameter++, maxAge);
+		}
+		if (startedFrom != null) {
+			preparedStatement.setDate(parameter++, java.sql.Date.valueOf(startedFrom));
+		}
+		if (startedTo != null) {
+			preparedStatement.setDate(parameter++, java.sql.Date.valueOf(startedTo));
+		}
+		return parameter;
+	}
+}
@@ -0,0 +1,182 @@
+package sms;
+
+import java.awt.Dialog;
+import java.awt.Font;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JTextField;
+import javax.swing.WindowConstants;
+
+/**
+ * Lets the user choose the criteria the students shown in the management table
+ * have to meet. The fields left empty aren't criteria
+ */
+public class StudentFilterDialog extends JDialog {
+	private static final long serialVersionUID = 1L;
+
+	// The components whose texts follow the selected language
+	private final LocalizedComponents texts = new LocalizedComponents();
+
+	private final JComboBox<String> courseBox;
+	private final JComboBox<String> facultyBox;
+	private final JComboBox<String> genderBox;
+	private final JTextField minAgeField;
+	private final JTextField maxAgeField;
+	private final JTextField startedFromField;
+	private final JTextField startedToField;
+
+	/**
+	 * The filter chosen, null while none has been or if the dialog has been
+	 * cancelled
+	 */
+	private StudentFilter chosen;
+
+	/**
+	 * Shows the dialog and waits until it is closed
+	 *
+	 * @param owner     - The window the dialog is shown over
+	 * @param current   - The filter shown in the fields
+	 * @param courses   - The courses the user can choose from
+	 * @param faculties - The faculties the user can choose from
+	 * @return The filter chosen, StudentFilter.NONE if it has been cleared, or
+	 *         null if the dialog has been cancelled
+	 */
+	public static StudentFilter choose(final JFrame owner, final StudentFilter current, final String[] courses,
+			final String[] faculties) {
+		StudentFilterDialog dialog = new StudentFilterDialog(owner, current, courses, faculties);
+		dialog.setVisible(true);
+		return dialog.chosen;
+	}
+
+	private StudentFilterDialog(final JFrame owner, final StudentFilter current, final String[] courses,
+			final String[] faculties) {
+		super(owner, Dialog.ModalityType.APPLICATION_MODAL);
+		texts.bind(this, Messages.filterTitle, Dialog::setTitle);
+		texts.attach(this);
+		setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		setBounds(0, 0, 420, 290);
+		setLocationRelativeTo(owner);
+		setResizable(false);
+		getContentPane().setLayout(null);
+
+		courseBox = addChoice(Messages.course, 15, courses, current.getCourse());
+		facultyBox = addChoice(Messages.faculty, 50, faculties, current.getFaculty());
+
+		String[] genders = new String[Gender.values().length];
+		for (Gender gender : Gender.values()) {
+			genders[gender.ordinal()] = gender.name();
+		}
+		genderBox = addChoice(Messages.gender, 85, genders,
+				current.getGender() == null ? null : current.getGender().name());
+
+		addLabel(Messages.ageRange, 120);
+		minAgeField = addField(180, 120, current.getMinAge());
+		maxAgeField = addField(290, 120, current.getMaxAge());
+
+		addLabel(Messages.startedRange, 155);
+		startedFromField = addField(180, 155, current.getStartedFrom());
+		startedToField = addField(290, 155, current.getStartedTo());
+
+		JButton applyButton = texts.button(Messages.applyFilter);
+		applyButton.setName("applyFilterButton");
+		applyButton.setBounds(15, 205, 120, 30);
+		applyButton.addActionListener(e -> apply());
+		getContentPane().add(applyButton);
+		getRootPane().setDefaultButton(applyButton);
+
+		JButton clearButton = texts.button(Messages.clearFilter);
+		clearButton.setName("clearFilterButton");
+		clearButton.setBounds(145, 205, 120, 30);
+		clearButton.addActionListener(e -> {
+			chosen = StudentFilter.NONE;
+			dispose();
+		});
+		getContentPane().add(clearButton);
+
+		JButton cancelButton = texts.button(Messages.cancel);
+		cancelButton.setBounds(275, 205, 120, 30);
+		cancelButton.addActionListener(e -> dispose());
+		getContentPane().add(cancelButton);
+	}
+
+	/**
+	 * Reads the fields into a filter and closes the dialog, or tells the user
+	 * what is wrong with them
+	 */
+	private void apply() {
+		try {
+			chosen = new StudentFilter(selected(courseBox), selected(facultyBox),
+					selected(genderBox) == null ? null : Gender.valueOf(selected(genderBox)),
+					parseAge(minAgeField), parseAge(maxAgeField), parseDate(startedFromField),
+					parseDate(startedToField));
+			dispose();
+		} catch (DateTimeParseException e) {
+			showError(Messages.dateFormatError);
+		} catch (IllegalArgumentException e) {
+			// Not a number, or a range ending before it starts
+			showError(Messages.checkInput);
+		}
+	}
+
+	private void showError(final int messageKey) {
+		JOptionPane.showMessageDialog(this, Translator.getValue(messageKey), Translator.getValue(Messages.error),
+				JOptionPane.ERROR_MESSAGE);
+	}
+
+	private void addLabel(final int key, final int y) {
+		JLabel label = texts.label(key);
+		label.setFont(new Font("Tahoma", Font.PLAIN, 14));
+		label.setBounds(15, y, 160, 24);
+		getContentPane().add(label);
+	}
+
+	/**
+	 * Adds a choice between some values and nothing, which comes first
+	 */
+	private JComboBox<String> addChoice(final int key, final int y, final String[] values, final String selected) {
+		addLabel(key, y);
+
+		String[] choices = new String[values.length + 1];
+		choices[0] = "";
+		System.arraycopy(values, 0, choices, 1, values.length);
+
+		JComboBox<String> box = new JComboBox<>(new DefaultComboBoxModel<>(choices));
+		box.setSelectedItem(selected == null ? "" : selected);
+		box.setBounds(180, y, 215, 24);
+		getContentPane().add(box);
+		return box;
+	}
+
+	private JTextField addField(final int x, final int y, final Object value) {
+		JTextField field = new JTextField(value == null ? "" : value.toString());
+		field.setBounds(x, y, 105, 24);
+		getContentPane().add(field);
+		return field;
+	}
+
+	/**
+	 * @return The value chosen, or null if it is nothing
+	 */
+	private static String selected(final JComboBox<String> box) {
+		final Object selected = box.getSelectedItem();
+		return selected == null || selected.toString().isEmpty() ? null : selected.toString();
+	}
+
+	private static Integer parseAge(final JTextField field) {
+		final String text = field.getText().trim();
+		return text.isEmpty() ? null : Integer.valueOf(text);
+	}
+
+	private static LocalDate parseDate(final JTextField field) {
+		final String text = field.getText().trim();
+		return text.isEmpty() ? null : LocalDate.parse(text);
+	}
+}
@@ -0,0 +1,85 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+/**
+ * The class that tests StudentFilter class and the statements built with it
+ */
+public class StudentFilterTest {
+
+	@Test
+	public void emptyFilterHasNoConditions() {
+		assertTrue(StudentFilter.NONE.isEmpty());
+		assertEquals("", StudentFilter.NONE.getConditions());
+		assertEquals(SqlStatement.SELECT_STUDENT_COUNT.getSql(), SqlStatement.selectStudentCount(StudentFilter.NONE));
+		assertEquals("select * from students order by Surname, ID limit ?",
+				SqlStatement.selectStudentPage("Surname", false, null, null, StudentFilter.NONE));
+	}
+
+	@Test
+	public void criteriaBecomeConditions() {
+		StudentFilter filter = new StudentFilter("Physics", null, Gender.Female, 18, null, null,
+				LocalDate.of(2020, 9, 1));
+
+		assertFalse(filter.isEmpty());
+		assertEquals("Course = ? and Gender = ? and Age >= ? and Started <= ?", filter.getConditions());
+		assertEquals("select count(*) from students where Course = ? and Gender = ? and Age >= ? and Started <= ?",
+				SqlStatement.selectStudentCount(filter));
+	}
+
+	@Test
+	public void filterComesBeforeThePageKey() {
+		StudentFilter filter = new StudentFilter(null, "Science", null, null, 30, null, null);
+
+		assertEquals("select * from students where Course in (select Name from courses where Faculty = ?) "
+				+ "and Age <= ? and (Age, ID) < (?, ?) order by Age desc, ID desc limit ?",
+				SqlStatement.selectStudentPage("Age", true, new Object[]{40, 7}, null, filter));
+	}
+
+	@Test
+	public void emptyPageKeysAreComparedById() {
+		assertEquals("select * from students where (Started is null and ID > ? or Started is not null) "
+				+ "order by Started, ID limit ?",
+				SqlStatement.selectStudentPage("Started", false, new Object[]{null, 7}, null, StudentFilter.NONE));
+		assertEquals("select * from students where (Gender is null and ID < ?) order by Gender desc, ID desc limit ?",
+				SqlStatement.selectStudentPage("Gender", true, new Object[]{null, 7}, null, StudentFilter.NONE));
+
+		// In descending order the empty values come last, after every key
+		assertEquals("select * from students where ((Graduation, ID) < (?, ?) or Graduation is null) "
+				+ "order by Graduation desc, ID desc limit ?",
+				SqlStatement.selectStudentPage("Graduation", true, new Object[]{"2024-06-30", 7}, null,
+						StudentFilter.NONE));
+	}
+
+	@Test
+	public void pagesEndAtTheirLastKey() {
+		assertEquals("select * from students where (Age, ID) > (?, ?) and (Age, ID) <= (?, ?) order by Age, ID limit ?",
+				SqlStatement.selectStudentPage("Age", false, new Object[]{20, 7}, new Object[]{22, 3},
+						StudentFilter.NONE));
+
+		// The empty values come first, so they are all before a key that isn't empty
+		assertEquals("select * from students where ((Started, ID) <= (?, ?) or Started is null) "
+				+ "order by Started, ID limit ?",
+				SqlStatement.selectStudentPage("Started", false, null, new Object[]{"2021-09-01", 7},
+						StudentFilter.NONE));
+		assertEquals("select * from students where (Gender is not null or ID >= ?) "
+				+ "order by Gender desc, ID desc limit ?",
+				SqlStatement.selectStudentPage("Gender", true, null, new Object[]{null, 7}, StudentFilter.NONE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ageRangeMustNotEndBeforeItStarts() {
+		new StudentFilter(null, null, null, 30, 20, null, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void dateRangeMustNotEndBeforeItStarts() {
+		new StudentFilter(null, null, null, null, null, LocalDate.of(2021, 1, 1), LocalDate.of(2020, 1, 1));
+	}
+}
@@ -0,0 +1,144 @@
+package sms;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Where the pages of the students table start in a certain order: the number
+ * of students and the key of the last row of every full page
+ */
+public class StudentPageIndex {
+	private final int rowCount;
+	private final List<Object[]> pageKeys;
+	private final Timestamp syncTime;
+
+	/**
+	 * @param rowCount - The number of students
+	 * @param pageKeys - The sorting value and the ID of the last row of every full
+	 *                 page, in order
+	 * @param syncTime - The moment the index has been read at, to read the
+	 *                 changes made after it
+	 */
+	public StudentPageIndex(final int rowCount, final List<Object[]> pageKeys, final Timestamp syncTime) {
+		this.rowCount = rowCount;
+		this.pageKeys = Collections.unmodifiableList(pageKeys);
+		this.syncTime = syncTime;
+	}
+
+	/**
+	 * @return The number of students
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @param page - The index of a page, counting from 0
+	 * @return The key of the row before the page, or null for the first page
+	 */
+	public Object[] getKeyBefore(final int page) {
+		return page == 0 || page > pageKeys.size() ? null : pageKeys.get(page - 1);
+	}
+
+	/**
+	 * @param page - The index of a page, counting from 0
+	 * @return The key of the last row of the page, or null for the last page,
+	 *         which has no end
+	 */
+	public Object[] getKeyLast(final int page) {
+		return page < pageKeys.size() ? pageKeys.get(page) : null;
+	}
+
+	/**
+	 * @return The number of pages the keys split the students into. The last one
+	 *         may be empty
+	 */
+	public int getPageCount() {
+		return pageKeys.size() + 1;
+	}
+
+	/**
+	 * Finds the page a student belongs on, e.g. one that has just been added
+	 *
+	 * @param column     - The index of the column the index is sorted by
+	 * @param descending - Whether the order is descending
+	 * @return The index of the page
+	 */
+	public int findPage(final Student student, final int column, final boolean descending) {
+		int low = 0;
+		int high = pageKeys.size();
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (compareToKey(student, pageKeys.get(middle), column, descending) <= 0) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return The moment the index has been read at
+	 */
+	public Timestamp getSyncTime() {
+		return syncTime;
+	}
+
+	/**
+	 * @return Whether a student comes before(negative) or after(positive) the row
+	 *         of a page key in a certain order
+	 */
+	static int compareToKey(final Student student, final Object[] key, final int column,
+			final boolean descending) {
+		int compared = compareValues(sortValue(student, column), key[0]);
+		if (compared == 0) {
+			compared = Integer.compare(student.getId(), ((Number) key[1]).intValue());
+		}
+		return descending ? -compared : compared;
+	}
+
+	/**
+	 * @return The value of a column of the students table
+	 */
+	static Object sortValue(final Student student, final int column) {
+		switch (column) {
+		case 0:
+			return student.getId();
+		case 1:
+			return student.getName();
+		case 2:
+			return student.getSurname();
+		case 3:
+			return student.getAge();
+		case 4:
+			return student.getGender() == null ? null : student.getGender().name();
+		case 5:
+			return student.getCourse();
+		case 6:
+			return student.getStarted();
+		default:
+			return student.getGraduation();
+		}
+	}
+
+	/**
+	 * Compares the values of a column, the empty ones first and the texts ignoring
+	 * case, as the database does
+	 */
+	@SuppressWarnings("unchecked")
+	static int compareValues(final Object first, final Object second) {
+		if (first == null || second == null) {
+			return first == null ? (second == null ? 0 : -1) : 1;
+		}
+		if (first instanceof String && second instanceof String) {
+			return String.CASE_INSENSITIVE_ORDER.compare((String) first, (String) second);
+		}
+		if (first instanceof Date && second instanceof Date) {
+			return Long.compare(((Date) first).getTime(), ((Date) second).getTime());
+		}
+		return ((Comparable<Object>) first).compareTo(second);
+	}
+}
@@ -0,0 +1,291 @@
+package sms;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Where the students, courses and faculties are stored. The views and the
+ * services only talk to the repository chosen when connecting, so the same
+ * application runs against the MySQL database or entirely in memory. The
+ * methods report errors the way DBHandler does: false, null or -1 instead of
+ * exceptions. Implementations are thread safe
+ */
+public interface StudentRepository {
+	/**
+	 * Checks that the storage can be reached
+	 *
+	 * @return True if it can, false otherwise
+	 */
+	boolean testConnection();
+
+	/**
+	 * Creates the tables of students, courses and faculties, or brings the
+	 * existing ones up to date
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean createTables();
+
+	/**
+	 * Prepares the resources the first operations need, e.g. opens the pooled
+	 * connections ahead of time
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean warmUp();
+
+	/**
+	 * @param tableName - Table's name that is wanted to be checked
+	 * @return True if table exists, false otherwise
+	 */
+	boolean checkIfTableExists(String tableName);
+
+	/**
+	 * Adds a new student. The student's graduation date is set according to the
+	 * duration of their course, and the student gets an ID unless it already has
+	 * one
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean addStudent(Student student);
+
+	/**
+	 * Adds many students at once, in batches of DBHandler.DEFAULT_BATCH_SIZE
+	 *
+	 * @see #addStudents(Collection, int)
+	 */
+	default int[] addStudents(final Collection<Student> students) {
+		return addStudents(students, DBHandler.DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Adds many students at once. Either all the students are added or none
+	 *
+	 * @param students  - The students to add. The ones without an ID get one, and
+	 *                  their graduation dates are set
+	 * @param batchSize - The number of rows written at once
+	 * @return The IDs of the added students in the order they were given, or null
+	 *         if an exception has been thrown
+	 */
+	int[] addStudents(Collection<Student> students, int batchSize);
+
+	/**
+	 * Allocates the ID of a student that will be added later
+	 *
+	 * @return The ID, or -1 if none could be allocated
+	 */
+	int nextStudentId();
+
+	/**
+	 * @return All the students, or null if an exception has been thrown
+	 */
+	List<Student> getStudents();
+
+	/**
+	 * Reads a whole table one row at a time
+	 *
+	 * @param tableName  - The students, courses or faculties table
+	 * @param rowHandler - Receives the column names first and then the values of
+	 *                   every row. The arrays are not reused
+	 * @throws SQLException If the table can't be read
+	 */
+	void streamTable(String tableName, Consumer<Object[]> rowHandler) throws SQLException;
+
+	/**
+	 * Reads the number of students meeting a filter and the key of the last row
+	 * of every page in a certain order
+	 *
+	 * @param column     - The index of the column the students are sorted by
+	 * @param descending - Whether the order is descending
+	 * @param filter     - The criteria the students have to meet
+	 * @param pageSize   - The number of students on a page
+	 * @return The index, or null if an exception has been thrown
+	 */
+	StudentPageIndex getStudentPageIndex(int column, boolean descending, StudentFilter filter, int pageSize);
+
+	/**
+	 * Reads one page of students in a certain order
+	 *
+	 * @param keyBefore - A key of the page index, the row before the page, or
+	 *                  null for the first page
+	 * @param keyLast   - A key of the page index, the last row of the page, or
+	 *                  null to read pageSize rows. The rows up to it are read even
+	 *                  if rows have been added since the index was read, as long
+	 *                  as there are at most pageSize
+	 * @param pageSize  - The most students read
+	 * @return The students on the page, or null if an exception has been thrown
+	 * @see #getStudentPageIndex(int, boolean, StudentFilter, int)
+	 */
+	List<Student> getStudentPage(int column, boolean descending, StudentFilter filter, Object[] keyBefore,
+			Object[] keyLast, int pageSize);
+
+	/**
+	 * Reads certain students
+	 *
+	 * @return The students in the order of the IDs given, leaving out the ones that
+	 *         don't exist anymore or don't meet the filter, or null if an
+	 *         exception has been thrown
+	 */
+	List<Student> getStudentsById(int[] ids, StudentFilter filter);
+
+	/**
+	 * @return The names of all the students in a search index, or null if an
+	 *         exception has been thrown
+	 */
+	StudentSearchIndex readSearchIndex();
+
+	/**
+	 * @return All the students in a columnar store, or null if an exception has
+	 *         been thrown
+	 */
+	StudentStore readStudentStore();
+
+	/**
+	 * Reads the students that have been added, changed or deleted since a certain
+	 * moment
+	 *
+	 * @param since - The sync time of the previous delta, or null to read all the
+	 *              students
+	 * @return The changes, or null if an exception has been thrown
+	 */
+	StudentDelta getStudentChanges(Timestamp since);
+
+	/**
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean deleteStudent(int id);
+
+	/**
+	 * @return True if the faculty has been added, false if it already exists or
+	 *         an exception has been thrown
+	 */
+	boolean addFaculty(String facultyName);
+
+	/**
+	 * @return True if the course has been added, false if it already exists or an
+	 *         exception has been thrown
+	 */
+	default boolean addCourse(final String courseName, final String faculty, final int duration) {
+		return addCourses(Collections.singletonList(new Course(courseName, faculty, duration)));
+	}
+
+	/**
+	 * Adds many courses at once, all of them or none. Students already enrolled
+	 * in a course with the same name count as its attendees
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean addCourses(Collection<Course> courses);
+
+	/**
+	 * Adds many faculties at once, all of them or none
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean addFaculties(Collection<String> facultyNames);
+
+	/**
+	 * @return All the faculties
+	 */
+	String[] getFaculties();
+
+	/**
+	 * @return All the courses
+	 */
+	String[] getCourses();
+
+	/**
+	 * Corrects the numbers of attendees and courses that drifted from the
+	 * students and courses
+	 *
+	 * @return The number of courses and faculties corrected, or -1 if an exception
+	 *         has been thrown
+	 */
+	int repairAttendees();
+
+	/**
+	 * @param tableName - The courses or faculties table
+	 * @return True if the table has an element with that name, false otherwise
+	 */
+	boolean checkIfElementExists(String tableName, String name);
+
+	/**
+	 * @param tableName - The courses or faculties table
+	 * @return The number of attendees of a course or faculty
+	 */
+	int getNumberOfAttendees(String tableName, String element);
+
+	/**
+	 * @return The number of courses in a faculty
+	 */
+	int getNumberOfCourses(String faculty);
+
+	/**
+	 * Deletes the students that attend a certain course
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean deleteCourseAttendees(String course);
+
+	/**
+	 * Deletes a course, leaving its students
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean deleteCourse(String course);
+
+	/**
+	 * Deletes a faculty, leaving its courses
+	 *
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean deleteFaculty(String faculty);
+
+	/**
+	 * Deletes a course with the students attending it, all of them or none
+	 *
+	 * @return The number of rows deleted, or null if an exception has been thrown
+	 */
+	DeleteReport deleteCourseCascade(String course);
+
+	/**
+	 * Deletes a faculty with its courses and the students attending them, all of
+	 * them or none
+	 *
+	 * @return The number of rows deleted, or null if an exception has been thrown
+	 */
+	DeleteReport deleteFacultyCascade(String faculty);
+
+	/**
+	 * Changes one field of a student
+	 *
+	 * @see #updateStudentsFields(Map)
+	 */
+	default boolean updateStudentField(final int id, final int column, final String value) {
+		return updateStudentFields(id, Collections.singletonMap(column, value));
+	}
+
+	/**
+	 * Changes several fields of a student
+	 *
+	 * @see #updateStudentsFields(Map)
+	 */
+	default boolean updateStudentFields(final int id, final Map<Integer, String> fields) {
+		return updateStudentsFields(Collections.singletonMap(id, fields));
+	}
+
+	/**
+	 * Changes fields of many students, all of them or none
+	 *
+	 * @param edits - The new values of the fields by table column(1 - name, 2 -
+	 *              surname, 3 - age, 4 - gender), by student ID, the other
+	 *              columns can't be changed and are ignored
+	 * @return True if no exception has been thrown, false otherwise
+	 */
+	boolean updateStudentsFields(Map<Integer, Map<Integer, String>> edits);
+}
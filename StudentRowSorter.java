@@ -0,0 +1,103 @@
+package sms;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+/**
+ * Lets the user sort the management table by clicking on the column headers,
+ * while the sorting itself is done by the database through the model. The rows
+ * are shown in the order the model holds them
+ */
+public class StudentRowSorter extends RowSorter<StudentTableModel> {
+	private final StudentTableModel model;
+	private List<SortKey> sortKeys = Collections.emptyList();
+
+	/**
+	 * @param model - The model that sorts the students
+	 */
+	public StudentRowSorter(final StudentTableModel model) {
+		this.model = model;
+	}
+
+	@Override
+	public StudentTableModel getModel() {
+		return model;
+	}
+
+	@Override
+	public void toggleSortOrder(final int column) {
+		SortOrder order = SortOrder.ASCENDING;
+		if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column
+				&& sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING) {
+			order = SortOrder.DESCENDING;
+		}
+
+		setSortKeys(Collections.singletonList(new SortKey(column, order)));
+	}
+
+	@Override
+	public void setSortKeys(final List<? extends SortKey> keys) {
+		// Only the first key is used, the ID always breaks the ties
+		sortKeys = keys == null || keys.isEmpty() ? Collections.<SortKey>emptyList()
+				: Collections.singletonList(keys.get(0));
+
+		if (sortKeys.isEmpty()) {
+			model.sort(0, false);
+		} else {
+			model.sort(sortKeys.get(0).getColumn(), sortKeys.get(0).getSortOrder() == SortOrder.DESCENDING);
+		}
+		fireSortOrderChanged();
+	}
+
+	@Override
+	public List<? extends SortKey> getSortKeys() {
+		return sortKeys;
+	}
+
+	@Override
+	public int convertRowIndexToModel(final int index) {
+		return index;
+	}
+
+	@Override
+	public int convertRowIndexToView(final int index) {
+		return index;
+	}
+
+	@Override
+	public int getViewRowCount() {
+		return model.getRowCount();
+	}
+
+	@Override
+	public int getModelRowCount() {
+		return model.getRowCount();
+	}
+
+	@Override
+	public void modelStructureChanged() {
+	}
+
+	@Override
+	public void allRowsChanged() {
+	}
+
+	@Override
+	public void rowsInserted(final int firstRow, final int endRow) {
+	}
+
+	@Override
+	public void rowsDeleted(final int firstRow, final int endRow) {
+	}
+
+	@Override
+	public void rowsUpdated(final int firstRow, final int endRow) {
+	}
+
+	@Override
+	public void rowsUpdated(final int firstRow, final int endRow, final int column) {
+	}
+}
@@ -0,0 +1,117 @@
+package sms;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures how long StudentSearchIndex takes to build and to answer the
+ * queries a user types, prefixes of one or two words and words with a typo.
+ * The names and surnames are made of random syllables and some are far more
+ * common than others, as in real names. Optionally pass the number of
+ * students(1000000 by default)
+ */
+public class StudentSearchBenchmark {
+	/**
+	 * The default number of students
+	 */
+	private static final int DEFAULT_ROWS = 1_000_000;
+
+	/**
+	 * The number of distinct names and surnames the students have
+	 */
+	private static final int NAMES = 5_000;
+	private static final int SURNAMES = 100_000;
+
+	private static final String CONSONANTS = "bcdfghjklmnprstvz";
+	private static final String VOWELS = "aeiou";
+
+	/**
+	 * The number of times every query is run
+	 */
+	private static final int RUNS = 200;
+
+	public static void main(String[] args) {
+		final int rows = args != null && args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+
+		final long buildStart = System.nanoTime();
+		StudentSearchIndex index = new StudentSearchIndex();
+		Random random = new Random(1);
+		final String[] names = words(NAMES, random);
+		final String[] surnames = words(SURNAMES, random);
+		String name = null;
+		String surname = null;
+		for (int i = 0; i < rows; i++) {
+			name = new String(pick(names, random));
+			surname = new String(pick(surnames, random));
+			index.put(i + 1, name, surname);
+		}
+		System.out.printf("Indexed %,d students, %,d words, in %,d ms%n", index.size(), index.getWordCount(),
+				(System.nanoTime() - buildStart) / 1_000_000);
+
+		// Queries as they are typed for the last student, then with typos and for nobody
+		final String[] queries = { name.substring(0, 1), name.substring(0, 2), name.substring(0, 4),
+				name.substring(0, 2) + " " + surname.substring(0, 2), name + " " + surname, typo(name),
+				typo(name) + " " + typo(surname), "qqqqqq" };
+		// Let the JIT compile the searches first
+		for (String query : queries) {
+			for (int run = 0; run < RUNS; run++) {
+				index.search(query, StudentSearchIndex.DEFAULT_LIMIT);
+			}
+		}
+
+		for (String query : queries) {
+			int found = 0;
+			long worst = 0;
+			final long start = System.nanoTime();
+			for (int run = 0; run < RUNS; run++) {
+				final long runStart = System.nanoTime();
+				found = index.search(query, StudentSearchIndex.DEFAULT_LIMIT).length;
+				worst = Math.max(worst, System.nanoTime() - runStart);
+			}
+			System.out.printf("%-24s %3d found: %7.3f ms on average, %7.3f ms at worst%n", "\"" + query + "\"", found,
+					(System.nanoTime() - start) / 1e6 / RUNS, worst / 1e6);
+		}
+	}
+
+	/**
+	 * @return Distinct words of two to four syllables
+	 */
+	private static String[] words(final int count, final Random random) {
+		Set<String> words = new LinkedHashSet<String>();
+		while (words.size() < count) {
+			words.add(word(random));
+		}
+		return words.toArray(new String[0]);
+	}
+
+	/**
+	 * Picks a word, the first ones far more often than the last ones, as some
+	 * names are far more common than others
+	 */
+	private static String pick(final String[] words, final Random random) {
+		final double skewed = Math.pow(random.nextDouble(), 3);
+		return words[(int) (skewed * words.length)];
+	}
+
+	/**
+	 * @return A word of two to four syllables
+	 */
+	private static String word(final Random random) {
+		StringBuilder word = new StringBuilder();
+		final int syllables = 2 + random.nextInt(3);
+		for (int i = 0; i < syllables; i++) {
+			word.append(CONSONANTS.charAt(random.nextInt(CONSONANTS.length())));
+			word.append(VOWELS.charAt(random.nextInt(VOWELS.length())));
+		}
+		word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+		return word.toString();
+	}
+
+	/**
+	 * @return A word with its second and third letters swapped
+	 */
+	private static String typo(final String word) {
+		return word.charAt(0) + word.substring(2, 3) + word.substring(1, 2) + word.substring(3);
+	}
+}
@@ -0,0 +1,500 @@
+package sms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds students by their name and surname in memory, as the user types. The
+ * words of the names are kept in sorted order with the IDs of the students
+ * having them, so the words starting with what has been typed are a range of
+ * that order. When nothing starts with it, the words sharing enough trigrams
+ * with it are compared by edit distance, which finds the names with a typo.
+ * The index is updated one student at a time as students are added, edited
+ * and deleted. Not thread safe
+ */
+public class StudentSearchIndex {
+	/**
+	 * The default maximum number of students found by a search
+	 */
+	public static final int DEFAULT_LIMIT = StudentTableModel.PAGE_SIZE;
+
+	/**
+	 * The most students whose names are compared with the other words of a
+	 * query, so that a search never reads the whole index
+	 */
+	private static final int MAX_CANDIDATES = 50_000;
+
+	/**
+	 * A distinct word of the names, with the IDs of the students having it. Its
+	 * code stands for it in the trigram lists
+	 */
+	private static class Word {
+		private final String text;
+		private final int code;
+		private final IdList ids = new IdList();
+
+		private Word(final String text, final int code) {
+			this.text = text;
+			this.code = code;
+		}
+	}
+
+	/**
+	 * The words matching a word of a query, and a test for the words of a
+	 * student
+	 */
+	private static class Matches {
+		private final String prefix;
+		private final Set<String> closeWords;
+		private final Collection<Word> words;
+
+		/**
+		 * @param prefix     - The query word, which matches the words starting with
+		 *                   it, or null
+		 * @param closeWords - The words matched if there is no prefix
+		 * @param words      - The matched words, the best matches first
+		 */
+		private Matches(final String prefix, final Set<String> closeWords, final Collection<Word> words) {
+			this.prefix = prefix;
+			this.closeWords = closeWords;
+			this.words = words;
+		}
+
+		private boolean matches(final String word) {
+			return prefix != null ? word.startsWith(prefix) : closeWords.contains(word);
+		}
+	}
+
+	/**
+	 * The words of the names, in sorted order, so that the words starting with a
+	 * prefix are a range of it
+	 */
+	private final TreeMap<String, Word> postings = new TreeMap<String, Word>();
+
+	/**
+	 * The words by code, null for the codes of removed words
+	 */
+	private final List<Word> wordsByCode = new ArrayList<Word>();
+
+	/**
+	 * The codes of removed words, reused by new words
+	 */
+	private final IdList freeCodes = new IdList();
+
+	/**
+	 * The words of every student, by ID, to update the postings when the student
+	 * changes
+	 */
+	private final Map<Integer, String[]> words = new HashMap<Integer, String[]>();
+
+	/**
+	 * The codes of the words containing every trigram, by trigram
+	 */
+	private final Map<String, IdList> trigrams = new HashMap<String, IdList>();
+
+	/**
+	 * The number of trigrams every word shares with a query word, by code. Kept
+	 * between searches and cleared after each one
+	 */
+	private int[] sharedTrigrams = new int[0];
+
+	/**
+	 * @return The number of students in the index
+	 */
+	public int size() {
+		return words.size();
+	}
+
+	/**
+	 * @return The number of distinct words in the names
+	 */
+	public int getWordCount() {
+		return postings.size();
+	}
+
+	/**
+	 * Adds a student, or updates it if it is already in the index
+	 */
+	public void put(final int id, final String name, final String surname) {
+		remove(id);
+
+		final String[] studentWords = split(name + " " + surname);
+		for (int i = 0; i < studentWords.length; i++) {
+			Word word = postings.get(studentWords[i]);
+			if (word == null) {
+				word = addWord(studentWords[i]);
+			}
+			word.ids.add(id);
+			// Keep the index's copy of the word, the student's one can be collected
+			studentWords[i] = word.text;
+		}
+		words.put(id, studentWords);
+	}
+
+	/**
+	 * Removes a student, if it is in the index
+	 */
+	public void remove(final int id) {
+		final String[] studentWords = words.remove(id);
+		if (studentWords == null) {
+			return;
+		}
+
+		for (String text : studentWords) {
+			final Word word = postings.get(text);
+			word.ids.remove(id);
+			if (word.ids.size() == 0) {
+				removeWord(word);
+			}
+		}
+	}
+
+	/**
+	 * Applies changes read from the database
+	 *
+	 * @return False if the changes are too many to apply, the index then has to
+	 *         be read again
+	 */
+	public boolean apply(final StudentDelta delta) {
+		if (delta.isFull()) {
+			return false;
+		}
+
+		for (Integer id : delta.getDeletedIds()) {
+			remove(id);
+		}
+		for (Student student : delta.getChanged()) {
+			put(student.getId(), student.getName(), student.getSurname());
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the students whose names have a word starting with every word of a
+	 * query, in any order. If there are fewer than the limit, the students with a
+	 * word close to the query's are added, allowing one typo in words of three to
+	 * five letters and two in longer ones
+	 *
+	 * @param query - What the user typed
+	 * @param limit - The most students to find
+	 * @return The IDs of the students found, the closest matches first
+	 */
+	public int[] search(final String query, final int limit) {
+		final String[] queryWords = split(query);
+		if (queryWords.length == 0 || limit < 1) {
+			return new int[0];
+		}
+
+		Set<Integer> found = new LinkedHashSet<Integer>();
+		collect(queryWords, false, found, limit);
+		if (found.size() < limit) {
+			collect(queryWords, true, found, limit);
+		}
+
+		int[] ids = new int[found.size()];
+		int i = 0;
+		for (Integer id : found) {
+			ids[i++] = id;
+		}
+		return ids;
+	}
+
+	/**
+	 * Adds the students matching every word of a query to a set, until it reaches
+	 * the limit. The students of the query's most selective word are read, and
+	 * the other words are checked against their names
+	 */
+	private void collect(final String[] queryWords, final boolean fuzzy, final Set<Integer> found, final int limit) {
+		List<Matches> matches = new ArrayList<Matches>(queryWords.length);
+		int mostSelective = 0;
+		long fewestIds = MAX_CANDIDATES;
+
+		for (int i = 0; i < queryWords.length; i++) {
+			final Matches wordMatches = fuzzy ? closeWords(queryWords[i]) : wordsStartingWith(queryWords[i]);
+			if (wordMatches.words.isEmpty()) {
+				return;
+			}
+			matches.add(wordMatches);
+
+			// Only count until it is clear the word isn't the most selective one
+			long ids = 0;
+			for (Word word : wordMatches.words) {
+				ids += word.ids.size();
+				if (ids >= fewestIds) {
+					break;
+				}
+			}
+			if (ids < fewestIds) {
+				fewestIds = ids;
+				mostSelective = i;
+			}
+		}
+
+		final Matches selective = matches.remove(mostSelective);
+		int candidates = 0;
+		for (Word word : selective.words) {
+			for (int i = 0; i < word.ids.size(); i++) {
+				final int id = word.ids.get(i);
+				if (matchesAll(words.get(id), matches) && found.add(id) && found.size() >= limit) {
+					return;
+				}
+				if (++candidates >= MAX_CANDIDATES) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Whether a student has a word matching every other query word
+	 */
+	private static boolean matchesAll(final String[] studentWords, final List<Matches> matches) {
+		for (Matches wordMatches : matches) {
+			boolean matched = false;
+			for (String word : studentWords) {
+				if (wordMatches.matches(word)) {
+					matched = true;
+					break;
+				}
+			}
+			if (!matched) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return The words starting with a prefix, the prefix itself first. They
+	 *         are read as they are needed
+	 */
+	private Matches wordsStartingWith(final String prefix) {
+		return new Matches(prefix, null, postings.subMap(prefix, prefix + Character.MAX_VALUE).values());
+	}
+
+	/**
+	 * Finds the words within the allowed number of typos of a query word, or of
+	 * their beginning, since the user may not have finished typing. Only the words
+	 * sharing enough trigrams with the query word are compared
+	 *
+	 * @return The close words, the closest first
+	 */
+	private Matches closeWords(final String queryWord) {
+		final int maxDistance = queryWord.length() < 3 ? 0 : queryWord.length() < 6 ? 1 : 2;
+		if (maxDistance == 0) {
+			// Too short to tell a typo from another word, the prefix matches are all there is
+			return new Matches(null, Collections.<String>emptySet(), Collections.<Word>emptyList());
+		}
+		final List<String> queryTrigrams = trigramsOf(queryWord);
+
+		// Every typo changes at most three trigrams
+		final int minShared = Math.max(1, queryTrigrams.size() - 3 * maxDistance);
+
+		if (sharedTrigrams.length < wordsByCode.size()) {
+			sharedTrigrams = new int[wordsByCode.size()];
+		}
+		IdList counted = new IdList();
+		for (String trigram : queryTrigrams) {
+			final IdList codes = trigrams.get(trigram);
+			if (codes != null) {
+				for (int i = 0; i < codes.size(); i++) {
+					if (sharedTrigrams[codes.get(i)]++ == 0) {
+						counted.add(codes.get(i));
+					}
+				}
+			}
+		}
+
+		List<List<Word>> byDistance = new ArrayList<List<Word>>();
+		for (int i = 0; i <= maxDistance; i++) {
+			byDistance.add(new ArrayList<Word>());
+		}
+		for (int i = 0; i < counted.size(); i++) {
+			final int code = counted.get(i);
+			final int shared = sharedTrigrams[code];
+			sharedTrigrams[code] = 0;
+			if (shared >= minShared) {
+				final Word word = wordsByCode.get(code);
+				final int distance = prefixDistance(queryWord, word.text, maxDistance);
+				if (distance <= maxDistance) {
+					byDistance.get(distance).add(word);
+				}
+			}
+		}
+
+		List<Word> closeWords = new ArrayList<Word>();
+		Set<String> closeTexts = new HashSet<String>();
+		for (List<Word> wordsAtDistance : byDistance) {
+			for (Word word : wordsAtDistance) {
+				closeWords.add(word);
+				closeTexts.add(word.text);
+			}
+		}
+		return new Matches(null, closeTexts, closeWords);
+	}
+
+	/**
+	 * The smallest edit distance between a query word and the beginning of a
+	 * word(Levenshtein distance, ending anywhere in the word)
+	 *
+	 * @param limit - The largest distance of interest, anything above it is
+	 *              returned as limit + 1
+	 */
+	static int prefixDistance(final String query, final String word, final int limit) {
+		int[] previous = new int[word.length() + 1];
+		int[] current = new int[word.length() + 1];
+		for (int j = 0; j <= word.length(); j++) {
+			previous[j] = j;
+		}
+
+		for (int i = 1; i <= query.length(); i++) {
+			// The cells further than the limit from the diagonal are above it, only the band between is computed
+			final int from = Math.max(1, i - limit);
+			final int to = Math.min(word.length(), i + limit);
+			current[from - 1] = from == 1 ? i : limit + 1;
+			int rowMin = current[from - 1];
+			for (int j = from; j <= to; j++) {
+				final int substitution = previous[j - 1] + (query.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1);
+				final int insertion = j < i + limit ? previous[j] + 1 : limit + 1;
+				current[j] = Math.min(substitution, Math.min(insertion, current[j - 1] + 1));
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (to < word.length()) {
+				current[to + 1] = limit + 1;
+			}
+			if (rowMin > limit) {
+				return limit + 1;
+			}
+
+			final int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		int distance = limit + 1;
+		for (int j = Math.max(0, query.length() - limit); j <= Math.min(word.length(), query.length() + limit); j++) {
+			distance = Math.min(distance, previous[j]);
+		}
+		return Math.min(distance, limit + 1);
+	}
+
+	/**
+	 * Adds a new word to the postings and the trigram lists
+	 */
+	private Word addWord(final String text) {
+		final int code = freeCodes.size() > 0 ? freeCodes.removeLast() : wordsByCode.size();
+		final Word word = new Word(text, code);
+		if (code == wordsByCode.size()) {
+			wordsByCode.add(word);
+		} else {
+			wordsByCode.set(code, word);
+		}
+
+		postings.put(text, word);
+		for (String trigram : trigramsOf(text)) {
+			IdList codes = trigrams.get(trigram);
+			if (codes == null) {
+				codes = new IdList();
+				trigrams.put(trigram, codes);
+			}
+			codes.add(code);
+		}
+		return word;
+	}
+
+	/**
+	 * Removes a word no student has anymore, its code is reused
+	 */
+	private void removeWord(final Word word) {
+		postings.remove(word.text);
+		wordsByCode.set(word.code, null);
+		freeCodes.add(word.code);
+
+		for (String trigram : trigramsOf(word.text)) {
+			final IdList codes = trigrams.get(trigram);
+			codes.remove(word.code);
+			if (codes.size() == 0) {
+				trigrams.remove(trigram);
+			}
+		}
+	}
+
+	/**
+	 * @return The distinct trigrams of a word, which is padded so that its first
+	 *         two letters count
+	 */
+	private static List<String> trigramsOf(final String word) {
+		final String padded = " " + word;
+		Set<String> wordTrigrams = new LinkedHashSet<String>();
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			wordTrigrams.add(padded.substring(i, i + 3));
+		}
+		return new ArrayList<String>(wordTrigrams);
+	}
+
+	/**
+	 * @return The distinct lower case words of a text
+	 */
+	private static String[] split(final String text) {
+		if (text == null) {
+			return new String[0];
+		}
+
+		Set<String> textWords = new LinkedHashSet<String>();
+		for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+			if (!word.isEmpty()) {
+				textWords.add(word);
+			}
+		}
+		return textWords.toArray(new String[0]);
+	}
+
+	/**
+	 * A growable list of IDs or codes, without boxing
+	 */
+	private static class IdList {
+		private int[] ids = new int[2];
+		private int size;
+
+		private int size() {
+			return size;
+		}
+
+		private int get(final int index) {
+			return ids[index];
+		}
+
+		private void add(final int id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+
+		private int removeLast() {
+			return ids[--size];
+		}
+
+		/**
+		 * Removes an ID by moving the last one in its place
+		 */
+		private void remove(final int id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					ids[i] = ids[--size];
+					return;
+				}
+			}
+		}
+	}
+}
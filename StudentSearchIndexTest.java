@@ -0,0 +1,98 @@
+package sms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * The class that tests StudentSearchIndex class
+ */
+public class StudentSearchIndexTest {
+
+	private static StudentSearchIndex createIndex() {
+		StudentSearchIndex index = new StudentSearchIndex();
+		index.put(1, "John", "Smith");
+		index.put(2, "Johanna", "Smithson");
+		index.put(3, "Maria", "Popescu");
+		index.put(4, "Ion", "Popa");
+		return index;
+	}
+
+	@Test
+	public void findsNamesByPrefix() {
+		StudentSearchIndex index = createIndex();
+
+		// In the order of the words
+		assertArrayEquals(new int[] { 2, 1 }, index.search("jo", 10));
+		assertArrayEquals(new int[] { 4, 3 }, index.search("POP", 10));
+		assertArrayEquals(new int[] { 2 }, index.search("jo", 1));
+		assertArrayEquals(new int[0], index.search("  ", 10));
+	}
+
+	@Test
+	public void everyWordOfTheQueryMustMatch() {
+		StudentSearchIndex index = createIndex();
+
+		assertArrayEquals(new int[] { 2 }, index.search("smiths jo", 10));
+		assertArrayEquals(new int[] { 4 }, index.search("ion pop", 10));
+		assertArrayEquals(new int[0], index.search("maria smith", 10));
+	}
+
+	@Test
+	public void toleratesTypos() {
+		StudentSearchIndex index = createIndex();
+
+		// The prefix matches come before the close ones
+		assertArrayEquals(new int[] { 4, 3 }, index.search("popa", 10));
+		assertArrayEquals(new int[] { 1, 2 }, index.search("john", 10));
+		assertArrayEquals(new int[] { 3 }, index.search("mqria", 10));
+		assertArrayEquals(new int[] { 3 }, index.search("popsecu", 10));
+		assertArrayEquals(new int[0], index.search("xyzzy", 10));
+	}
+
+	@Test
+	public void prefixDistanceEndsAnywhereInTheWord() {
+		assertEquals(0, StudentSearchIndex.prefixDistance("pop", "popescu", 2));
+		assertEquals(1, StudentSearchIndex.prefixDistance("popx", "popescu", 2));
+		assertEquals(2, StudentSearchIndex.prefixDistance("mraia", "maria", 2));
+		assertEquals(3, StudentSearchIndex.prefixDistance("abcdef", "maria", 2));
+	}
+
+	@Test
+	public void updatesOneStudentAtATime() {
+		StudentSearchIndex index = createIndex();
+
+		index.put(1, "Jack", "Smith");
+		assertArrayEquals(new int[] { 2 }, index.search("john", 10));
+		assertArrayEquals(new int[] { 1 }, index.search("jack", 10));
+
+		index.remove(2);
+		index.remove(42);
+		assertArrayEquals(new int[0], index.search("johanna", 10));
+		assertEquals(3, index.size());
+		assertEquals(6, index.getWordCount());
+	}
+
+	@Test
+	public void appliesChanges() {
+		StudentSearchIndex index = createIndex();
+		Student renamed = new Student(3);
+		renamed.setName("Mara");
+		renamed.setSurname("Popescu");
+
+		assertTrue(index.apply(new StudentDelta(false, Arrays.asList(renamed), Arrays.asList(4),
+				new Timestamp(System.currentTimeMillis()))));
+		assertArrayEquals(new int[] { 3 }, index.search("mara", 10));
+		assertArrayEquals(new int[0], index.search("ion", 10));
+
+		assertFalse(index.apply(new StudentDelta(true, Collections.<Student>emptyList(),
+				Collections.<Integer>emptyList(), new Timestamp(System.currentTimeMillis()))));
+	}
+}
@@ -0,0 +1,284 @@
+package sms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The asynchronous front of the repository chosen when connecting. Every
+ * operation runs on a background thread and its result is delivered through a
+ * CompletableFuture, so that the views never wait for the storage on the event
+ * dispatch thread
+ */
+public class StudentService {
+	/**
+	 * The threads database operations run on
+	 */
+	private static final ExecutorService executor;
+
+	/**
+	 * Where the data is stored, the MySQL database unless another repository has
+	 * been chosen
+	 */
+	private static volatile StudentRepository repository = new JdbcStudentRepository();
+
+	static {
+		executor = createExecutor();
+	}
+
+	/**
+	 * Default constructor
+	 */
+	public StudentService() {
+
+	}
+
+	/**
+	 * Uses one virtual thread per operation when the runtime has them(Java 21+),
+	 * and a pool of daemon threads otherwise. The number of operations actually
+	 * talking to the database is limited by the connection pool either way
+	 */
+	private static ExecutorService createExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			final AtomicInteger threadNumber = new AtomicInteger();
+
+			return Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "sms-db-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * @return The repository the operations run against
+	 */
+	public static StudentRepository getRepository() {
+		return repository;
+	}
+
+	/**
+	 * Chooses the repository the operations run against from now on
+	 */
+	public static void setRepository(final StudentRepository repository) {
+		StudentService.repository = repository;
+	}
+
+	/**
+	 * Runs an operation on the database threads
+	 */
+	private static <T> CompletableFuture<T> submit(final Supplier<T> operation) {
+		return CompletableFuture.supplyAsync(operation, executor);
+	}
+
+	/**
+	 * @see StudentRepository#testConnection()
+	 */
+	public static CompletableFuture<Boolean> testConnection() {
+		return submit(() -> repository.testConnection());
+	}
+
+	/**
+	 * @see StudentRepository#createTables()
+	 */
+	public static CompletableFuture<Boolean> createTables() {
+		return submit(() -> repository.createTables());
+	}
+
+	/**
+	 * @see StudentRepository#warmUp()
+	 */
+	public static CompletableFuture<Boolean> warmUp() {
+		return submit(() -> repository.warmUp());
+	}
+
+	/**
+	 * @see StudentRepository#addStudent(Student)
+	 */
+	public static CompletableFuture<Boolean> addStudent(final Student student) {
+		return submit(() -> repository.addStudent(student));
+	}
+
+	/**
+	 * @see StudentRepository#addStudents(Collection, int)
+	 */
+	public static CompletableFuture<int[]> addStudents(final Collection<Student> students, final int batchSize) {
+		return submit(() -> repository.addStudents(students, batchSize));
+	}
+
+	/**
+	 * @see StudentRepository#deleteStudent(int)
+	 */
+	public static CompletableFuture<Boolean> deleteStudent(final int id) {
+		return submit(() -> repository.deleteStudent(id));
+	}
+
+	/**
+	 * @see StudentRepository#updateStudentFields(int, Map)
+	 */
+	public static CompletableFuture<Boolean> updateStudentFields(final int id, final Map<Integer, String> fields) {
+		return submit(() -> repository.updateStudentFields(id, fields));
+	}
+
+	/**
+	 * @see StudentRepository#getStudents()
+	 */
+	public static CompletableFuture<List<Student>> getStudents() {
+		return submit(() -> repository.getStudents());
+	}
+
+	/**
+	 * @see StudentRepository#getStudentPageIndex(int, boolean, StudentFilter, int)
+	 */
+	public static CompletableFuture<StudentPageIndex> getStudentPageIndex(final int column, final boolean descending,
+			final StudentFilter filter, final int pageSize) {
+		return submit(() -> repository.getStudentPageIndex(column, descending, filter, pageSize));
+	}
+
+	/**
+	 * @see StudentRepository#getStudentPage(int, boolean, StudentFilter, Object[], Object[], int)
+	 */
+	public static CompletableFuture<List<Student>> getStudentPage(final int column, final boolean descending,
+			final StudentFilter filter, final Object[] keyBefore, final Object[] keyLast, final int pageSize) {
+		return submit(() -> repository.getStudentPage(column, descending, filter, keyBefore, keyLast, pageSize));
+	}
+
+	/**
+	 * @see StudentRepository#getStudentsById(int[], StudentFilter)
+	 */
+	public static CompletableFuture<List<Student>> getStudentsById(final int[] ids, final StudentFilter filter) {
+		return submit(() -> repository.getStudentsById(ids, filter));
+	}
+
+	/**
+	 * @see StudentRepository#readSearchIndex()
+	 */
+	public static CompletableFuture<StudentSearchIndex> readSearchIndex() {
+		return submit(() -> repository.readSearchIndex());
+	}
+
+	/**
+	 * @see StudentRepository#readStudentStore()
+	 */
+	public static CompletableFuture<StudentStore> readStudentStore() {
+		return submit(() -> repository.readStudentStore());
+	}
+
+	/**
+	 * @see StudentRepository#getStudentChanges(Timestamp)
+	 */
+	public static CompletableFuture<StudentDelta> getStudentChanges(final Timestamp since) {
+		return submit(() -> repository.getStudentChanges(since));
+	}
+
+	/**
+	 * @see StudentRepository#getCourses()
+	 */
+	public static CompletableFuture<String[]> getCourses() {
+		return submit(() -> repository.getCourses());
+	}
+
+	/**
+	 * @see StudentRepository#getFaculties()
+	 */
+	public static CompletableFuture<String[]> getFaculties() {
+		return submit(() -> repository.getFaculties());
+	}
+
+	/**
+	 * @see StudentRepository#checkIfElementExists(String, String)
+	 */
+	public static CompletableFuture<Boolean> checkIfElementExists(final String tableName, final String name) {
+		return submit(() -> repository.checkIfElementExists(tableName, name));
+	}
+
+	/**
+	 * @see StudentRepository#getNumberOfAttendees(String, String)
+	 */
+	public static CompletableFuture<Integer> getNumberOfAttendees(final String tableName, final String element) {
+		return submit(() -> repository.getNumberOfAttendees(tableName, element));
+	}
+
+	/**
+	 * @see StudentRepository#getNumberOfCourses(String)
+	 */
+	public static CompletableFuture<Integer> getNumberOfCourses(final String faculty) {
+		return submit(() -> repository.getNumberOfCourses(faculty));
+	}
+
+	/**
+	 * @see StudentRepository#addFaculty(String)
+	 */
+	public static CompletableFuture<Boolean> addFaculty(final String facultyName) {
+		return submit(() -> repository.addFaculty(facultyName));
+	}
+
+	/**
+	 * @see StudentRepository#addCourse(String, String, int)
+	 */
+	public static CompletableFuture<Boolean> addCourse(final String courseName, final String faculty,
+			final int duration) {
+		return submit(() -> repository.addCourse(courseName, faculty, duration));
+	}
+
+	/**
+	 * @see StudentRepository#repairAttendees()
+	 */
+	public static CompletableFuture<Integer> repairAttendees() {
+		return submit(() -> repository.repairAttendees());
+	}
+
+	/**
+	 * @see StudentRepository#deleteCourseCascade(String)
+	 */
+	public static CompletableFuture<DeleteReport> deleteCourseCascade(final String course) {
+		return submit(() -> repository.deleteCourseCascade(course));
+	}
+
+	/**
+	 * @see StudentRepository#deleteFacultyCascade(String)
+	 */
+	public static CompletableFuture<DeleteReport> deleteFacultyCascade(final String faculty) {
+		return submit(() -> repository.deleteFacultyCascade(faculty));
+	}
+
+	/**
+	 * @see CsvImporter#importFile(Path, Path, java.util.function.LongConsumer)
+	 */
+	public static CompletableFuture<TransferReport> importCsv(final CsvImporter.Target target, final Path input,
+			final Path errorFile) {
+		return submit(() -> {
+			try {
+				return new CsvImporter(target).importFile(input, errorFile, null);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Exports a table to a file, in the format given by the file's extension
+	 * 
+	 * @see TableExporter#forFileName(String)
+	 */
+	public static CompletableFuture<TransferReport> exportTable(final String tableName, final Path output) {
+		return submit(() -> {
+			try {
+				return TableExporter.forFileName(output.getFileName().toString()).export(tableName, output, null);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+}
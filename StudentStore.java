@@ -0,0 +1,338 @@
+package sms;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps students in memory one column at a time. IDs and ages are kept as ints
+ * and the dates as days since 1970-01-01, so a student costs no objects except
+ * its name and surname. Courses and genders are dictionary encoded: every row
+ * only keeps the small code of its value, and the value itself is kept once.
+ * Not thread safe
+ */
+public class StudentStore {
+	/**
+	 * The epoch day kept for a missing date
+	 */
+	static final int NO_DATE = Integer.MIN_VALUE;
+
+	/**
+	 * The code kept for a missing course or gender
+	 */
+	private static final int NO_VALUE = -1;
+
+	private static final Gender[] GENDERS = Gender.values();
+
+	/**
+	 * The distinct values of a column, each one with a code. Can be shared by
+	 * several stores, so that a value is kept once for all of them
+	 */
+	public static class Dictionary {
+		private final List<String> values = new ArrayList<String>();
+		private final Map<String, Short> codes = new HashMap<String, Short>();
+
+		/**
+		 * @return The code of a value, which is added if it is new
+		 * @throws IllegalStateException If there are too many values for a code
+		 */
+		short encode(final String value) {
+			Short code = codes.get(value);
+			if (code == null) {
+				if (values.size() > Short.MAX_VALUE) {
+					throw new IllegalStateException("More than " + Short.MAX_VALUE + " distinct values");
+				}
+				code = (short) values.size();
+				values.add(value);
+				codes.put(value, code);
+			}
+			return code;
+		}
+
+		/**
+		 * @return The value of a code
+		 */
+		String decode(final int code) {
+			return values.get(code);
+		}
+
+		/**
+		 * @return The number of distinct values
+		 */
+		public int size() {
+			return values.size();
+		}
+	}
+
+	private final Dictionary courses;
+
+	private int size;
+	private int[] ids;
+	private String[] names;
+	private String[] surnames;
+	private int[] ages;
+	private byte[] genders;
+	private short[] courseCodes;
+	private int[] startedDays;
+	private int[] graduationDays;
+
+	/**
+	 * Creates a store with its own dictionary of courses
+	 *
+	 * @param capacity - The number of students it holds before growing
+	 */
+	public StudentStore(final int capacity) {
+		this(capacity, new Dictionary());
+	}
+
+	/**
+	 * @param capacity - The number of students it holds before growing
+	 * @param courses  - The dictionary of the courses, possibly shared with other
+	 *                 stores
+	 */
+	public StudentStore(final int capacity, final Dictionary courses) {
+		this.courses = courses;
+		ids = new int[capacity];
+		names = new String[capacity];
+		surnames = new String[capacity];
+		ages = new int[capacity];
+		genders = new byte[capacity];
+		courseCodes = new short[capacity];
+		startedDays = new int[capacity];
+		graduationDays = new int[capacity];
+	}
+
+	/**
+	 * @return The number of students
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a student after the others
+	 *
+	 * @return The row of the student
+	 */
+	public int add(final Student student) {
+		if (size == ids.length) {
+			grow();
+		}
+		set(size, student);
+		return size++;
+	}
+
+	/**
+	 * Replaces the student on a row
+	 */
+	public void set(final int row, final Student student) {
+		ids[row] = student.getId();
+		names[row] = student.getName();
+		surnames[row] = student.getSurname();
+		ages[row] = student.getAge();
+		genders[row] = (byte) (student.getGender() == null ? NO_VALUE : student.getGender().ordinal());
+		courseCodes[row] = student.getCourse() == null ? NO_VALUE : courses.encode(student.getCourse());
+		startedDays[row] = toEpochDay(student.getStarted());
+		graduationDays[row] = toEpochDay(student.getGraduation());
+	}
+
+	/**
+	 * @return The student on a row, as a new object
+	 */
+	public Student get(final int row) {
+		Student student = new Student(ids[row]);
+		student.setName(names[row]);
+		student.setSurname(surnames[row]);
+		student.setAge(ages[row]);
+		student.setGender(getGender(row));
+		student.setCourse(getCourse(row));
+		student.setStarted(toDate(startedDays[row]));
+		student.setGraduation(toDate(graduationDays[row]));
+		return student;
+	}
+
+	/**
+	 * @return The ID of the student on a row
+	 */
+	public int getId(final int row) {
+		return ids[row];
+	}
+
+	/**
+	 * @return The name of the student on a row
+	 */
+	public String getName(final int row) {
+		return names[row];
+	}
+
+	/**
+	 * @param name - The new name of the student on a row
+	 */
+	public void setName(final int row, final String name) {
+		names[row] = name;
+	}
+
+	/**
+	 * @return The surname of the student on a row
+	 */
+	public String getSurname(final int row) {
+		return surnames[row];
+	}
+
+	/**
+	 * @param surname - The new surname of the student on a row
+	 */
+	public void setSurname(final int row, final String surname) {
+		surnames[row] = surname;
+	}
+
+	/**
+	 * @return The age of the student on a row
+	 */
+	public int getAge(final int row) {
+		return ages[row];
+	}
+
+	/**
+	 * @param age - The new age of the student on a row
+	 */
+	public void setAge(final int row, final int age) {
+		ages[row] = age;
+	}
+
+	/**
+	 * @return The gender of the student on a row, or null if it is unknown
+	 */
+	public Gender getGender(final int row) {
+		return genders[row] == NO_VALUE ? null : GENDERS[genders[row]];
+	}
+
+	/**
+	 * @param gender - The new gender of the student on a row, may be null
+	 */
+	public void setGender(final int row, final Gender gender) {
+		genders[row] = (byte) (gender == null ? NO_VALUE : gender.ordinal());
+	}
+
+	/**
+	 * @return The course of the student on a row, or null if it is unknown
+	 */
+	public String getCourse(final int row) {
+		return courseCodes[row] == NO_VALUE ? null : courses.decode(courseCodes[row]);
+	}
+
+	/**
+	 * @return The day the student on a row started, or null if it is unknown
+	 */
+	public LocalDate getStarted(final int row) {
+		return startedDays[row] == NO_DATE ? null : LocalDate.ofEpochDay(startedDays[row]);
+	}
+
+	/**
+	 * @return The day the student on a row graduates, or null if it is unknown
+	 */
+	public LocalDate getGraduation(final int row) {
+		return graduationDays[row] == NO_DATE ? null : LocalDate.ofEpochDay(graduationDays[row]);
+	}
+
+	/**
+	 * Finds the row of a student by scanning the IDs
+	 *
+	 * @return The row, or -1 if the student isn't in the store
+	 */
+	public int indexOf(final int id) {
+		for (int row = 0; row < size; row++) {
+			if (ids[row] == id) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Counts the students of every course, only reading the course codes
+	 *
+	 * @return The number of students by course, in the order the courses have
+	 *         first been seen
+	 */
+	public Map<String, Integer> countByCourse() {
+		int[] counts = new int[courses.size()];
+		for (int row = 0; row < size; row++) {
+			if (courseCodes[row] != NO_VALUE) {
+				counts[courseCodes[row]]++;
+			}
+		}
+
+		Map<String, Integer> countByCourse = new LinkedHashMap<String, Integer>();
+		for (int code = 0; code < counts.length; code++) {
+			if (counts[code] > 0) {
+				countByCourse.put(courses.decode(code), counts[code]);
+			}
+		}
+		return countByCourse;
+	}
+
+	/**
+	 * @return The number of students by gender, including the ones of no gender
+	 *         under null
+	 */
+	public Map<Gender, Integer> countByGender() {
+		int[] counts = new int[GENDERS.length + 1];
+		for (int row = 0; row < size; row++) {
+			counts[genders[row] + 1]++;
+		}
+
+		Map<Gender, Integer> countByGender = new LinkedHashMap<Gender, Integer>();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				countByGender.put(i == 0 ? null : GENDERS[i - 1], counts[i]);
+			}
+		}
+		return countByGender;
+	}
+
+	/**
+	 * @return The average age of the students, 0 if there are none
+	 */
+	public double averageAge() {
+		long total = 0;
+		for (int row = 0; row < size; row++) {
+			total += ages[row];
+		}
+		return size == 0 ? 0 : (double) total / size;
+	}
+
+	private void grow() {
+		final int capacity = Math.max(16, ids.length + (ids.length >> 1));
+		ids = Arrays.copyOf(ids, capacity);
+		names = Arrays.copyOf(names, capacity);
+		surnames = Arrays.copyOf(surnames, capacity);
+		ages = Arrays.copyOf(ages, capacity);
+		genders = Arrays.copyOf(genders, capacity);
+		courseCodes = Arrays.copyOf(courseCodes, capacity);
+		startedDays = Arrays.copyOf(startedDays, capacity);
+		graduationDays = Arrays.copyOf(graduationDays, capacity);
+	}
+
+	/**
+	 * @return The day of a date in the default time zone, or NO_DATE
+	 */
+	static int toEpochDay(final Date date) {
+		if (date == null) {
+			return NO_DATE;
+		}
+		// java.sql.Date doesn't support toInstant
+		return (int) Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+	}
+
+	private static Date toDate(final int epochDay) {
+		return epochDay == NO_DATE ? null : java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDay));
+	}
+}
@@ -0,0 +1,116 @@
+package sms;
+
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+import java.util.function.Supplier;
+
+/**
+ * Measures the memory a student takes in the columnar StudentStore, compared
+ * with a Vector of Strings per student, as the table used to keep them, and
+ * with Student objects. The students are generated the way they are read from
+ * the database, with new strings on every row. Run with a large enough heap,
+ * optionally passing the number of students(1000000 by default)
+ */
+public class StudentStoreBenchmark {
+	/**
+	 * The default number of students
+	 */
+	private static final int DEFAULT_ROWS = 1_000_000;
+
+	private static final int COURSES = 50;
+	private static final int NAMES = 2000;
+
+	public static void main(String[] args) {
+		final int rows = args != null && args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+
+		measure("StudentStore", rows, () -> {
+			StudentStore store = new StudentStore(rows);
+			Random random = new Random(1);
+			for (int i = 0; i < rows; i++) {
+				store.add(generate(i, random));
+			}
+			return store;
+		});
+
+		measure("Student objects", rows, () -> {
+			List<Student> students = new ArrayList<Student>(rows);
+			Random random = new Random(1);
+			for (int i = 0; i < rows; i++) {
+				students.add(generate(i, random));
+			}
+			return students;
+		});
+
+		measure("Vectors of Strings", rows, () -> {
+			Vector<Vector<String>> vectors = new Vector<Vector<String>>(rows);
+			Random random = new Random(1);
+			for (int i = 0; i < rows; i++) {
+				vectors.add(toVector(generate(i, random)));
+			}
+			return vectors;
+		});
+	}
+
+	/**
+	 * Reports the memory held by the students a supplier creates, which are
+	 * dropped afterwards
+	 */
+	private static void measure(final String name, final int rows, final Supplier<Object> students) {
+		final long before = usedMemory();
+		final Object held = students.get();
+		final long used = usedMemory() - before;
+		Reference.reachabilityFence(held);
+
+		System.out.printf("%-20s %,d students: %,d bytes per student%n", name, rows, used / rows);
+	}
+
+	/**
+	 * Generates a student with new strings, as a read from the database does
+	 */
+	private static Student generate(final int id, final Random random) {
+		Student student = new Student(id + 1);
+		student.setName(new String("Name" + random.nextInt(NAMES)));
+		student.setSurname(new String("Surname" + random.nextInt(NAMES)));
+		student.setAge(18 + random.nextInt(10));
+		student.setGender(random.nextBoolean() ? Gender.Male : Gender.Female);
+		student.setCourse(new String("Course" + random.nextInt(COURSES)));
+
+		final LocalDate started = LocalDate.of(2015 + random.nextInt(10), 1 + random.nextInt(12), 1);
+		student.setStarted(java.sql.Date.valueOf(started));
+		student.setGraduation(java.sql.Date.valueOf(started.plusYears(3)));
+		return student;
+	}
+
+	/**
+	 * Converts a student to the row the table used to keep
+	 */
+	private static Vector<String> toVector(final Student student) {
+		Vector<String> row = new Vector<String>();
+		row.add(String.valueOf(student.getId()));
+		row.add(student.getName());
+		row.add(student.getSurname());
+		row.add(String.valueOf(student.getAge()));
+		row.add(student.getGender().name());
+		row.add(student.getCourse());
+		row.add(student.getStarted().toString());
+		row.add(student.getGraduation().toString());
+		return row;
+	}
+
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,78 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * The class that tests StudentStore class
+ */
+public class StudentStoreTest {
+
+	private static Student createStudent(final int id, final String course, final Gender gender) {
+		Student student = new Student(id);
+		student.setName("Name" + id);
+		student.setSurname("Surname" + id);
+		student.setAge(20 + id);
+		student.setGender(gender);
+		student.setCourse(course);
+		student.setStarted(java.sql.Date.valueOf("2020-09-01"));
+		student.setGraduation(java.sql.Date.valueOf("2023-09-01"));
+		return student;
+	}
+
+	@Test
+	public void keepsEveryColumn() {
+		// Grows past the initial capacity
+		StudentStore store = new StudentStore(1);
+		store.add(createStudent(1, "Physics", Gender.Male));
+		store.add(createStudent(2, null, null));
+
+		assertEquals(2, store.size());
+		assertEquals(1, store.getId(0));
+		assertEquals("Name1", store.getName(0));
+		assertEquals(21, store.getAge(0));
+		assertEquals(Gender.Male, store.getGender(0));
+		assertEquals("Physics", store.getCourse(0));
+		assertEquals(LocalDate.of(2020, 9, 1), store.getStarted(0));
+		assertEquals(java.sql.Date.valueOf("2023-09-01"), store.get(0).getGraduation());
+
+		assertNull(store.getGender(1));
+		assertNull(store.getCourse(1));
+		assertEquals(1, store.indexOf(2));
+		assertEquals(-1, store.indexOf(3));
+	}
+
+	@Test
+	public void coursesAreKeptOnce() {
+		StudentStore.Dictionary courses = new StudentStore.Dictionary();
+		StudentStore first = new StudentStore(4, courses);
+		StudentStore second = new StudentStore(4, courses);
+		first.add(createStudent(1, "Physics", Gender.Male));
+		first.add(createStudent(2, "Chemistry", Gender.Female));
+		second.add(createStudent(3, "Physics", Gender.Female));
+
+		assertEquals(2, courses.size());
+		assertEquals("Physics", second.getCourse(0));
+	}
+
+	@Test
+	public void countsByCourseAndGender() {
+		StudentStore store = new StudentStore(4);
+		store.add(createStudent(1, "Physics", Gender.Male));
+		store.add(createStudent(2, "Chemistry", Gender.Female));
+		store.add(createStudent(3, "Physics", Gender.Female));
+
+		Map<String, Integer> byCourse = new LinkedHashMap<String, Integer>();
+		byCourse.put("Physics", 2);
+		byCourse.put("Chemistry", 1);
+		assertEquals(byCourse, store.countByCourse());
+		assertEquals(Integer.valueOf(2), store.countByGender().get(Gender.Female));
+		assertEquals(22.0, store.averageAge(), 0.001);
+	}
+}
@@ -0,0 +1,800 @@
+package sms;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * The students shown in the management table. Only the pages around the rows
+ * the table asks for are kept in memory: they are read in the background with
+ * keyset pagination, in the order and with the filter chosen by the user, and
+ * the least recently used ones are dropped once too many are cached. Every
+ * page is a columnar StudentStore, and all of them share one dictionary of the
+ * courses. Rows whose page hasn't arrived yet are shown empty. The students
+ * added and deleted between two reloads move the pages after them instead of
+ * reading the index again. All the methods have to be called on the event
+ * dispatch thread
+ */
+public class StudentTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of students read at once
+	 */
+	static final int PAGE_SIZE = 200;
+
+	/**
+	 * How many rows around the requested one are read ahead
+	 */
+	private static final int PREFETCH_ROWS = PAGE_SIZE / 4;
+
+	/**
+	 * The number of pages kept in memory
+	 */
+	private static final int MAX_CACHED_PAGES = 32;
+
+	/**
+	 * The translation keys of the column names
+	 */
+	private static final int[] COLUMN_KEYS = {Messages.ID, Messages.name, Messages.surname, Messages.age,
+			Messages.gender, Messages.course, Messages.started, Messages.graduation};
+
+	/**
+	 * The columns that can be edited in place
+	 */
+	private static final boolean[] COLUMN_EDITABLES = {false, true, true, true, true, false, false, false};
+
+	/**
+	 * Runs the results of the page reads on the event dispatch thread
+	 */
+	private static final Executor EDT = SwingUtilities::invokeLater;
+
+	/**
+	 * The cached pages by index, in the order they have been used
+	 */
+	private final Map<Integer, StudentStore> pages = new LinkedHashMap<Integer, StudentStore>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, StudentStore> eldest) {
+			return size() > MAX_CACHED_PAGES;
+		}
+	};
+
+	/**
+	 * The courses of the cached students, kept once for all the pages
+	 */
+	private final StudentStore.Dictionary courses = new StudentStore.Dictionary();
+
+	/**
+	 * The pages being read
+	 */
+	private final Set<Integer> loadingPages = new HashSet<Integer>();
+
+	/**
+	 * The number of students and where the pages start, null before the first
+	 * load
+	 */
+	private StudentPageIndex index;
+
+	/**
+	 * Whether the index is the one of the current order and filter. While a new
+	 * one is being read, the old one only gives the number of rows, its keys
+	 * would find the pages of the old order
+	 */
+	private boolean indexCurrent;
+
+	/**
+	 * The number of rows, kept up to date as students are added and deleted
+	 */
+	private int rowCount;
+
+	/**
+	 * The row every page of the index starts at. The pages are PAGE_SIZE rows when
+	 * the index is read, the students added and deleted since then move the pages
+	 * after them
+	 */
+	private int[] pageStarts = { 0 };
+
+	/**
+	 * Incremented whenever the cached pages are dropped, so that the pages read
+	 * before that are ignored when they arrive
+	 */
+	private int generation;
+
+	/**
+	 * The column the students are sorted by and the direction
+	 */
+	private int sortColumn;
+	private boolean descending;
+
+	/**
+	 * The sync time of the last changes applied, null before the first load
+	 */
+	private Timestamp syncTime;
+
+	/**
+	 * The criteria the students shown have to meet
+	 */
+	private StudentFilter filter = StudentFilter.NONE;
+
+	/**
+	 * The IDs of the students found by a search, in the order they are shown, or
+	 * null when all the students are shown
+	 */
+	private int[] searchIds;
+
+	/**
+	 * Called with every change read from the database, may be null
+	 */
+	private Consumer<StudentDelta> deltaListener;
+
+	/**
+	 * The first page and the index of all the students in the order the table
+	 * starts with, read in the background before the table exists
+	 */
+	public static class FirstRead {
+		private final CompletableFuture<List<Student>> firstPage;
+		private final CompletableFuture<StudentPageIndex> pageIndex;
+
+		/**
+		 * Starts reading the first page and the index at the same time
+		 */
+		public FirstRead() {
+			firstPage = StudentService.getStudentPage(0, false, StudentFilter.NONE, null, null, PAGE_SIZE);
+			pageIndex = StudentService.getStudentPageIndex(0, false, StudentFilter.NONE, PAGE_SIZE);
+		}
+	}
+
+	/**
+	 * The event of an edit the user made in a cell. The pages being loaded,
+	 * patched or dropped fire plain TableModelEvents, so the listeners writing
+	 * the edits back can ignore everything else
+	 */
+	public static class StudentEditEvent extends TableModelEvent {
+		private static final long serialVersionUID = 1L;
+
+		private final int studentId;
+		private final String value;
+
+		private StudentEditEvent(final StudentTableModel source, final int row, final int column, final int studentId,
+				final String value) {
+			super(source, row, row, column, UPDATE);
+			this.studentId = studentId;
+			this.value = value;
+		}
+
+		/**
+		 * @return The ID of the student edited
+		 */
+		public int getStudentId() {
+			return studentId;
+		}
+
+		/**
+		 * @return The new value of the cell, as it is written to the database
+		 */
+		public String getValue() {
+			return value;
+		}
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMN_KEYS.length;
+	}
+
+	@Override
+	public String getColumnName(final int column) {
+		return Translator.getValue(COLUMN_KEYS[column]);
+	}
+
+	@Override
+	public Class<?> getColumnClass(final int column) {
+		// The table edits numbers with an editor that only accepts numbers
+		return column == 0 || column == 3 ? Integer.class : String.class;
+	}
+
+	@Override
+	public boolean isCellEditable(final int row, final int column) {
+		return COLUMN_EDITABLES[column] && getPage(row) != null;
+	}
+
+	@Override
+	public Object getValueAt(final int row, final int column) {
+		// Read the neighbouring pages ahead, so that scrolling rarely shows empty rows
+		requestPage(pageOf(Math.min(row + PREFETCH_ROWS, rowCount - 1)));
+		requestPage(pageOf(row - PREFETCH_ROWS));
+
+		final StudentStore page = getPage(row);
+		if (page == null) {
+			requestPage(pageOf(row));
+			return null;
+		}
+
+		final int pageRow = toPageRow(row);
+		switch (column) {
+		case 0:
+			return page.getId(pageRow);
+		case 1:
+			return page.getName(pageRow);
+		case 2:
+			return page.getSurname(pageRow);
+		case 3:
+			return page.getAge(pageRow);
+		case 4:
+			return page.getGender(pageRow) == null ? "" : page.getGender(pageRow).name();
+		case 5:
+			return page.getCourse(pageRow);
+		case 6:
+			return formatDate(page.getStarted(pageRow));
+		default:
+			return formatDate(page.getGraduation(pageRow));
+		}
+	}
+
+	/**
+	 * Changes an editable cell. A gender that doesn't exist can't be kept, it
+	 * leaves the cell as it was
+	 */
+	@Override
+	public void setValueAt(final Object value, final int row, final int column) {
+		final StudentStore page = getPage(row);
+		if (page == null || value == null) {
+			return;
+		}
+
+		final int pageRow = toPageRow(row);
+		final String edited;
+		try {
+			switch (column) {
+			case 1:
+				page.setName(pageRow, value.toString());
+				edited = page.getName(pageRow);
+				break;
+			case 2:
+				page.setSurname(pageRow, value.toString());
+				edited = page.getSurname(pageRow);
+				break;
+			case 3:
+				page.setAge(pageRow,
+						value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString()));
+				edited = String.valueOf(page.getAge(pageRow));
+				break;
+			case 4:
+				page.setGender(pageRow, Gender.valueOf(value.toString()));
+				edited = page.getGender(pageRow).name();
+				break;
+			default:
+				return;
+			}
+		} catch (IllegalArgumentException e) {
+			return;
+		}
+		fireTableChanged(new StudentEditEvent(this, row, column, page.getId(pageRow), edited));
+	}
+
+	/**
+	 * @return The ID of the student shown on a row, or -1 if the row hasn't been
+	 *         read yet
+	 */
+	public int getStudentId(final int row) {
+		final StudentStore page = getPage(row);
+		return page == null ? -1 : page.getId(toPageRow(row));
+	}
+
+	/**
+	 * Sorts the students by a column. The sorting is done by the database and the
+	 * pages are read again
+	 *
+	 * @param column     - The index of the column
+	 * @param descending - Whether the order is descending
+	 */
+	public void sort(final int column, final boolean descending) {
+		this.sortColumn = column;
+		this.descending = descending;
+		reload();
+	}
+
+	/**
+	 * Shows only the students meeting a filter. The filtering is done by the
+	 * database and the pages are read again
+	 *
+	 * @param filter - The criteria, StudentFilter.NONE to show all the students
+	 */
+	public void setFilter(final StudentFilter filter) {
+		this.filter = filter;
+		reload();
+	}
+
+	/**
+	 * @return The criteria the students shown meet
+	 */
+	public StudentFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Shows only certain students, e.g. the ones found by a search, in the order
+	 * given, if they meet the filter. Sorting doesn't change that order
+	 *
+	 * @param ids - The IDs of the students, at most PAGE_SIZE
+	 */
+	public void showSearchResults(final int[] ids) {
+		searchIds = ids.length > PAGE_SIZE ? Arrays.copyOf(ids, PAGE_SIZE) : ids;
+		reload();
+	}
+
+	/**
+	 * Shows all the students again after a search
+	 */
+	public void clearSearch() {
+		if (searchIds != null) {
+			searchIds = null;
+			reload();
+		}
+	}
+
+	/**
+	 * @return Whether only the students found by a search are shown
+	 */
+	public boolean isSearching() {
+		return searchIds != null;
+	}
+
+	/**
+	 * @param deltaListener - Called on the event dispatch thread with every change
+	 *                      read from the database, e.g. to keep a search index up
+	 *                      to date
+	 */
+	public void setDeltaListener(final Consumer<StudentDelta> deltaListener) {
+		this.deltaListener = deltaListener;
+	}
+
+	/**
+	 * Brings the table up to date: the changes made since the last refresh are
+	 * applied to the cached pages
+	 */
+	public void refresh() {
+		if (syncTime == null) {
+			reload();
+			return;
+		}
+
+		final int requestGeneration = generation;
+		StudentService.getStudentChanges(syncTime).thenAcceptAsync(delta -> {
+			if (delta != null && deltaListener != null) {
+				deltaListener.accept(delta);
+			}
+			if (delta != null && requestGeneration == generation) {
+				apply(delta);
+			}
+		}, EDT);
+	}
+
+	/**
+	 * Drops the cached pages and reads the number of students again, the pages
+	 * are then read as the table asks for them. The first page doesn't depend on
+	 * the index, so it is read at the same time
+	 */
+	public void reload() {
+		if (searchIds != null) {
+			readSearchResults(clear());
+			return;
+		}
+
+		show(StudentService.getStudentPage(sortColumn, descending, filter, null, null, PAGE_SIZE),
+				StudentService.getStudentPageIndex(sortColumn, descending, filter, PAGE_SIZE));
+	}
+
+	/**
+	 * Shows the students read before the table existed, instead of reading them
+	 * again. Only called while the table is in the order it starts with
+	 */
+	public void show(final FirstRead read) {
+		show(read.firstPage, read.pageIndex);
+	}
+
+	/**
+	 * Shows the first page and the index being read, dropping the cached pages
+	 */
+	private void show(final CompletableFuture<List<Student>> firstPage,
+			final CompletableFuture<StudentPageIndex> pageIndex) {
+		final int requestGeneration = clear();
+		showPage(0, firstPage, PAGE_SIZE, false);
+
+		pageIndex.thenAcceptAsync(readIndex -> {
+			if (readIndex == null || requestGeneration != generation) {
+				return;
+			}
+
+			index = readIndex;
+			indexCurrent = true;
+			syncTime = readIndex.getSyncTime();
+			rowCount = readIndex.getRowCount();
+			pageStarts = new int[readIndex.getPageCount()];
+			for (int page = 0; page < pageStarts.length; page++) {
+				pageStarts[page] = page * PAGE_SIZE;
+			}
+
+			// The first page has been read without the index, students added or deleted in between move its end
+			final StudentStore first = pages.get(0);
+			if (first != null && !endsFirstPage(first)) {
+				pages.remove(0);
+			}
+			fireTableDataChanged();
+		}, EDT);
+	}
+
+	/**
+	 * Drops the cached pages, the first one being read again
+	 *
+	 * @return The generation of the reads started from now on
+	 */
+	private int clear() {
+		final int requestGeneration = ++generation;
+		pages.clear();
+		loadingPages.clear();
+		indexCurrent = false;
+		loadingPages.add(0);
+		return requestGeneration;
+	}
+
+	/**
+	 * Reads the students found by a search, which all fit in the first page. The
+	 * sync time is kept, the changes are read from it as for all the students
+	 */
+	private void readSearchResults(final int requestGeneration) {
+		final Timestamp currentSyncTime = syncTime;
+		StudentService.getStudentsById(searchIds, filter).thenAcceptAsync(students -> {
+			if (students == null || requestGeneration != generation) {
+				return;
+			}
+
+			loadingPages.remove(0);
+			StudentStore rows = new StudentStore(students.size(), courses);
+			for (Student student : students) {
+				rows.add(student);
+			}
+			pages.put(0, rows);
+
+			index = new StudentPageIndex(rows.size(), Collections.<Object[]>emptyList(), currentSyncTime);
+			indexCurrent = true;
+			rowCount = rows.size();
+			pageStarts = new int[] { 0 };
+			fireTableDataChanged();
+		}, EDT);
+	}
+
+	/**
+	 * Applies changes read from the database. Changed students are patched in
+	 * the cached pages, where they keep their place until the next reload even if
+	 * their sorting value changed. Added and deleted students are inserted in and
+	 * removed from the cached pages, moving the pages after them; the pages that
+	 * aren't cached are corrected when they are read
+	 */
+	private void apply(final StudentDelta delta) {
+		if (delta.isEmpty()) {
+			syncTime = delta.getSyncTime();
+			return;
+		}
+		if (searchIds != null) {
+			// The search results are few, reading them again is simpler than patching them
+			syncTime = delta.getSyncTime();
+			reload();
+			return;
+		}
+		if (delta.isFull() || !indexCurrent) {
+			reload();
+			return;
+		}
+
+		for (int id : delta.getDeletedIds()) {
+			final int page = findCachedPage(id);
+			if (page >= 0) {
+				removeRow(page, pages.get(page).indexOf(id));
+			}
+		}
+
+		if (filter.isEmpty()) {
+			patch(delta.getChanged(), delta.getChanged());
+			syncTime = delta.getSyncTime();
+			return;
+		}
+
+		if (delta.getChanged().size() > PAGE_SIZE) {
+			// More changed students than a page are read faster with the pages than by their IDs
+			reload();
+			return;
+		}
+
+		// With a filter, a changed student may have started or stopped meeting it, so they are read with it
+		final int requestGeneration = generation;
+		final int[] ids = delta.getChanged().stream().mapToInt(Student::getId).toArray();
+		StudentService.getStudentsById(ids, filter).thenAcceptAsync(matching -> {
+			// The changes are read again on the next refresh if they can't be applied now
+			if (matching == null || requestGeneration != generation) {
+				return;
+			}
+
+			patch(delta.getChanged(), matching);
+			syncTime = delta.getSyncTime();
+		}, EDT);
+	}
+
+	/**
+	 * Puts changed students in the cached pages. A student that is cached is
+	 * replaced, or removed if it no longer meets the filter; one that isn't is
+	 * inserted in its page if that page is cached
+	 *
+	 * @param changed  - The students changed
+	 * @param matching - The changed students that meet the filter
+	 */
+	private void patch(final List<Student> changed, final List<Student> matching) {
+		Map<Integer, Student> shown = new HashMap<Integer, Student>();
+		for (Student student : matching) {
+			shown.put(student.getId(), student);
+		}
+
+		for (Student student : changed) {
+			final Student current = shown.get(student.getId());
+			final int page = findCachedPage(student.getId());
+			if (page >= 0) {
+				final int pageRow = pages.get(page).indexOf(student.getId());
+				if (current == null) {
+					removeRow(page, pageRow);
+				} else {
+					pages.get(page).set(pageRow, current);
+					fireTableRowsUpdated(pageStarts[page] + pageRow, pageStarts[page] + pageRow);
+				}
+			} else if (current != null) {
+				final int newPage = index.findPage(current, sortColumn, descending);
+				if (pages.containsKey(newPage)) {
+					insertRow(newPage, current);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The index of the cached page showing a student, or -1 if the student
+	 *         isn't cached
+	 */
+	private int findCachedPage(final int id) {
+		for (Map.Entry<Integer, StudentStore> page : pages.entrySet()) {
+			if (page.getValue().indexOf(id) >= 0) {
+				return page.getKey();
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Inserts a student in a cached page, in the order the students are sorted in
+	 */
+	private void insertRow(final int page, final Student student) {
+		final StudentStore rows = pages.get(page);
+		int pageRow = 0;
+		while (pageRow < rows.size() && compareRows(student, rows.get(pageRow)) > 0) {
+			pageRow++;
+		}
+
+		StudentStore inserted = new StudentStore(rows.size() + 1, courses);
+		for (int i = 0; i < rows.size(); i++) {
+			if (i == pageRow) {
+				inserted.add(student);
+			}
+			inserted.add(rows.get(i));
+		}
+		if (pageRow == rows.size()) {
+			inserted.add(student);
+		}
+		pages.put(page, inserted);
+
+		movePagesAfter(page, 1);
+		fireTableRowsInserted(pageStarts[page] + pageRow, pageStarts[page] + pageRow);
+	}
+
+	/**
+	 * Removes a row of a cached page
+	 */
+	private void removeRow(final int page, final int pageRow) {
+		final StudentStore rows = pages.get(page);
+		StudentStore remaining = new StudentStore(rows.size() - 1, courses);
+		for (int i = 0; i < rows.size(); i++) {
+			if (i != pageRow) {
+				remaining.add(rows.get(i));
+			}
+		}
+		pages.put(page, remaining);
+
+		movePagesAfter(page, -1);
+		fireTableRowsDeleted(pageStarts[page] + pageRow, pageStarts[page] + pageRow);
+	}
+
+	/**
+	 * Moves the pages after one that has grown or shrunk
+	 *
+	 * @param difference - The number of rows added to the page, negative if rows
+	 *                   have been removed
+	 */
+	private void movePagesAfter(final int page, final int difference) {
+		for (int next = page + 1; next < pageStarts.length; next++) {
+			pageStarts[next] += difference;
+		}
+		rowCount += difference;
+	}
+
+	/**
+	 * @return Whether a student comes before(negative) or after(positive) another
+	 *         in the order of the table
+	 */
+	private int compareRows(final Student student, final Student other) {
+		return StudentPageIndex.compareToKey(student,
+				new Object[] { StudentPageIndex.sortValue(other, sortColumn), other.getId() }, sortColumn,
+				descending);
+	}
+
+	/**
+	 * @return Whether the first page, read before the index, ends where the index
+	 *         says it does
+	 */
+	private boolean endsFirstPage(final StudentStore rows) {
+		final Object[] keyLast = index.getKeyLast(0);
+		if (keyLast == null) {
+			return rows.size() == rowCount;
+		}
+		return rows.size() == getPageSize(0)
+				&& StudentPageIndex.compareToKey(rows.get(rows.size() - 1), keyLast, sortColumn, descending) == 0;
+	}
+
+	/**
+	 * @return The index of the page showing a row
+	 */
+	private int pageOf(final int row) {
+		int low = 0;
+		int high = pageStarts.length - 1;
+		while (low < high) {
+			final int middle = (low + high + 1) >>> 1;
+			if (pageStarts[middle] <= row) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return The row of a table row within its page
+	 */
+	private int toPageRow(final int row) {
+		return row - pageStarts[pageOf(row)];
+	}
+
+	/**
+	 * @return The number of rows of a page
+	 */
+	private int getPageSize(final int page) {
+		return (page + 1 < pageStarts.length ? pageStarts[page + 1] : rowCount) - pageStarts[page];
+	}
+
+	/**
+	 * @return The cached page of a row, or null if the page isn't cached or
+	 *         doesn't reach the row
+	 */
+	private StudentStore getPage(final int row) {
+		final StudentStore page = pages.get(pageOf(row));
+		return page == null || toPageRow(row) >= page.size() ? null : page;
+	}
+
+	/**
+	 * Reads a page in the background, unless it is cached, already being read,
+	 * past the end of the table or the index of the current order is still being
+	 * read
+	 */
+	private void requestPage(final int page) {
+		if (!indexCurrent || page >= pageStarts.length || pages.containsKey(page) || !loadingPages.add(page)) {
+			return;
+		}
+
+		// The page is read up to its last row, however many students have been added to it
+		readPage(page, index.getKeyBefore(page), index.getKeyLast(page), getPageSize(page) + PAGE_SIZE, true);
+	}
+
+	/**
+	 * Reads a page in the background and caches it once it arrives, even empty,
+	 * so that it isn't read again on every paint
+	 *
+	 * @param keyBefore - The key of the row before the page, null for the first
+	 *                  page
+	 * @param keyLast   - The key of the last row of the page, null to read up to
+	 *                  the limit
+	 * @param limit     - The most students read
+	 * @param bounded   - Whether the page is read between the keys of the index,
+	 *                  in which case the number of rows read corrects the number
+	 *                  of rows the page is thought to have
+	 */
+	private void readPage(final int page, final Object[] keyBefore, final Object[] keyLast, final int limit,
+			final boolean bounded) {
+		showPage(page, StudentService.getStudentPage(sortColumn, descending, filter, keyBefore, keyLast, limit), limit,
+				bounded);
+	}
+
+	/**
+	 * Caches a page once it has been read, see readPage
+	 */
+	private void showPage(final int page, final CompletableFuture<List<Student>> read, final int limit,
+			final boolean bounded) {
+		final int requestGeneration = generation;
+		read.thenAcceptAsync(students -> {
+			if (requestGeneration != generation) {
+				return;
+			}
+
+			loadingPages.remove(page);
+			if (students == null) {
+				return;
+			}
+			if (bounded && students.size() >= limit) {
+				// More students have been added to the page than it can take in
+				reload();
+				return;
+			}
+
+			StudentStore rows = new StudentStore(students.size(), courses);
+			for (Student student : students) {
+				rows.add(student);
+			}
+			if (!bounded && indexCurrent && !endsFirstPage(rows)) {
+				// The index has arrived first and doesn't end the page there
+				requestPage(page);
+				return;
+			}
+			pages.put(page, rows);
+
+			if (bounded) {
+				final int end = pageStarts[page] + getPageSize(page);
+				final int difference = rows.size() - getPageSize(page);
+				movePagesAfter(page, difference);
+				if (difference > 0) {
+					fireTableRowsInserted(end, end + difference - 1);
+				} else if (difference < 0) {
+					fireTableRowsDeleted(end + difference, end - 1);
+				}
+			}
+
+			final int firstRow = pageStarts[page];
+			final int lastRow = Math.min(firstRow + rows.size(), getRowCount()) - 1;
+			if (lastRow >= firstRow) {
+				fireTableRowsUpdated(firstRow, lastRow);
+			}
+		}, EDT);
+	}
+
+	/**
+	 * Formats a date the way it is typed in the form(YYYY-MM-DD)
+	 */
+	private static String formatDate(final LocalDate date) {
+		return date == null ? "" : date.toString();
+	}
+}
@@ -0,0 +1,283 @@
+package sms;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a table of the database to a CSV or JSON file. The rows are streamed
+ * from the database straight to a buffered output, so memory use doesn't depend
+ * on the size of the table
+ */
+public class TableExporter {
+	/**
+	 * The format of the exported file
+	 */
+	public enum Format {
+		CSV, JSON
+	}
+
+	/**
+	 * The number of rows between two progress reports
+	 */
+	private static final int PROGRESS_INTERVAL = 1000;
+
+	/**
+	 * The size of the output buffer in bytes
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Format format;
+	private final boolean gzip;
+
+	/**
+	 * @param format - The format of the exported files
+	 * @param gzip   - Whether the exported files are compressed with gzip
+	 */
+	public TableExporter(final Format format, final boolean gzip) {
+		this.format = format;
+		this.gzip = gzip;
+	}
+
+	/**
+	 * Creates an exporter according to a file's name: .json files are exported as
+	 * JSON, everything else as CSV, and a .gz suffix turns on compression
+	 *
+	 * @param fileName - The name of the file to export to
+	 * @return The exporter for that file
+	 */
+	public static TableExporter forFileName(final String fileName) {
+		final String name = fileName.toLowerCase();
+		final boolean gzip = name.endsWith(".gz");
+		final String baseName = gzip ? name.substring(0, name.length() - 3) : name;
+
+		return new TableExporter(baseName.endsWith(".json") ? Format.JSON : Format.CSV, gzip);
+	}
+
+	/**
+	 * Exports a table to a file
+	 *
+	 * @see #export(String, OutputStream, LongConsumer)
+	 */
+	public TransferReport export(final String tableName, final Path output, final LongConsumer progress)
+			throws IOException {
+		try (OutputStream outputStream = Files.newOutputStream(output)) {
+			return export(tableName, outputStream, progress);
+		}
+	}
+
+	/**
+	 * Exports a table to a stream. The stream isn't closed
+	 *
+	 * @param tableName - The students, courses or faculties table
+	 * @param output    - The stream the rows are written to
+	 * @param progress  - Called with the number of rows exported so far, may be
+	 *                  null
+	 * @return How many rows have been exported and how fast
+	 * @throws IOException If the table can't be read or the output can't be
+	 *                     written
+	 */
+	public TransferReport export(final String tableName, final OutputStream output, final LongConsumer progress)
+			throws IOException {
+		final long start = System.nanoTime();
+
+		OutputStream stream = new BufferedOutputStream(new NonClosingOutputStream(output), BUFFER_SIZE);
+		if (gzip) {
+			stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+		}
+
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			RowWriter rowWriter = format == Format.JSON ? new JsonRowWriter(writer) : new CsvRowWriter(writer);
+
+			StudentService.getRepository().streamTable(tableName, values -> {
+				try {
+					rowWriter.write(values);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+
+				if (progress != null && rowWriter.rows > 0 && rowWriter.rows % PROGRESS_INTERVAL == 0) {
+					progress.accept(rowWriter.rows);
+				}
+			});
+
+			rowWriter.finish();
+			if (progress != null) {
+				progress.accept(rowWriter.rows);
+			}
+
+			return new TransferReport(rowWriter.rows, rowWriter.rows, 0, System.nanoTime() - start);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (SQLException e) {
+			throw new IOException("The table " + tableName + " couldn't be read", e);
+		}
+	}
+
+	/**
+	 * Writes the column names and then the rows in a format
+	 */
+	private abstract static class RowWriter {
+		protected final Writer writer;
+		protected String[] columns;
+		private long rows;
+
+		protected RowWriter(final Writer writer) {
+			this.writer = writer;
+		}
+
+		private void write(final Object[] values) throws IOException {
+			if (columns == null) {
+				columns = new String[values.length];
+				for (int i = 0; i < values.length; i++) {
+					columns[i] = values[i].toString();
+				}
+				writeColumns();
+			} else {
+				writeRow(values);
+				rows++;
+			}
+		}
+
+		protected abstract void writeColumns() throws IOException;
+
+		protected abstract void writeRow(Object[] values) throws IOException;
+
+		protected abstract void finish() throws IOException;
+	}
+
+	/**
+	 * A header line with the column names, then one line per row
+	 */
+	private static class CsvRowWriter extends RowWriter {
+		private final CsvWriter csvWriter;
+		private String[] record;
+
+		private CsvRowWriter(final Writer writer) {
+			super(writer);
+			this.csvWriter = new CsvWriter(writer);
+		}
+
+		@Override
+		protected void writeColumns() throws IOException {
+			csvWriter.writeRecord(columns);
+		}
+
+		@Override
+		protected void writeRow(final Object[] values) throws IOException {
+			if (record == null) {
+				record = new String[values.length];
+			}
+
+			for (int i = 0; i < values.length; i++) {
+				record[i] = values[i] == null ? null : values[i].toString();
+			}
+			csvWriter.writeRecord(record);
+		}
+
+		@Override
+		protected void finish() throws IOException {
+			csvWriter.flush();
+		}
+	}
+
+	/**
+	 * An array with one object per row, keyed by column name
+	 */
+	private static class JsonRowWriter extends RowWriter {
+		private boolean firstRow = true;
+
+		private JsonRowWriter(final Writer writer) {
+			super(writer);
+		}
+
+		@Override
+		protected void writeColumns() throws IOException {
+			writer.write('[');
+		}
+
+		@Override
+		protected void writeRow(final Object[] values) throws IOException {
+			writer.write(firstRow ? "\n{" : ",\n{");
+			firstRow = false;
+
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeString(columns[i]);
+				writer.write(':');
+
+				if (values[i] == null) {
+					writer.write("null");
+				} else if (values[i] instanceof Number) {
+					writer.write(values[i].toString());
+				} else {
+					writeString(values[i].toString());
+				}
+			}
+
+			writer.write('}');
+		}
+
+		@Override
+		protected void finish() throws IOException {
+			// The header hasn't been written if the table couldn't be read at all
+			writer.write(columns == null ? "[]\n" : "\n]\n");
+		}
+
+		private void writeString(final String value) throws IOException {
+			writer.write('"');
+			for (int i = 0; i < value.length(); i++) {
+				final char c = value.charAt(i);
+
+				if (c == '"' || c == '\\') {
+					writer.write('\\');
+					writer.write(c);
+				} else if (c == '\n') {
+					writer.write("\\n");
+				} else if (c == '\r') {
+					writer.write("\\r");
+				} else if (c == '\t') {
+					writer.write("\\t");
+				} else if (c < 0x20) {
+					writer.write(String.format("\\u%04x", (int) c));
+				} else {
+					writer.write(c);
+				}
+			}
+			writer.write('"');
+		}
+	}
+
+	/**
+	 * Lets the exporter close its buffers and gzip stream without closing the
+	 * caller's stream
+	 */
+	private static class NonClosingOutputStream extends FilterOutputStream {
+		private NonClosingOutputStream(final OutputStream output) {
+			super(output);
+		}
+
+		@Override
+		public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+			out.write(bytes, offset, length);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package sms;
+
+/**
+ * The outcome of an import or an export: how many rows went through and how
+ * fast
+ */
+public class TransferReport {
+	private final long rowsRead;
+	private final long rowsWritten;
+	private final long rowsRejected;
+	private final long elapsedNanos;
+
+	/**
+	 * @param rowsRead     - The number of rows read from the source
+	 * @param rowsWritten  - The number of rows written to the destination
+	 * @param rowsRejected - The number of rows that have been left out
+	 * @param elapsedNanos - The time the transfer took, in nanoseconds
+	 */
+	public TransferReport(final long rowsRead, final long rowsWritten, final long rowsRejected,
+			final long elapsedNanos) {
+		this.rowsRead = rowsRead;
+		this.rowsWritten = rowsWritten;
+		this.rowsRejected = rowsRejected;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return The number of rows read from the source
+	 */
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	/**
+	 * @return The number of rows written to the destination
+	 */
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	/**
+	 * @return The number of rows that have been left out
+	 */
+	public long getRowsRejected() {
+		return rowsRejected;
+	}
+
+	/**
+	 * @return The time the transfer took, in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+
+	/**
+	 * @return The number of rows read per second
+	 */
+	public double getRowsPerSecond() {
+		return elapsedNanos == 0 ? 0 : rowsRead * 1e9 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("read=%d, written=%d, rejected=%d, elapsed=%dms, %.0f rows/s", rowsRead, rowsWritten,
+				rowsRejected, getElapsedMillis(), getRowsPerSecond());
+	}
+}
@@ -1,20 +1,13 @@
 package sms;
 
-import java.io.File;
-import java.util.HashMap;
-import java.util.Vector;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * The enum that represents the selected language
- * 
+ *
  * @author Artiom
  *
  */
@@ -23,88 +16,91 @@ enum Language {
 }
 
 /**
- * The class that handles internationalization and language changes
- * 
+ * The class that handles internationalization and language changes. The
+ * messages are compiled from Languages.xml into the Messages class at build
+ * time, so nothing is read or parsed at runtime, and changing the language only
+ * changes which array of messages is used
+ *
  * @author Artiom
  *
  */
 public class Translator {
 	/**
-	 * HashMap that holds tags as keys and messages as values
+	 * The keys in ascending order, searched by getValue
 	 */
-	private static HashMap<String, String> messages;
+	private static final String[] SORTED_KEYS;
+
 	/**
-	 * The variable that holds currently selected language
+	 * The index in Messages of every key of SORTED_KEYS
 	 */
-	private static Language language;
-
-	static {
-		messages = new HashMap<String, String>();
-		setLanguage(Language.ENG);
-	}
+	private static final int[] SORTED_INDEXES;
 
 	/**
-	 * The constructor
+	 * The messages of every language, by the language's ordinal
 	 */
-	public Translator() {
+	private static final String[][] MESSAGES;
 
+	static {
+		SORTED_KEYS = Messages.KEYS.clone();
+		Arrays.sort(SORTED_KEYS);
+		SORTED_INDEXES = new int[SORTED_KEYS.length];
+		for (int i = 0; i < Messages.KEYS.length; i++) {
+			SORTED_INDEXES[Arrays.binarySearch(SORTED_KEYS, Messages.KEYS[i])] = i;
+		}
+
+		MESSAGES = new String[Language.values().length][];
+		for (Language each : Language.values()) {
+			final int index = Arrays.asList(Messages.LANGUAGES).indexOf(each.name());
+			if (index < 0) {
+				throw new IllegalStateException("Languages.xml has no " + each + " messages");
+			}
+			MESSAGES[each.ordinal()] = Messages.VALUES[index];
+		}
 	}
 
 	/**
-	 * Gets the messages in the language selected by the user
+	 * The variable that holds currently selected language
 	 */
-	public static void getMessagesFromXML() {
-		try {
-			// An array that will store keys
-			Vector<String> keys = new Vector<String>();
-			// An array that will store values
-			Vector<String> values = new Vector<String>();
-
-			// Reading the .xml document
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			Document document = builder.parse(new File("Languages.xml"));
-			document.getDocumentElement().normalize();
-			// Get all elements with tag key
-			NodeList keysList = document.getElementsByTagName("key");
-			// Get all elements with tag val
-			NodeList valuesList = document.getElementsByTagName("val");
-
-			for (int i = 0; i < keysList.getLength(); i++) {
-				// Add to the keys array every met key in the .xml document
-				Node keyNode = keysList.item(i);
-				Element keyElement = (Element) keyNode;
-				keys.add(keyElement.getAttribute("value"));
-			}
+	private static volatile Language language = Language.ENG;
 
-			for (int j = 0; j < valuesList.getLength(); j++) {
-				Node valueNode = valuesList.item(j);
-				Element valueElement = (Element) valueNode;
+	/**
+	 * The messages of the selected language, by their index in Messages
+	 */
+	private static volatile String[] messages = MESSAGES[Language.ENG.ordinal()];
 
-				// Add to the values array every value met in the .xml document according to the
-				// selected language
-				if (valueElement.getAttribute("lang").equals(language.toString())) {
-					values.add(valueElement.getTextContent());
-				}
-			}
+	/**
+	 * Called with the new language whenever it changes
+	 */
+	private static final List<Consumer<Language>> languageListeners = new CopyOnWriteArrayList<Consumer<Language>>();
 
-			// Putting keys and values in the messages HashMap
-			for (int i = 0; i < keys.size(); i++)
-				messages.put(keys.get(i), values.get(i));
+	/**
+	 * The constructor
+	 */
+	public Translator() {
 
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
 	}
 
 	/**
-	 * Gets the message in dependance of the key
-	 * 
-	 * @param key - The key for the message in the HashMap
-	 * @return The message that contains that key
+	 * Gets the message in dependance of the key. The application uses the key
+	 * constants of Messages instead, this is for keys only known as text
+	 *
+	 * @param key - The key for the message
+	 * @return The message in the selected language, or null if there is no such
+	 *         key
 	 */
 	public static String getValue(final String key) {
-		return messages.get(key);
+		final int position = Arrays.binarySearch(SORTED_KEYS, key);
+		return position < 0 ? null : messages[SORTED_INDEXES[position]];
+	}
+
+	/**
+	 * Gets a message without searching for its key
+	 *
+	 * @param key - One of the key constants of Messages
+	 * @return The message in the selected language
+	 */
+	static String getValue(final int key) {
+		return messages[key];
 	}
 
 	/**
@@ -115,9 +111,35 @@ public class Translator {
 	}
 
 	/**
+	 * Selects the language of the messages. Nothing is read, and other threads see
+	 * the new language on their next message. The language listeners are called
+	 * on the calling thread if the language has changed
+	 *
 	 * @param language - Language user wishes to select
 	 */
 	public static void setLanguage(Language language) {
+		final Language previous = Translator.language;
+		messages = MESSAGES[language.ordinal()];
 		Translator.language = language;
+
+		if (language != previous) {
+			for (Consumer<Language> listener : languageListeners) {
+				listener.accept(language);
+			}
+		}
+	}
+
+	/**
+	 * @param listener - Called with the new language whenever it changes
+	 */
+	public static void addLanguageListener(final Consumer<Language> listener) {
+		languageListeners.add(listener);
+	}
+
+	/**
+	 * @param listener - A listener added before, which isn't called anymore
+	 */
+	public static void removeLanguageListener(final Consumer<Language> listener) {
+		languageListeners.remove(listener);
 	}
 }
@@ -0,0 +1,121 @@
+package sms;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Compares the messages compiled at build time with reading Languages.xml at
+ * runtime: how long the first message takes, how long a read of the document
+ * takes and how much memory the read messages take. The document is read from
+ * memory, so the disk doesn't count. Run with the messages document in the
+ * working directory, optionally passing the number of iterations
+ */
+public class TranslatorBenchmark {
+	/**
+	 * The default number of times the document is read
+	 */
+	private static final int DEFAULT_ITERATIONS = 2000;
+
+	/**
+	 * The number of reads before measuring, so that the code is compiled
+	 */
+	private static final int WARM_UP_ITERATIONS = 500;
+
+	/**
+	 * The number of copies of the messages kept to measure their memory
+	 */
+	private static final int RETAINED_COPIES = 100;
+
+	public static void main(String[] args) throws Exception {
+		final int iterations = args != null && args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+
+		// Measured first, while nothing has been loaded yet
+		long start = System.nanoTime();
+		Translator.getValue("sms");
+		System.out.printf("First compiled message: %.1f us%n", (System.nanoTime() - start) / 1e3);
+
+		start = System.nanoTime();
+		final byte[] document = Files.readAllBytes(Paths.get("Languages.xml"));
+		parse(new ByteArrayInputStream(document));
+		System.out.printf("First read of the document: %.1f us%n", (System.nanoTime() - start) / 1e3);
+
+		for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+			parse(new ByteArrayInputStream(document));
+		}
+
+		start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			parse(new ByteArrayInputStream(document));
+		}
+		System.out.printf("Later reads of the document: %.1f us per read%n",
+				(System.nanoTime() - start) / 1e3 / iterations);
+
+		// The memory the copies hold once nothing else is left to collect
+		final long before = usedMemory();
+		List<Map<Language, Map<String, String>>> copies = new ArrayList<Map<Language, Map<String, String>>>();
+		for (int i = 0; i < RETAINED_COPIES; i++) {
+			copies.add(parse(new ByteArrayInputStream(document)));
+		}
+		final long after = usedMemory();
+
+		System.out.printf("Read messages of %d languages: %d keys, about %d KB%n", copies.get(0).size(),
+				copies.get(0).get(Language.ENG).size(), (after - before) / RETAINED_COPIES / 1024);
+	}
+
+	/**
+	 * Reads the messages of every language in a single pass over the document,
+	 * the fastest way to read them at runtime
+	 */
+	private static Map<Language, Map<String, String>> parse(final InputStream input) throws XMLStreamException {
+		Map<Language, Map<String, String>> messages = new EnumMap<Language, Map<String, String>>(Language.class);
+		for (Language each : Language.values()) {
+			messages.put(each, new HashMap<String, String>());
+		}
+
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(input);
+		try {
+			String key = null;
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+
+				if ("key".equals(reader.getLocalName())) {
+					key = reader.getAttributeValue(null, "value");
+				} else if ("val".equals(reader.getLocalName()) && key != null) {
+					final Language language = Language.valueOf(reader.getAttributeValue(null, "lang"));
+					messages.get(language).put(key, reader.getElementText());
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		return messages;
+	}
+
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,72 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+/**
+ * The class that tests Translator class
+ */
+public class TranslatorTest {
+
+	@Test
+	public void everyKeyIsTranslated() {
+		Language selected = Translator.getLanguage();
+		try {
+			for (Language language : Language.values()) {
+				Translator.setLanguage(language);
+				for (String key : Messages.KEYS) {
+					assertNotNull(key + " in " + language, Translator.getValue(key));
+				}
+			}
+		} finally {
+			Translator.setLanguage(selected);
+		}
+	}
+
+	@Test
+	public void setLanguageSwitchesTheMessages() {
+		Language selected = Translator.getLanguage();
+		try {
+			Translator.setLanguage(Language.ENG);
+			assertEquals("Student Management System", Translator.getValue("sms"));
+			assertEquals("Student Management System", Translator.getValue(Messages.sms));
+			Translator.setLanguage(Language.RO);
+			assertEquals("Sistem de management al elevilor", Translator.getValue("sms"));
+			assertEquals(Language.RO, Translator.getLanguage());
+		} finally {
+			Translator.setLanguage(selected);
+		}
+	}
+
+	@Test
+	public void listenersHearLanguageChanges() {
+		Language selected = Translator.getLanguage();
+		List<Language> heard = new ArrayList<Language>();
+		Consumer<Language> listener = heard::add;
+		try {
+			Translator.setLanguage(Language.ENG);
+			Translator.addLanguageListener(listener);
+			Translator.setLanguage(Language.RU);
+			Translator.setLanguage(Language.RU);
+			Translator.removeLanguageListener(listener);
+			Translator.setLanguage(Language.RO);
+			assertEquals(Arrays.asList(Language.RU), heard);
+		} finally {
+			Translator.removeLanguageListener(listener);
+			Translator.setLanguage(selected);
+		}
+	}
+
+	@Test
+	public void unknownKeyHasNoMessage() {
+		assertNull(Translator.getValue("noSuchKey"));
+	}
+}
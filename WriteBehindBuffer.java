@@ -0,0 +1,286 @@
+package sms;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the cell edits of the management table and writes them to the
+ * database in the background. Edits are keyed by student ID and column, so
+ * editing a cell again before it is written only replaces its value. The
+ * pending edits are flushed once the oldest of them has waited for the flush
+ * delay, or at once when as many cells as the size threshold are pending, and
+ * every flush writes all of them in one transaction. The edits of a flush that
+ * fails are kept apart as failed, until they are edited again, retried or
+ * discarded. Flushes run one at a time on their own thread, in the order of
+ * the edits. Thread safe
+ */
+public class WriteBehindBuffer {
+	/**
+	 * The default time the first pending edit waits before a flush, in
+	 * milliseconds
+	 */
+	public static final long DEFAULT_FLUSH_DELAY = 500;
+
+	/**
+	 * The default number of pending cells that flushes at once
+	 */
+	public static final int DEFAULT_MAX_PENDING = 100;
+
+	/**
+	 * Writes the edits of a flush
+	 */
+	interface Writer {
+		/**
+		 * Writes edits in one transaction, all of them or none
+		 *
+		 * @param edits - The new values by column, by student ID
+		 * @return True if the edits have been written, false otherwise
+		 */
+		boolean write(Map<Integer, Map<Integer, String>> edits);
+	}
+
+	private final Writer writer;
+	private final long flushDelay;
+	private final int maxPending;
+	private final ScheduledExecutorService flusher;
+
+	/**
+	 * Called on the flushing thread whenever edits are added, written or fail
+	 */
+	private final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<Runnable>();
+
+	// Guarded by this
+	private PendingEdits pending = new PendingEdits();
+	private PendingEdits writing = new PendingEdits();
+	private PendingEdits failed = new PendingEdits();
+	private ScheduledFuture<?> scheduledFlush;
+	private long flushes;
+	private long failedFlushes;
+	private long editsWritten;
+	private int lastBatchSize;
+	private int maxBatchSize;
+	private long totalBatchSize;
+	private long totalFlushNanos;
+	private long maxFlushNanos;
+
+	/**
+	 * @param writer     - Writes the edits of a flush
+	 * @param flushDelay - The time the first pending edit waits before a flush,
+	 *                   in milliseconds
+	 * @param maxPending - The number of pending cells that flushes at once
+	 */
+	WriteBehindBuffer(final Writer writer, final long flushDelay, final int maxPending) {
+		if (maxPending < 1) {
+			throw new IllegalArgumentException("The size threshold must be positive: " + maxPending);
+		}
+
+		this.writer = writer;
+		this.flushDelay = flushDelay;
+		this.maxPending = maxPending;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sms-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Adds an edit, replacing the pending or failed edit of the same cell
+	 *
+	 * @param id     - The ID of the student
+	 * @param column - The table column of the field
+	 * @param value  - The new value of the field
+	 */
+	public void put(final int id, final int column, final String value) {
+		synchronized (this) {
+			pending.put(id, column, value);
+			failed.remove(id, column);
+
+			if (pending.size() >= maxPending) {
+				scheduleFlush(0);
+			} else if (scheduledFlush == null) {
+				scheduleFlush(flushDelay);
+			}
+		}
+		notifyListeners();
+	}
+
+	/**
+	 * Flushes the pending edits without waiting for the delay
+	 *
+	 * @return Completed once the edits pending until now have been written or
+	 *         have failed
+	 */
+	public CompletableFuture<Void> flush() {
+		return CompletableFuture.runAsync(this::flushPending, flusher);
+	}
+
+	/**
+	 * Flushes the pending edits and stops the flushing thread once they have been
+	 * written. No edit can be added afterwards
+	 *
+	 * @return Completed once the pending edits have been written or have failed
+	 */
+	public CompletableFuture<Void> close() {
+		final CompletableFuture<Void> flushed = flush();
+		flusher.shutdown();
+		return flushed;
+	}
+
+	/**
+	 * Adds the failed edits to the pending ones, to write them again
+	 */
+	public void retryFailed() {
+		synchronized (this) {
+			for (Map.Entry<Integer, Map<Integer, String>> student : failed.drain().entrySet()) {
+				for (Map.Entry<Integer, String> field : student.getValue().entrySet()) {
+					if (!pending.contains(student.getKey(), field.getKey())) {
+						pending.put(student.getKey(), field.getKey(), field.getValue());
+					}
+				}
+			}
+			if (!pending.isEmpty() && scheduledFlush == null) {
+				scheduleFlush(0);
+			}
+		}
+		notifyListeners();
+	}
+
+	/**
+	 * Forgets the failed edits
+	 */
+	public void discardFailed() {
+		synchronized (this) {
+			failed.drain();
+		}
+		notifyListeners();
+	}
+
+	/**
+	 * @return Whether the edit of a cell is waiting to be written or being
+	 *         written
+	 */
+	public synchronized boolean isPending(final int id, final int column) {
+		return pending.contains(id, column) || writing.contains(id, column);
+	}
+
+	/**
+	 * @return Whether the last edit of a cell couldn't be written
+	 */
+	public synchronized boolean isFailed(final int id, final int column) {
+		return failed.contains(id, column);
+	}
+
+	/**
+	 * @return The number of cells whose edits are waiting to be written or being
+	 *         written
+	 */
+	public synchronized int getPendingCount() {
+		return pending.size() + writing.size();
+	}
+
+	/**
+	 * @return The number of cells whose edits couldn't be written
+	 */
+	public synchronized int getFailedCount() {
+		return failed.size();
+	}
+
+	/**
+	 * @param listener - Called on the flushing thread, or the thread adding an
+	 *                 edit, whenever the pending or failed edits change
+	 */
+	public void addListener(final Runnable listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @return A snapshot of the flushes so far and the edits waiting
+	 */
+	public synchronized WriteBehindStats getStats() {
+		return new WriteBehindStats(flushes, failedFlushes, editsWritten, lastBatchSize, maxBatchSize,
+				flushes == 0 ? 0 : (double) totalBatchSize / flushes,
+				flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalFlushNanos / flushes),
+				TimeUnit.NANOSECONDS.toMicros(maxFlushNanos), pending.size() + writing.size(), failed.size());
+	}
+
+	/**
+	 * Replaces the scheduled flush. Guarded by this
+	 */
+	private void scheduleFlush(final long delay) {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+		}
+		scheduledFlush = flusher.schedule(this::flushPending, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Writes all the pending edits in one transaction, on the flushing thread
+	 */
+	private void flushPending() {
+		final Map<Integer, Map<Integer, String>> batch;
+		final int batchSize;
+		synchronized (this) {
+			if (scheduledFlush != null) {
+				scheduledFlush.cancel(false);
+				scheduledFlush = null;
+			}
+			if (pending.isEmpty()) {
+				return;
+			}
+
+			// Only this thread replaces the edits being written, so the view stays
+			// the same while they are
+			writing = pending;
+			pending = new PendingEdits();
+			batch = writing.view();
+			batchSize = writing.size();
+		}
+
+		final long start = System.nanoTime();
+		boolean written;
+		try {
+			written = writer.write(batch);
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			written = false;
+		}
+		final long flushNanos = System.nanoTime() - start;
+
+		synchronized (this) {
+			writing = new PendingEdits();
+			flushes++;
+			lastBatchSize = batchSize;
+			maxBatchSize = Math.max(maxBatchSize, batchSize);
+			totalBatchSize += batchSize;
+			totalFlushNanos += flushNanos;
+			maxFlushNanos = Math.max(maxFlushNanos, flushNanos);
+
+			if (written) {
+				editsWritten += batchSize;
+			} else {
+				failedFlushes++;
+				// An edit made during the flush replaces the failed one
+				for (Map.Entry<Integer, Map<Integer, String>> student : batch.entrySet()) {
+					for (Map.Entry<Integer, String> field : student.getValue().entrySet()) {
+						if (!pending.contains(student.getKey(), field.getKey())) {
+							failed.put(student.getKey(), field.getKey(), field.getValue());
+						}
+					}
+				}
+			}
+		}
+		notifyListeners();
+	}
+
+	private void notifyListeners() {
+		for (Runnable listener : listeners) {
+			listener.run();
+		}
+	}
+}
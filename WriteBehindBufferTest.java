@@ -0,0 +1,143 @@
+package sms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * The class that tests WriteBehindBuffer class
+ */
+public class WriteBehindBufferTest {
+	// Long enough that only explicit flushes and the size threshold write
+	private static final long NEVER = TimeUnit.MINUTES.toMillis(10);
+
+	/**
+	 * Records the batches written, and fails them while told to
+	 */
+	private static class RecordingWriter implements WriteBehindBuffer.Writer {
+		final List<Map<Integer, Map<Integer, String>>> batches = new ArrayList<>();
+		final CountDownLatch written = new CountDownLatch(1);
+		volatile boolean failing;
+
+		@Override
+		public synchronized boolean write(Map<Integer, Map<Integer, String>> edits) {
+			Map<Integer, Map<Integer, String>> copy = new LinkedHashMap<>();
+			edits.forEach((id, fields) -> copy.put(id, new LinkedHashMap<>(fields)));
+			batches.add(copy);
+			written.countDown();
+			return !failing;
+		}
+	}
+
+	@Test
+	public void editsAreMergedIntoOneBatch() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		WriteBehindBuffer buffer = new WriteBehindBuffer(writer, NEVER, 100);
+		buffer.put(7, 1, "Jon");
+		buffer.put(7, 1, "John");
+		buffer.put(7, 3, "21");
+		buffer.put(3, 2, "Smith");
+
+		assertEquals(3, buffer.getPendingCount());
+		assertTrue(buffer.isPending(7, 1));
+		buffer.flush().get();
+
+		assertEquals(1, writer.batches.size());
+		assertEquals("John", writer.batches.get(0).get(7).get(1));
+		assertEquals("21", writer.batches.get(0).get(7).get(3));
+		assertEquals("Smith", writer.batches.get(0).get(3).get(2));
+		assertEquals(0, buffer.getPendingCount());
+		assertFalse(buffer.isPending(7, 1));
+	}
+
+	@Test
+	public void sizeThresholdFlushesAtOnce() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		WriteBehindBuffer buffer = new WriteBehindBuffer(writer, NEVER, 3);
+		buffer.put(1, 1, "Ann");
+		buffer.put(2, 1, "Bob");
+		buffer.put(2, 1, "Rob"); // Merged, still two cells
+		buffer.put(3, 1, "Eve");
+
+		assertTrue(writer.written.await(5, TimeUnit.SECONDS));
+		buffer.flush().get();
+		assertEquals(1, writer.batches.size());
+		assertEquals(3, writer.batches.get(0).size());
+		assertEquals(3, buffer.getStats().getEditsWritten());
+	}
+
+	@Test
+	public void failedEditsAreKeptUntilRetried() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		writer.failing = true;
+		WriteBehindBuffer buffer = new WriteBehindBuffer(writer, NEVER, 100);
+		buffer.put(1, 3, "20");
+		buffer.put(1, 4, "Male");
+		buffer.flush().get();
+
+		assertEquals(2, buffer.getFailedCount());
+		assertTrue(buffer.isFailed(1, 3));
+		assertFalse(buffer.isPending(1, 3));
+
+		// Editing a failed cell again replaces its failed edit
+		buffer.put(1, 3, "21");
+		assertFalse(buffer.isFailed(1, 3));
+		assertEquals(1, buffer.getFailedCount());
+
+		writer.failing = false;
+		buffer.retryFailed();
+		buffer.flush().get();
+
+		assertEquals(0, buffer.getFailedCount());
+		Map<Integer, String> written = writer.batches.get(writer.batches.size() - 1).get(1);
+		assertEquals("21", written.get(3));
+		assertEquals("Male", written.get(4));
+	}
+
+	@Test
+	public void statsCountFlushesAndBatches() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		WriteBehindBuffer buffer = new WriteBehindBuffer(writer, NEVER, 100);
+		buffer.put(1, 1, "Ann");
+		buffer.flush().get();
+		buffer.put(1, 2, "Lee");
+		buffer.put(2, 2, "Kim");
+		buffer.put(3, 2, "Roe");
+		writer.failing = true;
+		buffer.flush().get();
+
+		WriteBehindStats stats = buffer.getStats();
+		assertEquals(2, stats.getFlushes());
+		assertEquals(1, stats.getFailedFlushes());
+		assertEquals(1, stats.getEditsWritten());
+		assertEquals(3, stats.getLastBatchSize());
+		assertEquals(3, stats.getMaxBatchSize());
+		assertEquals(2.0, stats.getAverageBatchSize(), 0.001);
+		assertEquals(3, stats.getFailed());
+		assertEquals(0, stats.getPending());
+	}
+
+	@Test
+	public void discardForgetsFailedEdits() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		writer.failing = true;
+		WriteBehindBuffer buffer = new WriteBehindBuffer(writer, NEVER, 100);
+		buffer.put(5, 2, "Doe");
+		buffer.flush().get();
+		buffer.discardFailed();
+
+		assertEquals(0, buffer.getFailedCount());
+		assertFalse(buffer.isFailed(5, 2));
+		buffer.close().get();
+		assertEquals(1, writer.batches.size());
+	}
+}
@@ -0,0 +1,111 @@
+package sms;
+
+/**
+ * A snapshot of a write-behind buffer's flushes, used to tune its delay and
+ * size threshold
+ */
+public class WriteBehindStats {
+	private final long flushes;
+	private final long failedFlushes;
+	private final long editsWritten;
+	private final int lastBatchSize;
+	private final int maxBatchSize;
+	private final double averageBatchSize;
+	private final long averageFlushMicros;
+	private final long maxFlushMicros;
+	private final int pending;
+	private final int failed;
+
+	WriteBehindStats(final long flushes, final long failedFlushes, final long editsWritten, final int lastBatchSize,
+			final int maxBatchSize, final double averageBatchSize, final long averageFlushMicros,
+			final long maxFlushMicros, final int pending, final int failed) {
+		this.flushes = flushes;
+		this.failedFlushes = failedFlushes;
+		this.editsWritten = editsWritten;
+		this.lastBatchSize = lastBatchSize;
+		this.maxBatchSize = maxBatchSize;
+		this.averageBatchSize = averageBatchSize;
+		this.averageFlushMicros = averageFlushMicros;
+		this.maxFlushMicros = maxFlushMicros;
+		this.pending = pending;
+		this.failed = failed;
+	}
+
+	/**
+	 * @return How many times edits have been flushed
+	 */
+	public long getFlushes() {
+		return flushes;
+	}
+
+	/**
+	 * @return How many flushes couldn't write their edits
+	 */
+	public long getFailedFlushes() {
+		return failedFlushes;
+	}
+
+	/**
+	 * @return How many cell edits have been written
+	 */
+	public long getEditsWritten() {
+		return editsWritten;
+	}
+
+	/**
+	 * @return The number of cell edits of the last flush
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
+	/**
+	 * @return The largest number of cell edits flushed at once
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @return The average number of cell edits per flush
+	 */
+	public double getAverageBatchSize() {
+		return averageBatchSize;
+	}
+
+	/**
+	 * @return The average time(in microseconds) a flush took to write its edits
+	 */
+	public long getAverageFlushMicros() {
+		return averageFlushMicros;
+	}
+
+	/**
+	 * @return The longest time(in microseconds) a flush took to write its edits
+	 */
+	public long getMaxFlushMicros() {
+		return maxFlushMicros;
+	}
+
+	/**
+	 * @return The number of cell edits waiting to be written or being written
+	 */
+	public int getPending() {
+		return pending;
+	}
+
+	/**
+	 * @return The number of cell edits that couldn't be written
+	 */
+	public int getFailed() {
+		return failed;
+	}
+
+	@Override
+	public String toString() {
+		return "flushes=" + flushes + ", failedFlushes=" + failedFlushes + ", editsWritten=" + editsWritten
+				+ ", lastBatch=" + lastBatchSize + ", maxBatch=" + maxBatchSize + ", avgBatch="
+				+ String.format("%.1f", averageBatchSize) + ", avgFlush=" + averageFlushMicros + "us, maxFlush="
+				+ maxFlushMicros + "us, pending=" + pending + ", failed=" + failed;
+	}
+}